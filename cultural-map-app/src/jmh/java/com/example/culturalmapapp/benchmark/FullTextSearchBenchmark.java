@@ -0,0 +1,126 @@
+package com.example.culturalmapapp.benchmark;
+
+import com.example.culturalmapapp.repository.ActivitySearchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text search on PostgreSQL: the ranked tsvector match the search endpoint runs (GIN index on
+ * a generated column, as set up by ActivitySearchService) against the LIKE '%word%' it
+ * replaces, which has to read and lower-case every row. Both return the top 20 of the matches.
+ * Needs a scratch database, given by BENCH_JDBC_URL, BENCH_JDBC_USER and BENCH_JDBC_PASSWORD
+ * (default: postgres/postgres on localhost:5432/bench); the table is created and dropped here:
+ * BENCH_JDBC_URL=jdbc:postgresql://localhost:5432/bench ./gradlew jmh -Pjmh.includes=FullTextSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class FullTextSearchBenchmark {
+
+    private static final String[] WORDS = {"show", "música", "teatro", "infantil", "exposição", "oficina", "dança",
+            "cinema", "sarau", "poesia", "feira", "artesanato", "festival", "orquestra", "coral", "maracatu",
+            "capoeira", "palestra", "lançamento", "livro", "fotografia", "circo", "comédia", "bairro", "praça"};
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    // A word in one row in 200 (only in names, accented), and one in most descriptions
+    @Param({"forró", "praça"})
+    public String term;
+
+    private Connection connection;
+    private PreparedStatement fullText;
+    private PreparedStatement like;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/bench"),
+                env("BENCH_JDBC_USER", "postgres"), env("BENCH_JDBC_PASSWORD", "postgres"));
+        String vector = ActivitySearchRepository.SEARCH_VECTOR_SQL;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            statement.execute("DO $$ BEGIN IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'pt_unaccent') THEN " +
+                    "CREATE TEXT SEARCH CONFIGURATION pt_unaccent (COPY = portuguese); " +
+                    "ALTER TEXT SEARCH CONFIGURATION pt_unaccent ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem; " +
+                    "END IF; END $$");
+            statement.execute("DROP TABLE IF EXISTS bench_activities");
+            statement.execute("CREATE TABLE bench_activities (id bigint PRIMARY KEY, name varchar(255), category varchar(255), " +
+                    "description text, search_vector tsvector GENERATED ALWAYS AS (" + vector + ") STORED)");
+        }
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_activities (id, name, category, description) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                StringBuilder description = new StringBuilder();
+                for (int w = 0; w < 40; w++) {
+                    description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                insert.setLong(1, i);
+                insert.setString(2, (i % 200 == 0 ? "Forró " : "Noite de ") + WORDS[random.nextInt(WORDS.length)]);
+                insert.setString(3, i % 2 == 0 ? "Music" : "Theatre");
+                insert.setString(4, description.toString());
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX ON bench_activities USING GIN (search_vector)");
+            statement.execute("ANALYZE bench_activities");
+        }
+        fullText = connection.prepareStatement("SELECT b.id FROM bench_activities b, websearch_to_tsquery('pt_unaccent', ?) q " +
+                "WHERE b.search_vector @@ q ORDER BY ts_rank_cd(b.search_vector, q, 1) DESC, b.id LIMIT 20");
+        like = connection.prepareStatement("SELECT b.id FROM bench_activities b WHERE lower(b.name) LIKE ? " +
+                "OR lower(b.category) LIKE ? OR lower(b.description) LIKE ? ORDER BY b.id LIMIT 20");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE bench_activities");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void fullTextRanked(Blackhole blackhole) throws SQLException {
+        fullText.setString(1, term);
+        consume(fullText, blackhole);
+    }
+
+    @Benchmark
+    public void likeBaseline(Blackhole blackhole) throws SQLException {
+        String pattern = "%" + term + "%";
+        like.setString(1, pattern);
+        like.setString(2, pattern);
+        like.setString(3, pattern);
+        consume(like, blackhole);
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        try (ResultSet results = statement.executeQuery()) {
+            while (results.next()) {
+                blackhole.consume(results.getLong(1));
+            }
+        }
+    }
+}
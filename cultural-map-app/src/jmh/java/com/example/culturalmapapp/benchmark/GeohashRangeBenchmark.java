@@ -0,0 +1,128 @@
+package com.example.culturalmapapp.benchmark;
+
+import com.example.culturalmapapp.util.GeoUtils;
+import com.example.culturalmapapp.util.Geohash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Geohash prefix range scans vs. a composite (latitude, longitude) B-tree, both modelled
+ * as binary searches over sorted arrays. The composite index can only seek on latitude,
+ * so it walks the whole latitude band and filters longitude row by row; the geohash
+ * ranges stay close to the search box. Each benchmark returns the number of index
+ * entries it had to read. For a database-level comparison run EXPLAIN ANALYZE on both
+ * queries against a loaded table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeohashRangeBenchmark {
+
+    private static final double MIN_LAT = -3.90, MAX_LAT = -3.69;
+    private static final double MIN_LON = -38.65, MAX_LON = -38.40;
+    private static final double CENTER_LAT = -3.7319, CENTER_LON = -38.5267;
+    private static final double RADIUS_KM = 2.0;
+
+    @Param({"10000", "100000", "1000000"})
+    public int activities;
+
+    // Composite index (latitude, longitude)
+    private double[] compositeLat;
+    private double[] compositeLon;
+
+    // Geohash index
+    private String[] geohashes;
+
+    private double minLat, maxLat, minLon, maxLon;
+    private List<Geohash.Range> ranges;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        double[] lats = new double[activities];
+        double[] lons = new double[activities];
+        for (int i = 0; i < activities; i++) {
+            lats[i] = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+            lons[i] = MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+        }
+
+        Integer[] order = IntStream.range(0, activities).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> lats[i]).thenComparingDouble(i -> lons[i]));
+        compositeLat = new double[activities];
+        compositeLon = new double[activities];
+        for (int i = 0; i < activities; i++) {
+            compositeLat[i] = lats[order[i]];
+            compositeLon[i] = lons[order[i]];
+        }
+
+        geohashes = new String[activities];
+        for (int i = 0; i < activities; i++) {
+            geohashes[i] = Geohash.encode(lats[i], lons[i], Geohash.MAX_PRECISION);
+        }
+        Arrays.sort(geohashes);
+
+        double latDelta = GeoUtils.latitudeDelta(RADIUS_KM);
+        double lonDelta = GeoUtils.longitudeDelta(CENTER_LAT, RADIUS_KM);
+        minLat = CENTER_LAT - latDelta;
+        maxLat = CENTER_LAT + latDelta;
+        minLon = CENTER_LON - lonDelta;
+        maxLon = CENTER_LON + lonDelta;
+        ranges = Geohash.coveringRanges(minLat, maxLat, minLon, maxLon);
+    }
+
+    @Benchmark
+    public int compositeLatLonScan(Blackhole blackhole) {
+        int examined = 0;
+        int matched = 0;
+        int from = lowerBound(compositeLat, minLat);
+        for (int i = from; i < compositeLat.length && compositeLat[i] <= maxLat; i++) {
+            examined++;
+            if (compositeLon[i] >= minLon && compositeLon[i] <= maxLon) {
+                matched++;
+            }
+        }
+        blackhole.consume(matched);
+        return examined;
+    }
+
+    @Benchmark
+    public int geohashRangeScan() {
+        int examined = 0;
+        for (Geohash.Range range : ranges) {
+            int from = lowerBound(geohashes, range.getFrom());
+            int to = range.getTo() == null ? geohashes.length : lowerBound(geohashes, range.getTo());
+            examined += to - from;
+        }
+        return examined;
+    }
+
+    @Benchmark
+    public List<Geohash.Range> coveringRangeComputation() {
+        return Geohash.coveringRanges(minLat, maxLat, minLon, maxLon);
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    private static int lowerBound(String[] values, String key) {
+        int low = 0, high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid].compareTo(key) < 0) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.culturalmapapp.benchmark;
+
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.util.HaversineKernel;
+import com.example.culturalmapapp.util.QuadTree;
+import com.example.culturalmapapp.util.ScalarHaversineKernel;
+import com.example.culturalmapapp.util.VectorHaversineKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Radius filtering of N activities. perObjectStream is the original ActivityService path:
+ * boxed Double arguments, one call per entity inside a stream, toRadians/cos of the
+ * query point redone on every call. The batch kernels run over struct-of-arrays
+ * coordinates prepared at ingest; quadTreeRadius adds the leaf walk and, above
+ * QuadTree's threshold, the fork/join split. Needs --add-modules jdk.incubator.vector
+ * (set by the jmh task) for the vector kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HaversineBenchmark {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double CENTER_LAT = -3.7319, CENTER_LON = -38.5267;
+    // Covers the whole generated area, so every point is a candidate
+    private static final double RADIUS_KM = 50.0;
+
+    @Param({"1000", "100000", "1000000"})
+    public int activities;
+
+    private List<CulturalActivity> entities;
+    private double[] latRad, lonRad, cosLat;
+    private double[] distances;
+    private QuadTree tree;
+
+    private final HaversineKernel scalar = new ScalarHaversineKernel();
+    private final HaversineKernel vector = new VectorHaversineKernel();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        entities = new ArrayList<>(activities);
+        latRad = new double[activities];
+        lonRad = new double[activities];
+        cosLat = new double[activities];
+        distances = new double[activities];
+        tree = new QuadTree(vector);
+        for (int i = 0; i < activities; i++) {
+            double lat = -3.90 + random.nextDouble() * 0.21;
+            double lon = -38.65 + random.nextDouble() * 0.25;
+            entities.add(new CulturalActivity((long) i, "Activity " + i, "Description", LocalDateTime.now(), lat, lon, "Music", null));
+            latRad[i] = Math.toRadians(lat);
+            lonRad[i] = Math.toRadians(lon);
+            cosLat[i] = Math.cos(latRad[i]);
+            tree.insert(i, lat, lon);
+        }
+    }
+
+    @Benchmark
+    public List<CulturalActivity> perObjectStream() {
+        Double latitude = CENTER_LAT;
+        Double longitude = CENTER_LON;
+        return entities.stream()
+                .filter(activity -> haversineDistance(latitude, longitude, activity.getLatitude(), activity.getLongitude()) <= RADIUS_KM)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int scalarBatch() {
+        return countWithinRadius(scalar);
+    }
+
+    @Benchmark
+    public int vectorBatch() {
+        return countWithinRadius(vector);
+    }
+
+    @Benchmark
+    public void quadTreeRadius(Blackhole blackhole) {
+        tree.withinRadius(CENTER_LAT, CENTER_LON, RADIUS_KM, (id, distance) -> blackhole.consume(id));
+    }
+
+    private int countWithinRadius(HaversineKernel kernel) {
+        double queryLatRad = Math.toRadians(CENTER_LAT);
+        kernel.distances(queryLatRad, Math.toRadians(CENTER_LON), Math.cos(queryLatRad), latRad, lonRad, cosLat, activities, distances);
+        int within = 0;
+        for (int i = 0; i < activities; i++) {
+            if (distances[i] <= RADIUS_KM) {
+                within++;
+            }
+        }
+        return within;
+    }
+
+    // Copy of the method ActivityService used before the spatial index
+    private double haversineDistance(Double userLat, Double userLon, Double activityLat, Double activityLon) {
+        if (userLat == null || userLon == null || activityLat == null || activityLon == null) {
+            return Double.MAX_VALUE;
+        }
+        double dLat = Math.toRadians(activityLat - userLat);
+        double dLon = Math.toRadians(activityLon - userLon);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(Math.toRadians(userLat)) * Math.cos(Math.toRadians(activityLat));
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.culturalmapapp.benchmark;
+
+import com.example.culturalmapapp.config.SecurityConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.exception.PasswordHashingBusyException;
+import com.example.culturalmapapp.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A login storm next to ordinary activity reads. The login threads verify BCrypt hashes,
+ * either inline on the calling thread (the previous setup) or through the bounded hashing
+ * pool; the read threads serialize an ActivityResponse, standing in for a cached GET.
+ * Compare the "reads" score between the two modes: with the pool, the logins are capped
+ * at its thread count and the surplus is rejected (counted in "rejected") instead of
+ * taking the cores the reads need. Run with more group threads than cores.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class LoginLoadBenchmark {
+
+    public enum Hashing {
+        INLINE, BOUNDED
+    }
+
+    @Param({"INLINE", "BOUNDED"})
+    public Hashing hashing;
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    private PasswordEncoder encoder;
+    private String storedHash;
+    private ObjectMapper objectMapper;
+    private ActivityResponse activity;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rejections {
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordEncoder delegating = SecurityConfig.delegatingPasswordEncoder(bcryptStrength);
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        encoder = hashing == Hashing.BOUNDED ? new BoundedPasswordEncoder(delegating, threads, 4 * threads) : delegating;
+        storedHash = delegating.encode("correct horse battery staple");
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        activity = new ActivityResponse();
+        activity.setId(1L);
+        activity.setName("Festival");
+        activity.setDescription("Annual music festival with local bands.");
+        activity.setDateTime(LocalDateTime.of(2024, 6, 1, 20, 0));
+        activity.setLatitude(-3.7319);
+        activity.setLongitude(-38.5267);
+        activity.setCategory("Music");
+        activity.setVersion(1L);
+        activity.setUpdatedAt(Instant.parse("2024-05-01T10:00:00Z"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (encoder instanceof BoundedPasswordEncoder bounded) {
+            bounded.shutdown();
+        }
+    }
+
+    @Benchmark
+    @Group("load")
+    @GroupThreads(8)
+    public boolean logins(Rejections rejections) {
+        try {
+            return encoder.matches("correct horse battery staple", storedHash);
+        } catch (PasswordHashingBusyException e) {
+            rejections.rejected++; // The endpoint would answer 503 right away
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("load")
+    @GroupThreads(4)
+    public void reads(Blackhole blackhole) throws JsonProcessingException {
+        blackhole.consume(objectMapper.writeValueAsBytes(activity));
+    }
+}
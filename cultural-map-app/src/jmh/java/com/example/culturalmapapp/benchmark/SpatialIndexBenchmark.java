@@ -0,0 +1,117 @@
+package com.example.culturalmapapp.benchmark;
+
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.service.SpatialIndexService;
+import com.example.culturalmapapp.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Near query over the in-memory spatial index vs. the previous bounding-box path.
+ * The bounding-box path is modelled as a range scan on a latitude-sorted array (what a
+ * B-tree on latitude gives the database), followed by the per-entity Haversine filter,
+ * mapping and subList paging that ActivityService used to do. Database round trips are
+ * not included, so the numbers understate the gap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpatialIndexBenchmark {
+
+    // Greater Fortaleza
+    private static final double MIN_LAT = -3.90, MAX_LAT = -3.69;
+    private static final double MIN_LON = -38.65, MAX_LON = -38.40;
+    private static final double CENTER_LAT = -3.7319, CENTER_LON = -38.5267;
+    private static final double RADIUS_KM = 5.0;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int activities;
+
+    private SpatialIndexService spatialIndex;
+    private CulturalActivity[] byLatitude;
+    private double[] sortedLatitudes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        spatialIndex = new SpatialIndexService();
+        byLatitude = new CulturalActivity[activities];
+        for (int i = 0; i < activities; i++) {
+            double lat = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+            double lon = MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+            long id = i + 1L;
+            spatialIndex.put(id, lat, lon);
+            byLatitude[i] = new CulturalActivity(id, "Activity " + id, "Description", LocalDateTime.now(), lat, lon, "Music", null);
+        }
+        Arrays.sort(byLatitude, Comparator.comparing(CulturalActivity::getLatitude));
+        sortedLatitudes = Arrays.stream(byLatitude).mapToDouble(CulturalActivity::getLatitude).toArray();
+    }
+
+    @Benchmark
+    public List<Long> spatialIndexPage() {
+        List<SpatialIndexService.Match> matches = spatialIndex.findWithinRadius(CENTER_LAT, CENTER_LON, RADIUS_KM);
+        return matches.subList(0, Math.min(PAGE_SIZE, matches.size())).stream()
+                .map(SpatialIndexService.Match::getId)
+                .collect(Collectors.toList());
+    }
+
+    // Best-first k-nearest search: should stay flat as the number of activities grows
+    @Benchmark
+    public List<SpatialIndexService.Match> nearestPage() {
+        return spatialIndex.findNearest(CENTER_LAT, CENTER_LON, PAGE_SIZE, null, null, null);
+    }
+
+    @Benchmark
+    public List<ActivityResponse> boundingBoxPage() {
+        double latDegrees = RADIUS_KM / 111.0;
+        double lonDegrees = RADIUS_KM / (111.0 * Math.cos(Math.toRadians(CENTER_LAT)));
+        double minLon = CENTER_LON - lonDegrees, maxLon = CENTER_LON + lonDegrees;
+
+        List<CulturalActivity> inBox = new ArrayList<>();
+        int from = lowerBound(CENTER_LAT - latDegrees);
+        for (int i = from; i < byLatitude.length && sortedLatitudes[i] <= CENTER_LAT + latDegrees; i++) {
+            Double lon = byLatitude[i].getLongitude();
+            if (lon >= minLon && lon <= maxLon) {
+                inBox.add(byLatitude[i]);
+            }
+        }
+
+        List<ActivityResponse> filtered = inBox.stream()
+                .filter(a -> haversineDistance(CENTER_LAT, CENTER_LON, a.getLatitude(), a.getLongitude()) <= RADIUS_KM)
+                .map(SpatialIndexBenchmark::toResponse)
+                .collect(Collectors.toList());
+        return filtered.subList(0, Math.min(PAGE_SIZE, filtered.size()));
+    }
+
+    private int lowerBound(double latitude) {
+        int index = Arrays.binarySearch(sortedLatitudes, latitude);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // Same boxed-argument signature the service used before the index
+    private static double haversineDistance(Double userLat, Double userLon, Double activityLat, Double activityLon) {
+        return GeoUtils.haversineKm(userLat, userLon, activityLat, activityLon);
+    }
+
+    private static ActivityResponse toResponse(CulturalActivity activity) {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(activity.getId());
+        response.setName(activity.getName());
+        response.setDescription(activity.getDescription());
+        response.setDateTime(activity.getDateTime());
+        response.setLatitude(activity.getLatitude());
+        response.setLongitude(activity.getLongitude());
+        response.setCategory(activity.getCategory());
+        return response;
+    }
+}
@@ -2,8 +2,10 @@ package com.example.culturalmapapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Token revocation sync and expired token purges
 public class CulturalMapAppApplication {
 
     public static void main(String[] args) {
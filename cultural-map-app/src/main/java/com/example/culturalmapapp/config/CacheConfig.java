@@ -0,0 +1,84 @@
+package com.example.culturalmapapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Configuration
+// Runs outside the transaction interceptor, so an eviction happens after the commit it follows
+// Class-based proxies, as Boot creates them; services are injected by their own type
+@EnableCaching(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 1)
+@ConfigurationProperties(prefix = "app.cache")
+@Data
+public class CacheConfig {
+
+    // ActivityResponse by id, filled by getActivityById and refreshed/evicted by updates and deletes
+    public static final String ACTIVITIES = "activities";
+    // Finished list pages, owned and loaded by ActivityService; registered here for the stats endpoint
+    public static final String ACTIVITY_PAGES = "activity-pages";
+    // Near-query candidates per grid cell, owned by NearQueryCache
+    public static final String NEAR_CELLS = "near-cells";
+    // UTF-8 JSON (and gzip) of single activities, owned by ActivityJsonCache
+    public static final String ACTIVITY_JSON = "activity-json";
+    // User entities by username, filled by UserLookupService and evicted by UserService on changes
+    public static final String USERS = "users";
+    // Principals of verified JWTs by token digest, owned by JwtTokenProvider
+    public static final String VERIFIED_TOKENS = "verified-tokens";
+
+    private long activityMaxSize = 10_000;
+    private Duration activityTtl = Duration.ofMinutes(10);
+
+    // Bound on the serialized bytes held by the JSON cache, both encodings included
+    private long jsonMaxBytes = 32L * 1024 * 1024;
+    private Duration jsonTtl = Duration.ofMinutes(10);
+
+    private long pageMaxSize = 2_000;
+    private Duration pageTtl = Duration.ofMinutes(10);
+    // An entry older than this is still served, while a background reload replaces it
+    private Duration pageRefreshAfter = Duration.ofSeconds(30);
+    private int pageRefreshThreads = 2;
+
+    // How often ActivityCountService rebuilds the approximate totals from a COUNT ... GROUP BY
+    private long countReloadIntervalMs = 600_000;
+
+    private long userMaxSize = 10_000;
+    private Duration userTtl = Duration.ofMinutes(5);
+
+    // Cluster-wide invalidation of the activity caches and indexes over Postgres LISTEN/NOTIFY
+    private boolean busEnabled = true;
+    private String busChannel = "activity_changes";
+    // Longest wait for notifications before the connection is checked
+    private Duration busPollTimeout = Duration.ofSeconds(10);
+    // Reconnect backoff, doubled on each failed attempt up to the maximum
+    private Duration busReconnectDelay = Duration.ofSeconds(1);
+    private Duration busReconnectMaxDelay = Duration.ofSeconds(30);
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ACTIVITIES, Caffeine.newBuilder()
+                .maximumSize(activityMaxSize)
+                .expireAfterWrite(activityTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(userMaxSize)
+                .expireAfterWrite(userTtl)
+                .recordStats()
+                .build());
+        // Static mode: every cache is registered with its own bounds (here or by the service that loads it),
+        // no unbounded defaults on the fly
+        cacheManager.setCacheNames(Collections.emptyList());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.export")
+@Data
+public class ExportConfig {
+
+    // Full exports streaming at once; each holds a pooled database connection until it ends, so this must stay below the pool size
+    private int maxConcurrent = 2;
+
+    // Retry-After sent with the 503 when every export slot is taken
+    private Duration retryAfter = Duration.ofSeconds(30);
+}
@@ -0,0 +1,46 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.geo")
+@Data
+public class GeoConfig {
+
+    public enum NearStrategy {
+        INDEX,    // In-memory spatial index, page hydrated by id
+        DATABASE, // Distance computed, filtered, ordered and paged in SQL
+        GEOHASH   // Geohash prefix range scans, exact filter in memory, page hydrated by id
+    }
+
+    private NearStrategy nearStrategy = NearStrategy.INDEX;
+
+    // Fill in geohashes for rows written before the column existed
+    private boolean geohashBackfillOnStartup = true;
+    private int geohashBackfillBatchSize = 500;
+
+    // Deepest zoom with clusters, at most 27; above it /clusters returns individual activities
+    private int clusterMaxZoom = 16;
+
+    // Upper bound on k for /nearest
+    private int nearestMaxK = 100;
+
+    // Vector tiles: deepest zoom served (at most 29) and total size of the encoded tile cache
+    private int tileMaxZoom = 20;
+    private long tileCacheMaxBytes = 64L * 1024 * 1024;
+    // Most activities drawn on one tile, latest first; low zooms would otherwise read the whole table
+    private int tileMaxFeatures = 5_000;
+
+    // Near-query candidate cache of the GEOHASH strategy: query points snap to cells of this size
+    // and radii round up to multiples of the step; larger radii bypass the cache
+    private boolean nearCacheEnabled = true;
+    private double nearCacheCellDegrees = 0.01;
+    private double nearCacheRadiusStepKm = 1.0;
+    private double nearCacheMaxRadiusKm = 25.0;
+    private long nearCacheMaxCandidates = 2_000_000;
+    private Duration nearCacheTtl = Duration.ofMinutes(10);
+}
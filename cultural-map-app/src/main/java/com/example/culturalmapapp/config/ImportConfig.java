@@ -0,0 +1,21 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.import")
+@Data
+public class ImportConfig {
+
+    // Rows per transaction; also the JDBC batch size the inserts and updates are sent with
+    private int batchSize = 500;
+
+    // Rejected lines listed in the report; the rest are only counted
+    private int maxReportedRejections = 100;
+
+    // Command-line mode: import this file (.csv, .json, .ndjson) as this user, then exit
+    private String file;
+    private String producer;
+}
@@ -11,4 +11,14 @@ public class JwtConfig {
     private String secret;
     private long expirationMs;
     private String tokenPrefix;
+    // Verified tokens whose principal is kept, so their signature is checked only once
+    private long verifiedCacheMaxSize = 10_000;
+    // Refresh tokens are rotated on every use and live this long
+    private long refreshExpirationMs = 1_209_600_000L;
+    // Bloom filter over revoked token ids: sized for this many live revocations at this false-positive rate
+    private long revocationExpectedInsertions = 100_000;
+    private double revocationFalsePositiveRate = 0.01;
+    // How often revocations made on other nodes are picked up
+    private long revocationSyncIntervalMs = 5_000;
+    private long refreshPurgeIntervalMs = 3_600_000;
 }
@@ -0,0 +1,22 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.neighbourhoods")
+@Data
+public class NeighbourhoodConfig {
+
+    // GeoJSON FeatureCollection of Polygon/MultiPolygon boundaries; unset disables neighbourhood tagging
+    private String geojsonPath;
+
+    // Feature properties holding the neighbourhood id and display name
+    private String idProperty = "id";
+    private String nameProperty = "name";
+
+    // Re-tag existing activities at startup, e.g. after the boundary file changed
+    private boolean retagOnStartup = true;
+    private int retagBatchSize = 500;
+}
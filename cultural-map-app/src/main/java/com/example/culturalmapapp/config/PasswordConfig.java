@@ -0,0 +1,17 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password")
+@Data
+public class PasswordConfig {
+    // BCrypt cost of new hashes; stored hashes of a lower cost are rehashed on the next login
+    private int bcryptStrength = 10;
+    // Threads that hash and verify passwords; bounds the CPU a burst of logins can take
+    private int hashingThreads = 2;
+    // Hashing requests allowed to wait for a thread; beyond this they are rejected at once
+    private int hashingQueueCapacity = 32;
+}
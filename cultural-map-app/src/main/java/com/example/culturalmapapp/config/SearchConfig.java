@@ -0,0 +1,30 @@
+package com.example.culturalmapapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+@Data
+public class SearchConfig {
+
+    // PostgreSQL full-text search (Portuguese stemming, accents ignored); off, or on other databases, search falls back to LIKE
+    private boolean fullTextEnabled = true;
+
+    // Create the search_vector column, its text search configuration and GIN index at startup when missing. Adding the
+    // column rewrites the table under an exclusive lock, so this is for development; production runs it as a migration
+    private boolean createSchema = false;
+
+    // Longest accepted search text, in characters
+    private int maxQueryLength = 200;
+
+    // In-memory BM25 index behind GET /api/activities/quick-search, built at startup and kept current on every write
+    private boolean indexEnabled = true;
+
+    // Largest k accepted by /api/activities/quick-search
+    private int indexMaxK = 100;
+
+    // Written or deleted activities kept beside the compressed index before they are merged into it
+    private int indexMergeThreshold = 1024;
+}
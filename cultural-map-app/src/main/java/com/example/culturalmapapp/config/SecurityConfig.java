@@ -1,11 +1,13 @@
 package com.example.culturalmapapp.config;
 
 import com.example.culturalmapapp.filter.JwtAuthenticationFilter;
+import com.example.culturalmapapp.security.BoundedPasswordEncoder;
 import com.example.culturalmapapp.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -13,25 +15,37 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchyImpl;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    // Activity reads are public; JwtAuthenticationFilter skips these requests
+    public static final String PUBLIC_ACTIVITY_READS = "/api/activities/**";
+    // Except the full export, which ties up a database connection for its whole run and needs a login
+    public static final String ACTIVITY_EXPORT = "/api/activities/export";
+
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private PasswordConfig passwordConfig;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,10 +54,13 @@ public class SecurityConfig {
             .authorizeHttpRequests(authorizeRequests ->
                 authorizeRequests
                     .requestMatchers("/api/auth/**").permitAll() // Registration and login
-                    .requestMatchers(HttpMethod.GET, "/api/activities/**").permitAll() // Allow public GET access to activities
+                    .requestMatchers(HttpMethod.GET, ACTIVITY_EXPORT).authenticated()
+                    .requestMatchers(HttpMethod.GET, PUBLIC_ACTIVITY_READS).permitAll() // Allow public GET access to activities
                     .requestMatchers("/public/**").permitAll()
                     .anyRequest().authenticated()
-            );
+            )
+            // Requests without a valid token get 401 rather than the default 403
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
             // Add JWT filter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -52,7 +69,21 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder(passwordConfig.getBcryptStrength()),
+                passwordConfig.getHashingThreads(), passwordConfig.getHashingQueueCapacity());
+    }
+
+    /**
+     * New hashes are stored as {bcrypt}... with the given cost. Hashes written before the
+     * prefix existed are plain BCrypt and still match; upgradeEncoding() reports them, and
+     * hashes of a lower cost, so they are rewritten on the next successful login. Hashes of
+     * a higher cost are kept, so lowering the cost never downgrades stored passwords.
+     */
+    public static PasswordEncoder delegatingPasswordEncoder(int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
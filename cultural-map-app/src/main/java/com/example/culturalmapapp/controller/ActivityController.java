@@ -1,22 +1,42 @@
 package com.example.culturalmapapp.controller;
 
+import com.example.culturalmapapp.config.ExportConfig;
+import com.example.culturalmapapp.dto.ActivityCursorPage;
 import com.example.culturalmapapp.dto.ActivityRequest;
 import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.dto.ClusterResponse;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import com.example.culturalmapapp.service.ActivityChangeTracker;
+import com.example.culturalmapapp.service.ActivityExportService;
+import com.example.culturalmapapp.service.ActivityJsonCache;
+import com.example.culturalmapapp.service.ActivitySearchService;
 import com.example.culturalmapapp.service.ActivityService;
+import com.example.culturalmapapp.service.ClusterService;
+import com.example.culturalmapapp.service.TileService;
+import com.example.culturalmapapp.util.ActivityCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid; // Already present but good to confirm
-// import java.util.List; // No longer returning List for paginated endpoints
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,6 +55,27 @@ public class ActivityController {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private TileService tileService;
+
+    @Autowired
+    private ActivityChangeTracker changeTracker;
+
+    @Autowired
+    private ActivityJsonCache activityJsonCache;
+
+    @Autowired
+    private ActivityExportService activityExportService;
+
+    @Autowired
+    private ExportConfig exportConfig;
+
+    @Autowired
+    private ActivitySearchService activitySearchService;
+
     @Operation(summary = "Create a new cultural activity",
                  description = "Allows PRODUCER or ADMIN users to create a new cultural activity. The producer is automatically assigned based on the authenticated user.",
                  security = @SecurityRequirement(name = "bearerAuth"),
@@ -48,39 +89,143 @@ public class ActivityController {
     @PostMapping
     @PreAuthorize("hasRole('ROLE_PRODUCER')") // ADMIN inherits PRODUCER role via RoleHierarchy
     public ResponseEntity<ActivityResponse> createActivity(@Valid @RequestBody ActivityRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        ActivityResponse response = activityService.createActivity(request, username);
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        ActivityResponse response = activityService.createActivity(request, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @Operation(summary = "Get an activity by its ID",
-                 description = "Retrieves a specific cultural activity by its unique ID. Publicly accessible.",
+                 description = "Retrieves a specific cultural activity by its unique ID. Publicly accessible. The ETag is the activity version; send it back in If-None-Match to get 304 while the activity is unchanged. Served gzip-encoded when the client accepts it.",
                  responses = {
                      @ApiResponse(responseCode = "200", description = "Activity found",
                                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityResponse.class))),
+                     @ApiResponse(responseCode = "304", description = "Activity unchanged since the given ETag or date"),
                      @ApiResponse(responseCode = "404", description = "Activity not found")
                  })
     @GetMapping("/{id}")
-    public ResponseEntity<ActivityResponse> getActivityById(
-            @Parameter(description = "ID of the activity to retrieve", required = true) @PathVariable Long id) {
-        ActivityResponse response = activityService.getActivityById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getActivityById(
+            @Parameter(description = "ID of the activity to retrieve", required = true) @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        // Pre-serialized bytes, written as they are; see ActivityJsonCache
+        ActivityJsonCache.Entry entry = activityJsonCache.get(id);
+        boolean gzip = entry.getGzip() != null && acceptsGzip(acceptEncoding);
+        if (entry.getVersion() != null) {
+            // Each encoding is a different representation, so it gets its own strong tag
+            String eTag = "\"" + entry.getVersion() + (gzip ? "-gzip" : "") + "\"";
+            boolean notModified = entry.getUpdatedAt() != null
+                    ? webRequest.checkNotModified(eTag, entry.getUpdatedAt().toEpochMilli())
+                    : webRequest.checkNotModified(eTag);
+            if (notModified) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+            }
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.getGzip());
+        }
+        return ok.body(entry.getJson());
+    }
+
+    // True unless gzip is absent from Accept-Encoding or refused with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.matches("q=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 
     @Operation(summary = "Get all cultural activities (paginated)",
-                 description = "Retrieves a paginated list of all cultural activities. Publicly accessible. Supports pagination and sorting via Pageable parameters (e.g., ?page=0&size=10&sort=name,asc).",
+                 description = "Retrieves a paginated list of all cultural activities. Publicly accessible. Supports pagination and sorting via Pageable parameters (e.g., ?page=0&size=10&sort=name,asc). total=exact (default) counts the matching rows for every page; total=approximate fills totalElements from counters kept in memory; total=none returns a slice with only first/last and no count at all. Returns 304 for a matching If-None-Match while no activity in scope has changed.",
                  responses = {
                      @ApiResponse(responseCode = "200", description = "List of activities retrieved",
-                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))) // Note: Actual content is Page<ActivityResponse>
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))), // Note: Actual content is Page<ActivityResponse>
+                     @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Invalid total mode")
                  })
     @GetMapping
-    public ResponseEntity<Page<ActivityResponse>> getAllActivities(
-            @Parameter(description = "Pagination and sorting information") Pageable pageable) {
-        Page<ActivityResponse> responses = activityService.getAllActivities(pageable);
+    public ResponseEntity<?> getAllActivities(
+            @Parameter(description = "Pagination and sorting information") Pageable pageable,
+            @Parameter(description = "Total to include: exact, approximate or none") @RequestParam(defaultValue = "exact") String total,
+            WebRequest webRequest) {
+        ActivityService.Total totalMode;
+        try {
+            totalMode = parseTotal(total);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        // Conditional GET answered from the change counter, before any query runs
+        ActivityChangeTracker.Stamp stamp = changeTracker.all();
+        if (webRequest.checkNotModified(changeTracker.eTag("all", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Slice<ActivityResponse> responses = activityService.getAllActivities(pageable, totalMode);
         return ResponseEntity.ok(responses);
     }
 
+    private static ActivityService.Total parseTotal(String total) {
+        try {
+            return ActivityService.Total.valueOf(total.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("total must be exact, approximate or none.");
+        }
+    }
+
+    @Operation(summary = "Get all cultural activities (cursor-paginated)",
+                 description = "Keyset pagination, selected by the 'after' parameter: pass it empty for the first page, then the nextCursor of each page. Pages stay consistent while activities are created or deleted, cost the same however deep the client scrolls, and carry no total; the last page has no nextCursor. sort (dateTime or id, asc or desc) applies to the first page; later pages keep the order stored in the cursor. Publicly accessible. Returns 304 for a matching If-None-Match while no activity has changed.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Page of activities retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityCursorPage.class))),
+                     @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or size")
+                 })
+    @GetMapping(params = "after")
+    public ResponseEntity<?> getAllActivitiesAfter(
+            @Parameter(description = "Cursor from the previous page; empty for the first page", required = true) @RequestParam String after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Order of the first page: dateTime or id, optionally followed by ,asc or ,desc", example = "dateTime,asc")
+                @RequestParam(defaultValue = "dateTime") String sort,
+            WebRequest webRequest) {
+        ActivityChangeTracker.Stamp stamp = changeTracker.all();
+        if (webRequest.checkNotModified(changeTracker.eTag("all", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return cursorPage(null, after, size, sort);
+    }
+
+    // Shared by the cursor variants of the unfiltered and category listings
+    private ResponseEntity<?> cursorPage(String category, String after, int size, String sort) {
+        try {
+            ActivityCursor cursor;
+            if (after.isEmpty()) {
+                String[] parts = sort.split(",");
+                boolean descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+                cursor = ActivityCursor.start(ActivityCursor.SortKey.fromProperty(parts[0].trim()), descending);
+            } else {
+                cursor = ActivityCursor.decode(after);
+            }
+            return ResponseEntity.ok(activityService.getActivitiesAfter(category, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update an existing cultural activity",
                  description = "Allows the original PRODUCER or an ADMIN to update an existing cultural activity.",
                  security = @SecurityRequirement(name = "bearerAuth"),
@@ -97,10 +242,9 @@ public class ActivityController {
     public ResponseEntity<?> updateActivity(
             @Parameter(description = "ID of the activity to update", required = true) @PathVariable Long id,
             @Valid @RequestBody ActivityRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
         try {
-            ActivityResponse response = activityService.updateActivity(id, request, username);
+            ActivityResponse response = activityService.updateActivity(id, request, currentUser);
             return ResponseEntity.ok(response);
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
@@ -122,10 +266,9 @@ public class ActivityController {
     @PreAuthorize("hasRole('ROLE_PRODUCER')") // ADMIN inherits PRODUCER role
     public ResponseEntity<?> deleteActivity(
             @Parameter(description = "ID of the activity to delete", required = true) @PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
         try {
-            activityService.deleteActivity(id, username);
+            activityService.deleteActivity(id, currentUser);
             return ResponseEntity.noContent().build();
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
@@ -135,21 +278,134 @@ public class ActivityController {
     }
 
     @Operation(summary = "Search activities by category (paginated)",
-                 description = "Retrieves a paginated list of cultural activities filtered by a specific category. Publicly accessible.",
+                 description = "Retrieves a paginated list of cultural activities filtered by a specific category. Publicly accessible. total=exact (default), approximate or none, as for GET /api/activities. Returns 304 for a matching If-None-Match while no activity in scope has changed.",
                  responses = {
                      @ApiResponse(responseCode = "200", description = "List of activities retrieved",
-                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+                     @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Invalid total mode")
                  })
     @GetMapping("/search")
-    public ResponseEntity<Page<ActivityResponse>> searchActivitiesByCategory(
+    public ResponseEntity<?> searchActivitiesByCategory(
             @Parameter(description = "Category to search for", required = true) @RequestParam String category,
-            @Parameter(description = "Pagination and sorting information") Pageable pageable) {
-        Page<ActivityResponse> responses = activityService.getActivitiesByCategory(category, pageable);
+            @Parameter(description = "Pagination and sorting information") Pageable pageable,
+            @Parameter(description = "Total to include: exact, approximate or none") @RequestParam(defaultValue = "exact") String total,
+            WebRequest webRequest) {
+        ActivityService.Total totalMode;
+        try {
+            totalMode = parseTotal(total);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        ActivityChangeTracker.Stamp stamp = changeTracker.category(category);
+        if (webRequest.checkNotModified(changeTracker.eTag("category", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Slice<ActivityResponse> responses = activityService.getActivitiesByCategory(category, pageable, totalMode);
         return ResponseEntity.ok(responses);
     }
 
+    @Operation(summary = "Search activities by category (cursor-paginated)",
+                 description = "Keyset pagination of the activities in a category, selected by the 'after' parameter; see GET /api/activities with 'after'. Publicly accessible. Returns 304 for a matching If-None-Match while no activity in scope has changed.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Page of activities retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityCursorPage.class))),
+                     @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or size")
+                 })
+    @GetMapping(value = "/search", params = "after")
+    public ResponseEntity<?> searchActivitiesByCategoryAfter(
+            @Parameter(description = "Category to search for", required = true) @RequestParam String category,
+            @Parameter(description = "Cursor from the previous page; empty for the first page", required = true) @RequestParam String after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Order of the first page: dateTime or id, optionally followed by ,asc or ,desc", example = "dateTime,asc")
+                @RequestParam(defaultValue = "dateTime") String sort,
+            WebRequest webRequest) {
+        ActivityChangeTracker.Stamp stamp = changeTracker.category(category);
+        if (webRequest.checkNotModified(changeTracker.eTag("category", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return cursorPage(category, after, size, sort);
+    }
+
+    @Operation(summary = "List activities in a neighbourhood (paginated)",
+                 description = "Retrieves a paginated list of cultural activities located in the given neighbourhood (bairro), using the neighbourhood tag stored on each activity. Publicly accessible. Returns 304 for a matching If-None-Match while no activity in scope has changed.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "List of activities retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+                     @ApiResponse(responseCode = "304", description = "List unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "404", description = "Neighbourhood not found")
+                 })
+    @GetMapping("/by-neighbourhood/{id}")
+    public ResponseEntity<Page<ActivityResponse>> getActivitiesByNeighbourhood(
+            @Parameter(description = "ID of the neighbourhood, as given in the boundary file", required = true) @PathVariable String id,
+            @Parameter(description = "Pagination and sorting information") Pageable pageable,
+            WebRequest webRequest) {
+        // Neighbourhood tags only change with a write, so the global counter covers them
+        ActivityChangeTracker.Stamp stamp = changeTracker.all();
+        if (webRequest.checkNotModified(changeTracker.eTag("all", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Page<ActivityResponse> responses = activityService.getActivitiesByNeighbourhood(id, pageable);
+        return ResponseEntity.ok(responses);
+    }
+
+    @Operation(summary = "Full-text search of activities (paginated)",
+                 description = "Searches activity names, categories and descriptions, most relevant first; a name match ranks above a description match. Portuguese word forms and accents are ignored, so 'forro' finds 'Forró' and 'espetaculos de danca' finds 'espetáculo de dança'. Words are ANDed; \"quoted phrases\", 'or' and a leading '-' to exclude a word are supported. Optionally restricted to a radius (kilometers) around a point, in which case each activity includes its distanceKm, and to a date window. Pagination sorting is ignored. Publicly accessible. Returns 304 for a matching If-None-Match while no activity has changed.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Matching activities retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+                     @ApiResponse(responseCode = "304", description = "Results unchanged since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Empty or too long text, incomplete location or invalid date window")
+                 })
+    @GetMapping("/text-search")
+    public ResponseEntity<?> searchActivitiesByText(
+            @Parameter(description = "Text to search for", required = true, example = "teatro infantil") @RequestParam String q,
+            @Parameter(description = "Latitude of the center point") @RequestParam(required = false) Double latitude,
+            @Parameter(description = "Longitude of the center point") @RequestParam(required = false) Double longitude,
+            @Parameter(description = "Radius in kilometers") @RequestParam(required = false) Double radius,
+            @Parameter(description = "Only activities starting at or after this date-time (ISO 8601)", example = "2025-06-01T00:00:00")
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only activities starting at or before this date-time (ISO 8601)", example = "2025-06-30T23:59:59")
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Pagination information") Pageable pageable,
+            WebRequest webRequest) {
+        ActivityChangeTracker.Stamp stamp = changeTracker.all();
+        if (webRequest.checkNotModified(changeTracker.eTag("all", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        try {
+            Page<ActivityResponse> responses = activitySearchService.search(q, latitude, longitude, radius, from, to, pageable);
+            return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Quick text search of activities, top k",
+                 description = "Returns the k activities that best match the text, best first, ranked by BM25 over names, categories and descriptions from an in-memory index kept current on every write. An activity matches on any of the words; matches on more, rarer words and on the name rank higher. Accents, case and Portuguese plurals are ignored ('cancoes' finds 'Canção'). Each activity includes its score. Publicly accessible.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Best matches retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityResponse.class))),
+                     @ApiResponse(responseCode = "400", description = "Empty or too long text, or invalid k"),
+                     @ApiResponse(responseCode = "503", description = "Text index disabled")
+                 })
+    @GetMapping("/quick-search")
+    public ResponseEntity<?> quickSearchActivities(
+            @Parameter(description = "Text to search for", required = true, example = "forró pé de serra") @RequestParam String q,
+            @Parameter(description = "Number of activities to return") @RequestParam(defaultValue = "10") int k) {
+        try {
+            List<ActivityResponse> responses = activitySearchService.quickSearch(q, k);
+            return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
     @Operation(summary = "Find activities near a location (paginated)",
-                 description = "Retrieves a paginated list of cultural activities within a specified radius (in kilometers) of a given latitude and longitude. Publicly accessible.",
+                 description = "Retrieves a paginated list of cultural activities within a specified radius (in kilometers) of a given latitude and longitude, closest first. Each activity includes its distanceKm. Publicly accessible.",
                  responses = {
                      @ApiResponse(responseCode = "200", description = "List of activities retrieved",
                                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
@@ -163,4 +419,146 @@ public class ActivityController {
         Page<ActivityResponse> responses = activityService.getActivitiesNear(latitude, longitude, radius, pageable);
         return ResponseEntity.ok(responses);
     }
+
+    @Operation(summary = "Find the k activities closest to a location",
+                 description = "Retrieves the k cultural activities closest to the given latitude and longitude, closest first, without needing a radius. Each activity includes its distanceKm. Optional category and date window filters are applied during the search, so the result still holds k matching activities when that many exist. Publicly accessible.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Closest activities retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityResponse.class))),
+                     @ApiResponse(responseCode = "400", description = "Invalid k or date window")
+                 })
+    @GetMapping("/nearest")
+    public ResponseEntity<?> getNearestActivities(
+            @Parameter(description = "Latitude of the center point", required = true) @RequestParam Double latitude,
+            @Parameter(description = "Longitude of the center point", required = true) @RequestParam Double longitude,
+            @Parameter(description = "Number of activities to return") @RequestParam(defaultValue = "10") int k,
+            @Parameter(description = "Only activities of this category") @RequestParam(required = false) String category,
+            @Parameter(description = "Only activities starting at or after this date-time (ISO 8601)", example = "2025-06-01T00:00:00")
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only activities starting at or before this date-time (ISO 8601)", example = "2025-06-30T23:59:59")
+                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            List<ActivityResponse> responses = activityService.getNearestActivities(latitude, longitude, k, category, from, to);
+            return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get map clusters for a bounding box and zoom level",
+                 description = "Returns activity clusters (centroid and count) intersecting the bounding box at the given map zoom. Clusters holding a single activity carry its ID; above the deepest clustered zoom every activity is returned individually. Publicly accessible.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Clusters retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ClusterResponse.class))),
+                     @ApiResponse(responseCode = "400", description = "Invalid bounding box or zoom")
+                 })
+    @GetMapping("/clusters")
+    public ResponseEntity<?> getClusters(
+            @Parameter(description = "Bounding box as minLon,minLat,maxLon,maxLat", required = true, example = "-38.64,-3.89,-38.40,-3.69") @RequestParam String bbox,
+            @Parameter(description = "Map zoom level", required = true, example = "13") @RequestParam int zoom) {
+        try {
+            String[] parts = bbox.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Bounding box must be minLon,minLat,maxLon,maxLat.");
+            }
+            double minLon = Double.parseDouble(parts[0].trim());
+            double minLat = Double.parseDouble(parts[1].trim());
+            double maxLon = Double.parseDouble(parts[2].trim());
+            double maxLat = Double.parseDouble(parts[3].trim());
+            List<ClusterResponse> clusters = clusterService.getClusters(minLat, maxLat, minLon, maxLon, zoom);
+            return ResponseEntity.ok(clusters);
+        } catch (IllegalArgumentException e) { // Also covers NumberFormatException
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get a vector tile of activities",
+                 description = "Returns the activities inside tile z/x/y (XYZ scheme) as a Mapbox Vector Tile with a single point layer named 'activities'. Each feature carries the activity ID and its name and category properties. Publicly accessible.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Tile encoded",
+                                  content = @Content(mediaType = TileService.MVT_MEDIA_TYPE)),
+                     @ApiResponse(responseCode = "204", description = "No activities in the tile"),
+                     @ApiResponse(responseCode = "400", description = "Invalid tile coordinates")
+                 })
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    public ResponseEntity<?> getTile(
+            @Parameter(description = "Zoom level", required = true) @PathVariable int z,
+            @Parameter(description = "Tile column", required = true) @PathVariable int x,
+            @Parameter(description = "Tile row, 0 at the top", required = true) @PathVariable int y) {
+        try {
+            byte[] tile = tileService.getTile(z, x, y);
+            if (tile.length == 0) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(TileService.MVT_MEDIA_TYPE))
+                    .body(tile);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Export all cultural activities",
+                 description = "Streams every activity in id order as CSV (header row first) or NDJSON (one JSON object per line), in a single response of unknown length (chunked). Use this instead of paging through the list endpoints for a full copy. Served gzip-encoded when the client accepts it. Requires PRODUCER or ADMIN role. Only a few exports run at once; beyond that the request is refused with 503 and a Retry-After header. Returns 304 for a matching If-None-Match while no activity has changed.",
+                 security = @SecurityRequirement(name = "bearerAuth"),
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Export streamed",
+                                  content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+                     @ApiResponse(responseCode = "304", description = "No activity changed since the given ETag"),
+                     @ApiResponse(responseCode = "400", description = "Unsupported format"),
+                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                     @ApiResponse(responseCode = "403", description = "Forbidden (not a PRODUCER or ADMIN)"),
+                     @ApiResponse(responseCode = "503", description = "Too many exports running; retry after the Retry-After delay")
+                 })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ROLE_PRODUCER')") // ADMIN inherits PRODUCER role
+    public ResponseEntity<StreamingResponseBody> exportActivities(
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        ActivityExportService.Format exportFormat;
+        try {
+            exportFormat = ActivityExportService.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return streamedMessage(ResponseEntity.status(HttpStatus.BAD_REQUEST), e.getMessage());
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ActivityChangeTracker.Stamp stamp = changeTracker.all();
+        if (webRequest.checkNotModified(changeTracker.eTag(gzip ? "export-gzip" : "export", stamp), stamp.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        if (!activityExportService.tryAcquireSlot()) {
+            return streamedMessage(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(exportConfig.getRetryAfter().toSeconds())),
+                    "Too many exports in progress; try again later.");
+        }
+        // Written on an async thread after this method returns, straight into the response; the slot is held until then
+        StreamingResponseBody body = output -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+                    activityExportService.export(exportFormat, compressed);
+                    compressed.finish();
+                } else {
+                    activityExportService.export(exportFormat, output);
+                }
+            } finally {
+                activityExportService.releaseSlot();
+            }
+        };
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"activities." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return ok.body(body);
+    }
+
+    // The declared body type selects the streaming handler, so error messages are streamed too
+    private static ResponseEntity<StreamingResponseBody> streamedMessage(ResponseEntity.BodyBuilder response, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return response.contentType(MediaType.TEXT_PLAIN).body(output -> output.write(bytes));
+    }
 }
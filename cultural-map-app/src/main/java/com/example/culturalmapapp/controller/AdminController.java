@@ -0,0 +1,85 @@
+package com.example.culturalmapapp.controller;
+
+import com.example.culturalmapapp.dto.ActivityImportReport;
+import com.example.culturalmapapp.dto.CacheStatsResponse;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import com.example.culturalmapapp.service.ActivityImportService;
+import com.example.culturalmapapp.service.CacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Tag(name = "Administration", description = "Operational endpoints for administrators")
+@RestController
+@RequestMapping("/api/admin")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Operation(summary = "Get cache statistics",
+                 description = "Returns size, hit, miss and eviction counts for every application cache. ADMIN only.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Statistics retrieved",
+                                  content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CacheStatsResponse.class)))),
+                     @ApiResponse(responseCode = "401", description = "User not authenticated"),
+                     @ApiResponse(responseCode = "403", description = "User is not an ADMIN")
+                 })
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getCacheStats());
+    }
+
+    @Operation(summary = "Bulk import activities",
+                 description = "Streams an agenda file into the activity table, as activities of the calling admin. The body is CSV (text/csv, with a header row naming the columns externalId, name, description, dateTime, latitude, longitude, category), a JSON array of such objects (application/json) or one object per line (application/x-ndjson). Rows are matched by externalId: new ones are inserted, changed ones updated, unchanged ones skipped. Invalid rows are listed in the report; the rest are imported. ADMIN only.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "Import finished",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = ActivityImportReport.class))),
+                     @ApiResponse(responseCode = "400", description = "The file cannot be read (missing CSV columns, malformed JSON)"),
+                     @ApiResponse(responseCode = "401", description = "User not authenticated"),
+                     @ApiResponse(responseCode = "403", description = "User is not an ADMIN"),
+                     @ApiResponse(responseCode = "409", description = "Another import is still running")
+                 })
+    @PostMapping(value = "/activities/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<?> importActivities(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream body) throws IOException {
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        ActivityImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ActivityImportService.Format.CSV
+                : ActivityImportService.Format.JSON;
+        try {
+            return ResponseEntity.ok(activityImportService.importActivities(body, format, currentUser.getUsername()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
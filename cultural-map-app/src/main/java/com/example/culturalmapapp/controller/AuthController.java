@@ -1,12 +1,16 @@
 package com.example.culturalmapapp.controller;
 
+import com.example.culturalmapapp.config.JwtConfig;
 import com.example.culturalmapapp.dto.LoginRequest;
 import com.example.culturalmapapp.dto.LoginResponse;
+import com.example.culturalmapapp.dto.MessageResponse;
+import com.example.culturalmapapp.dto.RefreshTokenRequest;
 import com.example.culturalmapapp.dto.UserRegistrationRequest;
 import com.example.culturalmapapp.model.User;
-import com.example.culturalmapapp.service.JwtTokenProvider;
+import com.example.culturalmapapp.service.RefreshTokenService;
 import com.example.culturalmapapp.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,7 +26,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
-@Tag(name = "Authentication", description = "Endpoints for user registration and login")
+@Tag(name = "Authentication", description = "Endpoints for user registration, login, token refresh and logout")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -34,13 +38,19 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtConfig jwtConfig;
 
     @Operation(summary = "Register a new user",
                  description = "Creates a new user account. Default role is CONSUMER if not specified.",
                  responses = {
-                     @ApiResponse(responseCode = "201", description = "User registered successfully"),
-                     @ApiResponse(responseCode = "400", description = "Invalid input or user/email already exists")
+                     @ApiResponse(responseCode = "201", description = "User registered successfully",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
+                     @ApiResponse(responseCode = "400", description = "Invalid input or unknown role"),
+                     @ApiResponse(responseCode = "409", description = "Username or email already exists"),
+                     @ApiResponse(responseCode = "503", description = "Too many concurrent password operations, retry later")
                  })
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationRequest registrationRequest) {
@@ -48,21 +58,23 @@ public class AuthController {
         // Manual checks for null/empty can be removed if @NotBlank is comprehensive enough.
         // The initial manual check is removed as @NotBlank covers it.
         
+        // UserAlreadyExistsException (409) and PasswordHashingBusyException (503) are handled by GlobalExceptionHandler
         try {
             User newUser = userService.registerUser(registrationRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully: " + newUser.getUsername());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CREATED).body(new MessageResponse("User registered successfully: " + newUser.getUsername()));
+        } catch (IllegalArgumentException e) { // Unknown role
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
         }
     }
 
     @Operation(summary = "Authenticate user and generate JWT",
-                 description = "Logs in an existing user and returns a JWT token upon successful authentication.",
+                 description = "Logs in an existing user and returns a short-lived JWT access token and a refresh token upon successful authentication.",
                  responses = {
-                     @ApiResponse(responseCode = "200", description = "Login successful, JWT token returned",
+                     @ApiResponse(responseCode = "200", description = "Login successful, access and refresh tokens returned",
                                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
                      @ApiResponse(responseCode = "400", description = "Invalid input (e.g., missing username/password)"),
-                     @ApiResponse(responseCode = "401", description = "Invalid credentials")
+                     @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+                     @ApiResponse(responseCode = "503", description = "Too many concurrent password operations, retry later")
                  })
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
@@ -75,22 +87,52 @@ public class AuthController {
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtTokenProvider.generateToken(authentication);
-        return ResponseEntity.ok(new LoginResponse(jwt));
+        return ResponseEntity.ok(refreshTokenService.issueTokens(authentication));
+    }
+
+    @Operation(summary = "Exchange a refresh token for a new token pair",
+                 description = "Returns a new access token and a new refresh token. The presented refresh token can no longer be used; "
+                             + "presenting it again revokes every token issued from the same login.",
+                 responses = {
+                     @ApiResponse(responseCode = "200", description = "New token pair returned",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponse.class))),
+                     @ApiResponse(responseCode = "400", description = "Missing refresh token"),
+                     @ApiResponse(responseCode = "401", description = "Refresh token unknown, expired, revoked or already used")
+                 })
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        return ResponseEntity.ok(refreshTokenService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @Operation(summary = "Log out",
+                 description = "Revokes the access token sent in the Authorization header and, when given, the refresh token "
+                             + "together with every token issued from the same login.",
+                 responses = {
+                     @ApiResponse(responseCode = "204", description = "Tokens revoked")
+                 })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        String accessToken = authorization != null && authorization.startsWith(jwtConfig.getTokenPrefix())
+                ? authorization.substring(jwtConfig.getTokenPrefix().length())
+                : null;
+        refreshTokenService.logout(accessToken, refreshRequest != null ? refreshRequest.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 
     @Operation(summary = "Get current authenticated user's details",
                  description = "Returns information about the currently logged-in user. Requires authentication.",
                  responses = {
-                     @ApiResponse(responseCode = "200", description = "User details retrieved"),
+                     @ApiResponse(responseCode = "200", description = "User details retrieved",
+                                  content = @Content(mediaType = "application/json", schema = @Schema(implementation = MessageResponse.class))),
                      @ApiResponse(responseCode = "401", description = "User not authenticated")
                  })
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated() && !"anonymousUser".equals(authentication.getPrincipal())) {
-            return ResponseEntity.ok("Currently logged in as: " + authentication.getName() + " with roles: " + authentication.getAuthorities());
+            return ResponseEntity.ok(new MessageResponse("Currently logged in as: " + authentication.getName() + " with roles: " + authentication.getAuthorities()));
         }
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No user authenticated.");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("No user authenticated."));
     }
 }
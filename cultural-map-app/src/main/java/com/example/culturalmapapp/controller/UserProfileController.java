@@ -1,6 +1,7 @@
 package com.example.culturalmapapp.controller;
 
 import com.example.culturalmapapp.dto.ChangePasswordRequest;
+import com.example.culturalmapapp.dto.MessageResponse;
 import com.example.culturalmapapp.dto.UpdateUserProfileRequest;
 import com.example.culturalmapapp.dto.UserProfileResponse;
 import com.example.culturalmapapp.model.User;
@@ -63,9 +64,10 @@ public class UserProfileController {
                  responses = {
                      @ApiResponse(responseCode = "200", description = "Profile updated successfully",
                                   content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserProfileResponse.class))),
-                     @ApiResponse(responseCode = "400", description = "Invalid input data or email already exists"),
+                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                      @ApiResponse(responseCode = "401", description = "User not authenticated"),
-                     @ApiResponse(responseCode = "404", description = "User not found (should not happen if authenticated)")
+                     @ApiResponse(responseCode = "404", description = "User not found (should not happen if authenticated)"),
+                     @ApiResponse(responseCode = "409", description = "Email already in use by another account")
                  })
     @PutMapping("/me")
     @PreAuthorize("isAuthenticated()")
@@ -85,9 +87,7 @@ public class UserProfileController {
             return ResponseEntity.ok(profileResponse);
         } catch (UsernameNotFoundException e) {
             return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        } // UserAlreadyExistsException is mapped to 409 by GlobalExceptionHandler
     }
 
     @Operation(summary = "Change current user's password",
@@ -96,7 +96,8 @@ public class UserProfileController {
                      @ApiResponse(responseCode = "200", description = "Password changed successfully"),
                      @ApiResponse(responseCode = "400", description = "Invalid input data (e.g., incorrect current password, new password policy violation)"),
                      @ApiResponse(responseCode = "401", description = "User not authenticated"),
-                     @ApiResponse(responseCode = "404", description = "User not found (should not happen if authenticated)")
+                     @ApiResponse(responseCode = "404", description = "User not found (should not happen if authenticated)"),
+                     @ApiResponse(responseCode = "503", description = "Too many concurrent password operations, retry later")
                  })
     @PostMapping("/me/change-password")
     @PreAuthorize("isAuthenticated()")
@@ -105,13 +106,11 @@ public class UserProfileController {
         String username = authentication.getName();
         try {
             userService.changePassword(username, request);
-            return ResponseEntity.ok("Password changed successfully.");
+            return ResponseEntity.ok(new MessageResponse("Password changed successfully."));
         } catch (UsernameNotFoundException e) {
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) { // For incorrect current password
-             return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("An unexpected error occurred.");
-        }
+             return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } // PasswordHashingBusyException (503) and anything unexpected go to GlobalExceptionHandler
     }
 }
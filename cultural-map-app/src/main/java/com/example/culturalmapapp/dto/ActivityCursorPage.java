@@ -0,0 +1,27 @@
+package com.example.culturalmapapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of a cursor-paginated activity listing.")
+public class ActivityCursorPage {
+
+    @Schema(description = "Activities on this page, in the requested order.")
+    private List<ActivityResponse> content;
+
+    @Schema(description = "Requested page size.", example = "20")
+    private Integer size;
+
+    @Schema(description = "Opaque cursor of the next page, to pass as 'after'. Absent on the last page.",
+            example = "ZGF0ZVRpbWV8YXNjfDIwMjQtMDctMjBUMTg6MDB8NDI")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.example.culturalmapapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A row of an import file that was not imported.")
+public class ActivityImportRejection {
+
+    @Schema(description = "Line of the file the row starts on.", example = "118")
+    private Long line;
+
+    @Schema(description = "Why the row was rejected.", example = "Latitude must be between -90 and 90")
+    private String message;
+}
@@ -0,0 +1,41 @@
+package com.example.culturalmapapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Outcome of a bulk activity import.")
+public class ActivityImportReport {
+
+    @Schema(description = "Rows read from the file.", example = "48210")
+    private long rowsRead;
+
+    @Schema(description = "Rows whose externalId was new; inserted.", example = "1210")
+    private long inserted;
+
+    @Schema(description = "Rows that differ from the activity imported with the same externalId; updated.", example = "315")
+    private long updated;
+
+    @Schema(description = "Rows identical to what was imported last time; not written.", example = "46680")
+    private long unchanged;
+
+    @Schema(description = "Rows that failed validation.", example = "5")
+    private long rejected;
+
+    @Schema(description = "Wall-clock duration of the import in milliseconds.", example = "4120")
+    private long elapsedMs;
+
+    @Schema(description = "rowsRead per second of elapsedMs.", example = "11701.5")
+    private double rowsPerSecond;
+
+    @Schema(description = "The first rejected rows, up to app.import.max-reported-rejections.")
+    private List<ActivityImportRejection> rejections = new ArrayList<>();
+
+    @Schema(description = "True when more rows were rejected than are listed.", example = "false")
+    private boolean rejectionsTruncated;
+}
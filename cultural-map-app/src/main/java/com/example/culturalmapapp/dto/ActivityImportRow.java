@@ -0,0 +1,38 @@
+package com.example.culturalmapapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One activity of a bulk import file, as read: every field is text, so a malformed value
+ * rejects only its own row. ActivityImportService validates and converts it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One activity of a bulk import file (a CSV row or a JSON object with these fields).")
+public class ActivityImportRow {
+
+    @Schema(description = "Id of the activity in the source agenda; rows with a known id update that activity.", example = "agenda-2024-0042")
+    private String externalId;
+
+    @Schema(description = "Name of the cultural activity.", example = "Summer Music Festival")
+    private String name;
+
+    @Schema(description = "Detailed description of the cultural activity.", example = "An annual festival featuring local artists.")
+    private String description;
+
+    @Schema(description = "Date and time of the activity (ISO-8601, no offset).", example = "2024-07-20T18:00:00")
+    private String dateTime;
+
+    @Schema(description = "Latitude of the activity's location.", example = "-3.7319")
+    private String latitude;
+
+    @Schema(description = "Longitude of the activity's location.", example = "-38.5267")
+    private String longitude;
+
+    @Schema(description = "Category of the activity.", example = "Music")
+    private String category;
+}
@@ -0,0 +1,26 @@
+package com.example.culturalmapapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Lightweight projection used to (re)build in-memory indexes without hydrating full entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLocation {
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+    // Only filled when loading the spatial index, which filters on them
+    private String category;
+    private LocalDateTime dateTime;
+
+    public ActivityLocation(Long id, Double latitude, Double longitude) {
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+}
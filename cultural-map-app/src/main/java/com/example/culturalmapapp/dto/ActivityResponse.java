@@ -1,10 +1,14 @@
 package com.example.culturalmapapp.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Data
+@NoArgsConstructor
 @Schema(description = "Response DTO for a cultural activity.")
 public class ActivityResponse {
 
@@ -29,6 +33,40 @@ public class ActivityResponse {
     @Schema(description = "Category of the activity.", example = "Music")
     private String category;
 
+    @Schema(description = "ID of the neighbourhood (bairro) containing the activity, if any.", example = "benfica")
+    private String neighbourhoodId;
+
     @Schema(description = "Username of the user who produced/created the activity.", example = "producer_user")
     private String producerUsername; 
+
+    @Schema(description = "Version of the activity; changes on every update.", example = "3")
+    private Long version;
+
+    @Schema(description = "When the activity was last created or updated.", example = "2024-06-01T12:30:00Z")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant updatedAt;
+
+    @Schema(description = "Distance in kilometers from the queried point. Only present on proximity queries.", example = "1.42")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanceKm;
+
+    @Schema(description = "BM25 relevance score for the query. Only present on quick searches.", example = "7.31")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
+
+    // Target of the JPQL constructor expressions in CulturalActivityRepository; distanceKm is filled in afterwards
+    public ActivityResponse(Long id, String name, String description, LocalDateTime dateTime, Double latitude, Double longitude,
+                            String category, String neighbourhoodId, String producerUsername, Long version, Instant updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.dateTime = dateTime;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.category = category;
+        this.neighbourhoodId = neighbourhoodId;
+        this.producerUsername = producerUsername;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.culturalmapapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Searchable text of an activity, used to build the in-memory text index without hydrating entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityText {
+    private Long id;
+    private String name;
+    private String description;
+    private String category;
+}
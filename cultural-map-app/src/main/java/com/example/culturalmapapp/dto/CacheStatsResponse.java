@@ -0,0 +1,31 @@
+package com.example.culturalmapapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of one application cache since startup")
+public class CacheStatsResponse {
+
+    @Schema(description = "Cache name.", example = "activities")
+    private String name;
+
+    @Schema(description = "Approximate number of entries currently held.", example = "812")
+    private Long size;
+
+    @Schema(description = "Lookups answered from the cache.", example = "15230")
+    private Long hitCount;
+
+    @Schema(description = "Lookups that had to load the value.", example = "940")
+    private Long missCount;
+
+    @Schema(description = "hitCount / (hitCount + missCount); 1.0 before the first lookup.", example = "0.94")
+    private Double hitRate;
+
+    @Schema(description = "Entries removed because of the size bound or expiry.", example = "120")
+    private Long evictionCount;
+}
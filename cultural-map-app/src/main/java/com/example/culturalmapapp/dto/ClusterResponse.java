@@ -0,0 +1,27 @@
+package com.example.culturalmapapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A cluster of activities on the map, or a single activity when count is 1.")
+public class ClusterResponse {
+
+    @Schema(description = "Latitude of the cluster centroid (or of the activity).", example = "-3.7319")
+    private Double latitude;
+
+    @Schema(description = "Longitude of the cluster centroid (or of the activity).", example = "-38.5267")
+    private Double longitude;
+
+    @Schema(description = "Number of activities in the cluster.", example = "42")
+    private Integer count;
+
+    @Schema(description = "ID of the activity when the cluster holds a single one.", example = "7")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long activityId;
+}
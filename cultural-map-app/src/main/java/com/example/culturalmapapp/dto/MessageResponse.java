@@ -0,0 +1,14 @@
+package com.example.culturalmapapp.dto;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@RequiredArgsConstructor
+@Schema(description = "Response DTO carrying a human-readable message.")
+public class MessageResponse {
+
+    @Schema(description = "The message.", example = "Password changed successfully.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private final String message;
+}
@@ -0,0 +1,14 @@
+package com.example.culturalmapapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@Schema(description = "Request DTO carrying a refresh token.")
+public class RefreshTokenRequest {
+
+    @Schema(description = "The refresh token returned by login or the previous refresh.", example = "kq3Vb2xN8sH1cT0yJ5pLwR7uE4dA6fG9mZ2iO3nB1vY", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotBlank(message = "Refresh token cannot be blank")
+    private String refreshToken;
+}
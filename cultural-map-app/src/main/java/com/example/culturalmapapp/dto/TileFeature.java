@@ -0,0 +1,17 @@
+package com.example.culturalmapapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Columns needed to draw an activity on a vector tile
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileFeature {
+    private Long id;
+    private String name;
+    private String category;
+    private Double latitude;
+    private Double longitude;
+}
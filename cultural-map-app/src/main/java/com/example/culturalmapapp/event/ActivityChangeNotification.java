@@ -0,0 +1,29 @@
+package com.example.culturalmapapp.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * JSON payload of the pg_notify message sent for every local write. Carries only keys and
+ * coordinates: receivers reload the activity itself, and the payload stays far below the
+ * 8000 byte NOTIFY limit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityChangeNotification {
+    // Node that made the write; it ignores its own notifications
+    private String node;
+    private ActivityChangedEvent.Type type;
+    private Long id;
+    // State after the write (for DELETED, the state it was removed with)
+    private Double latitude;
+    private Double longitude;
+    private String category;
+    private Double previousLatitude;
+    private Double previousLongitude;
+    private String previousCategory;
+    // Set instead of type and id when the node changed many rows at once; receivers reload everything
+    private boolean resync;
+}
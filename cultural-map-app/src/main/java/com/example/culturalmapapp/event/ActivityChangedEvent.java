@@ -0,0 +1,67 @@
+package com.example.culturalmapapp.event;
+
+import com.example.culturalmapapp.model.CulturalActivity;
+import lombok.Getter;
+
+/**
+ * Published by ActivityService after an activity has been created, updated or deleted.
+ * In-memory structures derived from the activity table (indexes, caches) listen for it
+ * instead of being called one by one from the service. ActivityChangeBus republishes
+ * writes made on other nodes as remote events, so the same listeners apply them.
+ */
+@Getter
+public class ActivityChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long activityId;
+    // State after the write (for DELETED, the state the activity had when it was removed)
+    private final CulturalActivity activity;
+    // Values before an update, so listeners can drop entries keyed on the old location/category
+    private final Double previousLatitude;
+    private final Double previousLongitude;
+    private final String previousCategory;
+    // True when the write happened on another node and arrived through ActivityChangeBus
+    private final boolean remote;
+    // True for the DELETED events ActivityChangeBus makes up when the activity of a remote create or
+    // update is already gone; the delete itself still arrives with its own notification
+    private final boolean vanished;
+
+    private ActivityChangedEvent(Type type, CulturalActivity activity,
+                                 Double previousLatitude, Double previousLongitude, String previousCategory,
+                                 boolean remote, boolean vanished) {
+        this.type = type;
+        this.activityId = activity.getId();
+        this.activity = activity;
+        this.previousLatitude = previousLatitude;
+        this.previousLongitude = previousLongitude;
+        this.previousCategory = previousCategory;
+        this.remote = remote;
+        this.vanished = vanished;
+    }
+
+    public static ActivityChangedEvent created(CulturalActivity activity) {
+        return new ActivityChangedEvent(Type.CREATED, activity, null, null, null, false, false);
+    }
+
+    public static ActivityChangedEvent updated(CulturalActivity activity,
+                                               Double previousLatitude, Double previousLongitude, String previousCategory) {
+        return new ActivityChangedEvent(Type.UPDATED, activity, previousLatitude, previousLongitude, previousCategory, false, false);
+    }
+
+    public static ActivityChangedEvent deleted(CulturalActivity activity) {
+        return new ActivityChangedEvent(Type.DELETED, activity,
+                activity.getLatitude(), activity.getLongitude(), activity.getCategory(), false, false);
+    }
+
+    public static ActivityChangedEvent remote(Type type, CulturalActivity activity,
+                                              Double previousLatitude, Double previousLongitude, String previousCategory) {
+        return new ActivityChangedEvent(type, activity, previousLatitude, previousLongitude, previousCategory, true, false);
+    }
+
+    public static ActivityChangedEvent vanished(CulturalActivity activity,
+                                                Double previousLatitude, Double previousLongitude, String previousCategory) {
+        return new ActivityChangedEvent(Type.DELETED, activity, previousLatitude, previousLongitude, previousCategory, true, true);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.culturalmapapp.event;
+
+/**
+ * Published when in-memory structures derived from the activity table may be out of date:
+ * by ActivityChangeBus when this node may have missed writes made on other nodes (the
+ * notification connection was lost and re-established), and by ActivityImportService
+ * after a bulk import, which writes too many rows to announce one by one. Everything
+ * derived from the activity table is dropped or reloaded from the database.
+ */
+public class ActivityResyncEvent {
+
+    // True when ActivityChangeBus should pass the resync on to the other nodes
+    private final boolean announce;
+
+    public ActivityResyncEvent() {
+        this(false);
+    }
+
+    public ActivityResyncEvent(boolean announce) {
+        this.announce = announce;
+    }
+
+    public boolean isAnnounce() {
+        return announce;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.culturalmapapp.exception;
+
+// Thrown when the password-hashing executor is saturated; mapped to 503 so clients retry later
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.culturalmapapp.filter;
 
 import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.config.SecurityConfig;
+import com.example.culturalmapapp.security.AuthenticatedUser;
 import com.example.culturalmapapp.service.CustomUserDetailsService;
 import com.example.culturalmapapp.service.JwtTokenProvider;
-import io.jsonwebtoken.Claims;
+import com.example.culturalmapapp.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,29 +13,35 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final RequestMatcher PUBLIC_READS = new AndRequestMatcher(
+            AntPathRequestMatcher.antMatcher(HttpMethod.GET, SecurityConfig.PUBLIC_ACTIVITY_READS),
+            new NegatedRequestMatcher(AntPathRequestMatcher.antMatcher(SecurityConfig.ACTIVITY_EXPORT)));
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     
@@ -48,23 +56,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
-                Claims claims = tokenProvider.getClaimsFromJWT(jwt);
-                String rolesString = claims.get("roles", String.class);
-
-                List<GrantedAuthority> authorities = Arrays.stream(rolesString.split(","))
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-                
-                // UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-                // No need to load from DB if roles are in token and token is trusted.
-                // If you need more details than what's in the token, then loadUserByUsername is appropriate.
-
+            // One signature check per token, not per request; see JwtTokenProvider.verify.
+            // Revocation is checked on every request, cached verification or not.
+            JwtTokenProvider.VerifiedToken verified = StringUtils.hasText(jwt) ? tokenProvider.verify(jwt) : null;
+            if (verified != null && !tokenRevocationService.isRevoked(verified.getTokenId())) {
+                AuthenticatedUser principal = verified.getPrincipal();
+                // No need to load from DB: roles and user id are in the token, and the token is trusted
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        username, // Using username as principal
+                        principal, // getName() still returns the username
                         null,       // No credentials needed for JWT-based auth after validation
-                        authorities
+                        principal.getAuthorities()
                 );
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -77,6 +78,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Public reads never look at the caller, so their requests skip token parsing altogether
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PUBLIC_READS.matches(request);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(jwtConfig.getTokenPrefix())) {
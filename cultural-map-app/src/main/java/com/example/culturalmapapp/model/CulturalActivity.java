@@ -4,26 +4,47 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cultural_activities")
+@Table(name = "cultural_activities", indexes = {
+        // B-tree on the geohash: proximity searches become a few prefix range scans
+        @Index(name = "idx_cultural_activities_geohash", columnList = "geohash"),
+        @Index(name = "idx_cultural_activities_neighbourhood", columnList = "neighbourhood_id"),
+        // Keyset pagination: one index per (filter, sort key, id) order, see ActivityKeysetRepositoryImpl
+        @Index(name = "idx_cultural_activities_date_time_id", columnList = "date_time, id"),
+        @Index(name = "idx_cultural_activities_category_date_time_id", columnList = "category, date_time, id"),
+        @Index(name = "idx_cultural_activities_category_id", columnList = "category, id"),
+        // Bulk import matches rows of the agenda file to activities by their source id
+        @Index(name = "idx_cultural_activities_external_id", columnList = "external_id", unique = true)
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CulturalActivity {
 
+    // Pooled sequence: Hibernate reserves 50 ids per round trip and can batch inserts, which IDENTITY rules out.
+    // ActivityBackfillService moves the sequence past ids handed out by the former identity column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cultural_activities_seq")
+    @SequenceGenerator(name = "cultural_activities_seq", sequenceName = "cultural_activities_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
-    @Lob // For longer text
+    // Plain TEXT, not @Lob: on PostgreSQL @Lob kept the text in a large object and only its oid in the
+    // column, which SQL (full-text search, exports) cannot read. ActivityBackfillService moves old rows back.
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    @Column(nullable = false) // Sort key of keyset pagination
     private LocalDateTime dateTime;
 
     private Double latitude;
@@ -32,7 +53,50 @@ public class CulturalActivity {
 
     private String category;
 
-    @ManyToOne
+    // Full-precision geohash of (latitude, longitude), maintained by ActivityService on every write
+    @Column(length = 12)
+    private String geohash;
+
+    // Lazy: reads project the producer's username instead, and ownership checks only need its id
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "producer_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User producer;
+
+    // Neighbourhood (bairro) containing the location, maintained by ActivityService on every write
+    @Column(name = "neighbourhood_id", length = 64)
+    private String neighbourhoodId;
+
+    // Id of the activity in the imported agenda; null for activities created through the API
+    @Column(name = "external_id", length = 128)
+    private String externalId;
+
+    // SHA-256 of the imported fields, so a re-import skips rows that have not changed in the file
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Optimistic-lock version, bumped by Hibernate on every update; the ETag of the activity.
+    // The default fills rows that existed before the column did.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Set by Hibernate on insert and update; the Last-Modified of the activity
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public CulturalActivity(Long id, String name, String description, LocalDateTime dateTime,
+                            Double latitude, Double longitude, String category, User producer) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.dateTime = dateTime;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.category = category;
+        this.producer = producer;
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.culturalmapapp.repository;
+
+// What the bulk import needs to know of an existing activity: which row it is and what it was last imported with
+public interface ActivityImportStateView {
+    Long getId();
+    String getExternalId();
+    String getContentHash();
+}
@@ -0,0 +1,13 @@
+package com.example.culturalmapapp.repository;
+
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.util.ActivityCursor;
+
+import java.util.List;
+
+// Keyset pagination; the query text depends on the sort order, so it is built in ActivityKeysetRepositoryImpl
+public interface ActivityKeysetRepository {
+
+    // Up to limit activities strictly after the cursor, in its order; category null means all categories
+    List<ActivityResponse> findResponsesAfter(String category, ActivityCursor cursor, int limit);
+}
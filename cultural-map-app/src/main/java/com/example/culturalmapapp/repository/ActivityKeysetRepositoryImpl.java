@@ -0,0 +1,63 @@
+package com.example.culturalmapapp.repository;
+
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.util.ActivityCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seek predicates on (sort key, id). Each order has a matching index, so a page is a
+ * range scan that starts at the cursor and stops after limit rows, however deep it is,
+ * and no count query runs:
+ * dateTime: idx_cultural_activities_date_time_id / idx_cultural_activities_category_date_time_id;
+ * id: the primary key / idx_cultural_activities_category_id.
+ */
+class ActivityKeysetRepositoryImpl implements ActivityKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ActivityResponse> findResponsesAfter(String category, ActivityCursor cursor, int limit) {
+        boolean byDateTime = cursor.getSortKey() == ActivityCursor.SortKey.DATE_TIME;
+        String after = cursor.isDescending() ? "<" : ">";
+        String direction = cursor.isDescending() ? " DESC" : " ASC";
+
+        List<String> conditions = new ArrayList<>();
+        if (category != null) {
+            conditions.add("ca.category = :category");
+        }
+        if (byDateTime) {
+            conditions.add("ca.dateTime IS NOT NULL"); // Required on every write; rows from before that have no place in the order
+        }
+        if (!cursor.isStart()) {
+            // (dateTime, id) > (:dateTime, :id), spelled out so the leading bound opens an index range scan
+            conditions.add(byDateTime
+                    ? "ca.dateTime " + after + "= :dateTime AND (ca.dateTime " + after + " :dateTime OR ca.id " + after + " :id)"
+                    : "ca.id " + after + " :id");
+        }
+
+        StringBuilder jpql = new StringBuilder(CulturalActivityRepository.ACTIVITY_RESPONSE_SELECT);
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        jpql.append(byDateTime ? " ORDER BY ca.dateTime" + direction + ", ca.id" + direction : " ORDER BY ca.id" + direction);
+
+        TypedQuery<ActivityResponse> query = entityManager.createQuery(jpql.toString(), ActivityResponse.class)
+                .setMaxResults(limit);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (!cursor.isStart()) {
+            query.setParameter("id", cursor.getId());
+            if (byDateTime) {
+                query.setParameter("dateTime", cursor.getDateTime());
+            }
+        }
+        return query.getResultList();
+    }
+}
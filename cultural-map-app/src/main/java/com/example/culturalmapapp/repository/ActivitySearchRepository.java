@@ -0,0 +1,45 @@
+package com.example.culturalmapapp.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Text search over activity name, category and description, with optional radius and
+ * date filters applied in the same statement. Returns one page of ids (plus distances when
+ * a point is given); the caller loads the activities.
+ */
+public interface ActivitySearchRepository {
+
+    // Portuguese text search configuration that strips accents before stemming ("Forró" and "forro" match)
+    String TEXT_SEARCH_CONFIG = "pt_unaccent";
+
+    // Document of the search_vector column: name weighs most, then category, then description
+    String SEARCH_VECTOR_SQL =
+            "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(name, '')), 'A') || " +
+            "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(category, '')), 'B') || " +
+            "setweight(to_tsvector('" + TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(description, '')), 'C')";
+
+    @Data
+    @AllArgsConstructor
+    class Hit {
+        private Long id;
+        private Double distanceKm; // null without a point
+    }
+
+    /**
+     * PostgreSQL only: matches against the search_vector column through its GIN index,
+     * ordered by relevance. The text is read like a web search box: words are ANDed,
+     * "quoted phrases" must be adjacent, "or" and a leading "-" work as expected.
+     * radiusKm needs latitude and longitude; any of the filters may be null.
+     */
+    Page<Hit> searchFullText(String text, Double latitude, Double longitude, Double radiusKm,
+                             LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // Fallback on any database: every word must occur (case-insensitive substring) in name, category or description; ordered by date
+    Page<Hit> searchLike(String text, Double latitude, Double longitude, Double radiusKm,
+                         LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
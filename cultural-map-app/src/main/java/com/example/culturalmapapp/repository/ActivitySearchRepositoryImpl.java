@@ -0,0 +1,108 @@
+package com.example.culturalmapapp.repository;
+
+import com.example.culturalmapapp.util.GeoUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Native statements built from the filters that are present, so the planner sees only the
+ * predicates it has to evaluate. The text match, the date window and the radius (bounding
+ * box first, then the exact distance) are all in one WHERE clause and the page is cut in SQL.
+ */
+class ActivitySearchRepositoryImpl implements ActivitySearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Hit> searchFullText(String text, Double latitude, Double longitude, Double radiusKm,
+                                    LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("text", text);
+        List<String> conditions = new ArrayList<>();
+        conditions.add("ca.search_vector @@ q");
+        addFilters(conditions, parameters, latitude, longitude, radiusKm, from, to);
+
+        // Normalization 1 divides the rank by 1 + log(document length), so long descriptions do not win on length alone
+        String fromClause = "FROM cultural_activities ca, websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :text) q";
+        return page(fromClause, conditions, "ts_rank_cd(ca.search_vector, q, 1) DESC, ca.id",
+                parameters, latitude != null, pageable);
+    }
+
+    @Override
+    public Page<Hit> searchLike(String text, Double latitude, Double longitude, Double radiusKm,
+                                LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        List<String> conditions = new ArrayList<>();
+        String[] terms = text.toLowerCase(Locale.ROOT).trim().split("\\s+");
+        for (int i = 0; i < terms.length; i++) {
+            String parameter = "term" + i;
+            conditions.add("(lower(ca.name) LIKE :" + parameter + " ESCAPE '\\' OR lower(ca.category) LIKE :" + parameter +
+                    " ESCAPE '\\' OR lower(ca.description) LIKE :" + parameter + " ESCAPE '\\')");
+            parameters.put(parameter, "%" + terms[i].replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+        addFilters(conditions, parameters, latitude, longitude, radiusKm, from, to);
+        return page("FROM cultural_activities ca", conditions, "ca.date_time, ca.id",
+                parameters, latitude != null, pageable);
+    }
+
+    private static void addFilters(List<String> conditions, Map<String, Object> parameters, Double latitude, Double longitude,
+                                   Double radiusKm, LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            conditions.add("ca.date_time >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("ca.date_time <= :to");
+            parameters.put("to", to);
+        }
+        if (latitude != null) {
+            double latDelta = GeoUtils.latitudeDelta(radiusKm);
+            double lonDelta = GeoUtils.longitudeDelta(latitude, radiusKm);
+            conditions.add(CulturalActivityRepository.WITHIN_BOX_SQL);
+            conditions.add(CulturalActivityRepository.DISTANCE_KM_SQL + " <= :radiusKm");
+            parameters.put("latitude", latitude);
+            parameters.put("longitude", longitude);
+            parameters.put("radiusKm", radiusKm);
+            parameters.put("minLat", latitude - latDelta);
+            parameters.put("maxLat", latitude + latDelta);
+            parameters.put("minLon", longitude - lonDelta);
+            parameters.put("maxLon", longitude + lonDelta);
+        }
+    }
+
+    private Page<Hit> page(String fromClause, List<String> conditions, String orderBy, Map<String, Object> parameters,
+                           boolean withDistance, Pageable pageable) {
+        String where = " WHERE " + String.join(" AND ", conditions);
+        String distance = withDistance ? CulturalActivityRepository.DISTANCE_KM_SQL : "NULL";
+
+        Query query = entityManager.createNativeQuery(
+                        "SELECT ca.id, " + distance + " " + fromClause + where + " ORDER BY " + orderBy)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+        parameters.forEach(query::setParameter);
+        List<Hit> hits = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            hits.add(new Hit(((Number) columns[0]).longValue(), columns[1] != null ? ((Number) columns[1]).doubleValue() : null));
+        }
+
+        // The count only runs when the page alone cannot tell the total
+        return PageableExecutionUtils.getPage(hits, pageable, () -> {
+            Query count = entityManager.createNativeQuery("SELECT count(*) " + fromClause + where);
+            parameters.forEach(count::setParameter);
+            return ((Number) count.getSingleResult()).longValue();
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.culturalmapapp.repository;
+
+// Row of the per-category count: one per category, category null for uncategorised activities
+public interface CategoryCountView {
+    String getCategory();
+    long getCount();
+}
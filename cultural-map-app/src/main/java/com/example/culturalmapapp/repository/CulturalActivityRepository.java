@@ -1,36 +1,179 @@
 package com.example.culturalmapapp.repository;
 
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.dto.ActivityText;
+import com.example.culturalmapapp.dto.TileFeature;
 import com.example.culturalmapapp.model.CulturalActivity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.util.List; // Keep for non-paginated results if any specific method needs it
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public interface CulturalActivityRepository extends JpaRepository<CulturalActivity, Long> { // JpaRepository extends PagingAndSortingRepository
-    Page<CulturalActivity> findByCategory(String category, Pageable pageable);
+public interface CulturalActivityRepository extends JpaRepository<CulturalActivity, Long>, ActivityKeysetRepository, ActivitySearchRepository { // JpaRepository extends PagingAndSortingRepository
 
-    // This query is for a list, if it needs pagination, it has to be changed.
-    // For now, assuming findByLocationBoundingBox is used for a smaller, filtered list
-    // that might not need pagination itself, or pagination will be applied in-memory after this DB call.
-    // If this list can be very large, this query should also be adapted to return Page<CulturalActivity>.
-    @Query("SELECT ca FROM CulturalActivity ca WHERE ca.latitude BETWEEN :minLat AND :maxLat AND ca.longitude BETWEEN :minLon AND :maxLon")
-    List<CulturalActivity> findByLocationBoundingBox( // Returning List for now, will be filtered and paginated in memory in service
+    // Reads select straight into the response DTO: one statement with a single join for the producer's
+    // username, no entities in the persistence context and no User rows (password hashes included) loaded
+    String ACTIVITY_RESPONSE_SELECT = "SELECT new com.example.culturalmapapp.dto.ActivityResponse(" +
+            "ca.id, ca.name, ca.description, ca.dateTime, ca.latitude, ca.longitude, ca.category, ca.neighbourhoodId, " +
+            "p.username, ca.version, ca.updatedAt) FROM CulturalActivity ca JOIN ca.producer p";
+
+    @Query(ACTIVITY_RESPONSE_SELECT + " WHERE ca.id = :id")
+    Optional<ActivityResponse> findResponseById(@Param("id") Long id);
+
+    // Sort properties of the Pageable are those of CulturalActivity (e.g. name, dateTime)
+    @Query(value = ACTIVITY_RESPONSE_SELECT,
+           countQuery = "SELECT count(ca) FROM CulturalActivity ca")
+    Page<ActivityResponse> findAllResponses(Pageable pageable);
+
+    @Query(value = ACTIVITY_RESPONSE_SELECT + " WHERE ca.category = :category",
+           countQuery = "SELECT count(ca) FROM CulturalActivity ca WHERE ca.category = :category")
+    Page<ActivityResponse> findResponsesByCategory(@Param("category") String category, Pageable pageable);
+
+    // Answered by idx_cultural_activities_neighbourhood
+    @Query(value = ACTIVITY_RESPONSE_SELECT + " WHERE ca.neighbourhoodId = :neighbourhoodId",
+           countQuery = "SELECT count(ca) FROM CulturalActivity ca WHERE ca.neighbourhoodId = :neighbourhoodId")
+    Page<ActivityResponse> findResponsesByNeighbourhoodId(@Param("neighbourhoodId") String neighbourhoodId, Pageable pageable);
+
+    // Count-free variants: Spring Data reads size + 1 rows to tell whether a next page exists
+    @Query(ACTIVITY_RESPONSE_SELECT)
+    Slice<ActivityResponse> findAllResponseSlice(Pageable pageable);
+
+    @Query(ACTIVITY_RESPONSE_SELECT + " WHERE ca.category = :category")
+    Slice<ActivityResponse> findResponseSliceByCategory(@Param("category") String category, Pageable pageable);
+
+    // One aggregate scan; seeds the approximate totals kept by ActivityCountService
+    @Query("SELECT ca.category AS category, count(ca) AS count FROM CulturalActivity ca GROUP BY ca.category")
+    List<CategoryCountView> countByCategory();
+
+    // One lookup per import batch, answered by idx_cultural_activities_external_id
+    @Query("SELECT ca.id AS id, ca.externalId AS externalId, ca.contentHash AS contentHash FROM CulturalActivity ca " +
+           "WHERE ca.externalId IN :externalIds")
+    List<ActivityImportStateView> findImportStates(@Param("externalIds") Collection<String> externalIds);
+
+    // Unordered; callers put the rows back in the order of their ids
+    @Query(ACTIVITY_RESPONSE_SELECT + " WHERE ca.id IN :ids")
+    List<ActivityResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // Every activity in id order, for the export. Must be consumed and closed inside a read-only transaction:
+    // PostgreSQL then reads it through a server-side cursor, EXPORT_FETCH_SIZE rows per round trip.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(ACTIVITY_RESPONSE_SELECT + " ORDER BY ca.id")
+    Stream<ActivityResponse> streamAllResponses();
+
+    // For writes that return the producer's username; the producer is lazy otherwise
+    @EntityGraph(attributePaths = "producer")
+    Optional<CulturalActivity> findWithProducerById(Long id);
+
+    // Keyset batches of coordinates (plus the attributes the spatial index filters on), used to load in-memory indexes at startup
+    @Query("SELECT new com.example.culturalmapapp.dto.ActivityLocation(ca.id, ca.latitude, ca.longitude, ca.category, ca.dateTime) FROM CulturalActivity ca " +
+           "WHERE ca.id > :afterId AND ca.latitude IS NOT NULL AND ca.longitude IS NOT NULL ORDER BY ca.id")
+    List<ActivityLocation> findLocationsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Streams every located activity through the consumer in id order, one keyset batch at a time
+    default void forEachLocation(int batchSize, Consumer<ActivityLocation> consumer) {
+        long lastId = 0L;
+        List<ActivityLocation> batch;
+        do {
+            batch = findLocationsAfter(lastId, PageRequest.of(0, batchSize));
+            for (ActivityLocation location : batch) {
+                consumer.accept(location);
+                lastId = location.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // Keyset batches of the searchable text, used to load the in-memory text index at startup
+    @Query("SELECT new com.example.culturalmapapp.dto.ActivityText(ca.id, ca.name, ca.description, ca.category) FROM CulturalActivity ca " +
+           "WHERE ca.id > :afterId ORDER BY ca.id")
+    List<ActivityText> findTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Streams every activity's text through the consumer in id order, one keyset batch at a time
+    default void forEachText(int batchSize, Consumer<ActivityText> consumer) {
+        long lastId = 0L;
+        List<ActivityText> batch;
+        do {
+            batch = findTextsAfter(lastId, PageRequest.of(0, batchSize));
+            for (ActivityText text : batch) {
+                consumer.accept(text);
+                lastId = text.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // Coordinates inside one geohash range [fromHash, toHash), answered by a range scan on idx_cultural_activities_geohash
+    @Query("SELECT new com.example.culturalmapapp.dto.ActivityLocation(ca.id, ca.latitude, ca.longitude) FROM CulturalActivity ca " +
+           "WHERE ca.geohash >= :fromHash AND ca.geohash < :toHash")
+    List<ActivityLocation> findLocationsByGeohashRange(@Param("fromHash") String fromHash, @Param("toHash") String toHash);
+
+    // Open-ended variant for ranges that run to the end of the geohash space
+    @Query("SELECT new com.example.culturalmapapp.dto.ActivityLocation(ca.id, ca.latitude, ca.longitude) FROM CulturalActivity ca " +
+           "WHERE ca.geohash >= :fromHash")
+    List<ActivityLocation> findLocationsByGeohashFrom(@Param("fromHash") String fromHash);
+
+    // What is drawn on one vector tile, without hydrating entities or producers: the latest activities first,
+    // up to the page size, so a low-zoom tile covering most of the table stays bounded (walks the date_time, id index).
+    // Bounds are half-open like MvtEncoder.tileX/tileY: tile rows grow southwards, so the northern edge is the
+    // inclusive one; a point on a shared edge is only returned for the tile that owns it
+    @Query("SELECT new com.example.culturalmapapp.dto.TileFeature(ca.id, ca.name, ca.category, ca.latitude, ca.longitude) " +
+           "FROM CulturalActivity ca WHERE ca.latitude > :minLat AND ca.latitude <= :maxLat " +
+           "AND ca.longitude >= :minLon AND ca.longitude < :maxLon " +
+           "ORDER BY ca.dateTime DESC, ca.id DESC")
+    List<TileFeature> findTileFeatures(@Param("minLat") Double minLat, @Param("maxLat") Double maxLat,
+                                       @Param("minLon") Double minLon, @Param("maxLon") Double maxLon, Pageable pageable);
+
+    // Rows written before the geohash column existed, for the backfill job
+    List<CulturalActivity> findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull(Pageable pageable);
+
+    // Keyset batches of every activity, for jobs that revisit all rows (e.g. neighbourhood re-tagging)
+    List<CulturalActivity> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Great-circle distance (km) from (:latitude, :longitude), evaluated by the database.
+    // least() guards asin against rounding just above 1 for antipodal points.
+    String DISTANCE_KM_SQL = "6371.0 * 2 * asin(least(1.0, sqrt(power(sin(radians(ca.latitude - :latitude) / 2), 2) + " +
+            "cos(radians(:latitude)) * cos(radians(ca.latitude)) * power(sin(radians(ca.longitude - :longitude) / 2), 2))))";
+
+    // The bounding box lets the database use an index on the coordinates before the exact distance check
+    String WITHIN_BOX_SQL = "ca.latitude BETWEEN :minLat AND :maxLat AND ca.longitude BETWEEN :minLon AND :maxLon";
+
+    // Filters by radius, orders by distance and pages in SQL, so only one page of rows leaves the database.
+    // The Pageable must be unsorted: ordering is always by distance, then id.
+    @Query(value = "SELECT d.* FROM (" +
+            "SELECT ca.id AS id, ca.name AS name, ca.description AS description, ca.date_time AS \"dateTime\", " +
+            "ca.latitude AS latitude, ca.longitude AS longitude, ca.category AS category, " +
+            "ca.neighbourhood_id AS \"neighbourhoodId\", ca.version AS \"version\", u.username AS \"producerUsername\", " + DISTANCE_KM_SQL + " AS \"distanceKm\" " +
+            "FROM cultural_activities ca JOIN users u ON u.id = ca.producer_id " +
+            "WHERE " + WITHIN_BOX_SQL +
+            ") d WHERE d.\"distanceKm\" <= :radiusKm ORDER BY d.\"distanceKm\", d.id",
+            countQuery = "SELECT count(*) FROM cultural_activities ca WHERE " + WITHIN_BOX_SQL +
+                    " AND " + DISTANCE_KM_SQL + " <= :radiusKm",
+            nativeQuery = true)
+    Page<NearbyActivityView> findNearby(
+            @Param("latitude") Double latitude,
+            @Param("longitude") Double longitude,
+            @Param("radiusKm") Double radiusKm,
             @Param("minLat") Double minLat,
             @Param("maxLat") Double maxLat,
             @Param("minLon") Double minLon,
-            @Param("maxLon") Double maxLon
+            @Param("maxLon") Double maxLon,
+            Pageable pageable
     );
-    
-    // Example if findByLocationBoundingBox needed pagination directly from DB (more complex for non-PostGIS)
-    // @Query("SELECT ca FROM CulturalActivity ca WHERE ca.latitude BETWEEN :minLat AND :maxLat AND ca.longitude BETWEEN :minLon AND :maxLon")
-    // Page<CulturalActivity> findByLocationBoundingBoxPaginated(
-    //        @Param("minLat") Double minLat,
-    //        @Param("maxLat") Double maxLat,
-    //        @Param("minLon") Double minLon,
-    //        @Param("maxLon") Double maxLon,
-    //        Pageable pageable
-    // );
 }
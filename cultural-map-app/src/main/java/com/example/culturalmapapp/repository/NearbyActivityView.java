@@ -0,0 +1,18 @@
+package com.example.culturalmapapp.repository;
+
+import java.time.LocalDateTime;
+
+// Row of the native near query: activity columns, producer username and the computed distance
+public interface NearbyActivityView {
+    Long getId();
+    String getName();
+    String getDescription();
+    LocalDateTime getDateTime();
+    Double getLatitude();
+    Double getLongitude();
+    String getCategory();
+    String getNeighbourhoodId();
+    Long getVersion();
+    String getProducerUsername();
+    Double getDistanceKm();
+}
@@ -0,0 +1,25 @@
+package com.example.culturalmapapp.repository;
+
+import com.example.culturalmapapp.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    boolean existsByTokenIdAndExpiresAtAfter(String tokenId, Instant now);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :after")
+    List<String> findTokenIdsExpiringAfter(@Param("after") Instant after);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(@Param("since") Instant since, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
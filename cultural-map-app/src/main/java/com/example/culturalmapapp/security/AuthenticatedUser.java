@@ -0,0 +1,40 @@
+package com.example.culturalmapapp.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal of an authenticated user. Built from the database on login and from the JWT
+ * claims on every other request, so services can check ownership by id without loading
+ * the user again.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    // Null for tokens issued before the user id claim was added
+    public Long getId() {
+        return id;
+    }
+
+    // Exact authority check, e.g. "ROLE_ADMIN"; the role hierarchy is not applied
+    public boolean hasRole(String role) {
+        return getAuthorities().stream().anyMatch(authority -> authority.getAuthority().equals(role));
+    }
+
+    // The authenticated principal; any other principal (e.g. a test's mock user) is wrapped without an id
+    public static AuthenticatedUser from(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return new AuthenticatedUser(null, authentication.getName(), "", authentication.getAuthorities());
+    }
+}
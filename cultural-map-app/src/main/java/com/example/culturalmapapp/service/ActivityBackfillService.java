@@ -0,0 +1,208 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.config.NeighbourhoodConfig;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.Geohash;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Fills derived columns on rows written before those columns existed. Runs once the
+ * application is ready, in small transactions so it never holds long locks.
+ */
+@Service
+public class ActivityBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityBackfillService.class);
+
+    // Advisory lock key serializing restoreLobDescriptions() batches across nodes
+    private static final long LOB_RESTORE_LOCK = 0x4c4f425f52455354L;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GeoConfig geoConfig;
+
+    @Autowired
+    private NeighbourhoodConfig neighbourhoodConfig;
+
+    @Autowired
+    private NeighbourhoodService neighbourhoodService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Activity ids used to come from an identity column; they now come from
+     * cultural_activities_seq in blocks of 50. A sequence created next to existing rows
+     * starts at 1, so it is moved past the highest id before anything is inserted (this
+     * runs before the import runner and before requests are served). Once it is ahead,
+     * nothing happens.
+     */
+    @PostConstruct
+    public void alignIdSequence() {
+        if (!isPostgres()) {
+            return; // Other databases are only used by tests, on an empty schema
+        }
+        Long aligned = jdbcTemplate.query(
+                "SELECT setval('cultural_activities_seq', max_id) FROM " +
+                "(SELECT MAX(id) AS max_id FROM cultural_activities) ids, cultural_activities_seq seq " +
+                "WHERE ids.max_id > seq.last_value",
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (aligned != null) {
+            logger.info("Moved cultural_activities_seq past the existing activity ids (now {})", aligned);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (isPostgres()) {
+            restoreLobDescriptions();
+        }
+        if (geoConfig.isGeohashBackfillOnStartup()) {
+            backfillGeohashes();
+        }
+        if (neighbourhoodConfig.isRetagOnStartup() && neighbourhoodService.isEnabled()) {
+            retagNeighbourhoods();
+        }
+    }
+
+    /**
+     * Descriptions used to be mapped as @Lob, which on PostgreSQL stores the text in a large
+     * object and its oid in the column. Reads the text back into the column, frees the large
+     * object, and returns the number of rows moved. Batches are picked by joining on the
+     * large objects that exist, so a description that merely looks like a number is kept.
+     * Every moved description frees its large object, so once none are left the work is done
+     * and later starts stop at that check without reading the table. Each batch holds a
+     * transaction-level advisory lock; a node that finds it taken leaves the rest to the
+     * node holding it, so two nodes never read and unlink the same large object.
+     */
+    public long restoreLobDescriptions() {
+        Boolean pending = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_largeobject_metadata)", Boolean.class);
+        if (!Boolean.TRUE.equals(pending)) {
+            return 0;
+        }
+        int batchSize = geoConfig.getGeohashBackfillBatchSize();
+        long restored = 0;
+        int batchRestored;
+        do {
+            batchRestored = transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOB_RESTORE_LOCK);
+                if (!Boolean.TRUE.equals(locked)) {
+                    return -1;
+                }
+                return jdbcTemplate.queryForObject(
+                        "WITH batch AS (" +
+                        "  SELECT ca.id, m.oid AS lob FROM cultural_activities ca JOIN pg_largeobject_metadata m" +
+                        "  ON m.oid::bigint = CASE WHEN ca.description ~ '^[0-9]{1,10}$' THEN ca.description::bigint END" +
+                        "  LIMIT ?" +
+                        "), moved AS (" +
+                        "  UPDATE cultural_activities ca SET description = convert_from(lo_get(b.lob), 'UTF8')" +
+                        "  FROM batch b WHERE ca.id = b.id RETURNING b.lob" +
+                        ") SELECT count(lo_unlink(lob))::int FROM moved",
+                        Integer.class, batchSize);
+            });
+            if (batchRestored < 0) {
+                logger.info("Another node is moving activity descriptions out of large objects; leaving the rest to it");
+                break;
+            }
+            restored += batchRestored;
+        } while (batchRestored == batchSize);
+        if (restored > 0) {
+            logger.info("Moved {} activity descriptions out of large objects", restored);
+            // The text index and caches were filled with the oids before this ran
+            eventPublisher.publishEvent(new ActivityResyncEvent(true));
+        }
+        return restored;
+    }
+
+    // Returns the number of rows updated
+    public long backfillGeohashes() {
+        long updated = 0;
+        int batchUpdated;
+        do {
+            // Each batch commits before the next query, so the next page 0 holds the next unprocessed rows
+            batchUpdated = transactionTemplate.execute(status -> {
+                List<CulturalActivity> batch = activityRepository.findByGeohashIsNullAndLatitudeIsNotNullAndLongitudeIsNotNull(
+                        PageRequest.of(0, geoConfig.getGeohashBackfillBatchSize()));
+                for (CulturalActivity activity : batch) {
+                    activity.setGeohash(Geohash.encode(activity.getLatitude(), activity.getLongitude()));
+                }
+                return batch.size(); // Changes are flushed by dirty checking on commit
+            });
+            updated += batchUpdated;
+        } while (batchUpdated == geoConfig.getGeohashBackfillBatchSize());
+        if (updated > 0) {
+            logger.info("Backfilled geohash for {} activities", updated);
+        }
+        return updated;
+    }
+
+    /**
+     * Recomputes the neighbourhood of every activity against the loaded boundaries.
+     * Walks the table by id, since rows outside every neighbourhood legitimately stay
+     * null; only rows whose tag actually changes are written. Returns that number. When
+     * any changed, caches, indexes and ETags on every node are rebuilt through one
+     * ActivityResyncEvent, as after a bulk import.
+     */
+    public long retagNeighbourhoods() {
+        int batchSize = neighbourhoodConfig.getRetagBatchSize();
+        long updated = 0;
+        long lastId = 0L;
+        while (true) {
+            long afterId = lastId;
+            long[] batchResult = transactionTemplate.execute(status -> {
+                List<CulturalActivity> batch = activityRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, batchSize));
+                long changed = 0;
+                for (CulturalActivity activity : batch) {
+                    String neighbourhoodId = neighbourhoodService.locate(activity.getLatitude(), activity.getLongitude());
+                    if (!Objects.equals(neighbourhoodId, activity.getNeighbourhoodId())) {
+                        activity.setNeighbourhoodId(neighbourhoodId); // Flushed by dirty checking on commit
+                        changed++;
+                    }
+                }
+                long last = batch.isEmpty() ? afterId : batch.get(batch.size() - 1).getId();
+                return new long[] {batch.size(), changed, last};
+            });
+            updated += batchResult[1];
+            lastId = batchResult[2];
+            if (batchResult[0] < batchSize) {
+                break;
+            }
+        }
+        if (updated > 0) {
+            logger.info("Updated the neighbourhood of {} activities", updated);
+            // Batches wrote through the repository without change events; every batch has committed by now
+            eventPublisher.publishEvent(new ActivityResyncEvent(true));
+        }
+        return updated;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.event.ActivityChangeNotification;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the activity caches and indexes of every node in sync. Each local write is
+ * announced with pg_notify; every other node LISTENs on the channel and republishes it
+ * as a remote ActivityChangedEvent, so the usual listeners evict or update their entries.
+ * Notifications sent while a node is not listening are lost, so each time LISTEN succeeds,
+ * on the first connect and after every reconnect, the node publishes an ActivityResyncEvent
+ * and rebuilds everything from the database.
+ */
+@Service
+public class ActivityChangeBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityChangeBus.class);
+
+    // LISTEN takes an identifier, not a bind parameter
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+    private volatile Connection listenerConnection;
+
+    /**
+     * Sends the write to the other nodes. Inside a transaction the NOTIFY joins it and is
+     * delivered on commit only; ActivityService saves without one, so it runs right after
+     * the save has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void publish(ActivityChangedEvent event) {
+        if (!cacheConfig.isBusEnabled() || event.isRemote()) {
+            return;
+        }
+        CulturalActivity activity = event.getActivity();
+        ActivityChangeNotification notification = new ActivityChangeNotification(node, event.getType(), event.getActivityId(),
+                activity.getLatitude(), activity.getLongitude(), activity.getCategory(),
+                event.getPreviousLatitude(), event.getPreviousLongitude(), event.getPreviousCategory(), false);
+        try {
+            notify(notification);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The write itself has succeeded; other nodes catch up when their entries expire
+            logger.warn("Could not announce change of activity {} to other nodes", event.getActivityId(), e);
+        }
+    }
+
+    // Passes a local resync (e.g. after a bulk import) on to the other nodes
+    @EventListener
+    public void announceResync(ActivityResyncEvent event) {
+        if (!cacheConfig.isBusEnabled() || !event.isAnnounce()) {
+            return;
+        }
+        ActivityChangeNotification notification = new ActivityChangeNotification();
+        notification.setNode(node);
+        notification.setResync(true);
+        try {
+            notify(notification);
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Could not announce activity resync to other nodes", e);
+        }
+    }
+
+    // Applies a notification received from the channel; own notifications are ignored
+    public void onNotification(String payload) {
+        ActivityChangeNotification notification;
+        try {
+            notification = objectMapper.readValue(payload, ActivityChangeNotification.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring malformed activity change notification: {}", payload);
+            return;
+        }
+        if (node.equals(notification.getNode())) {
+            return;
+        }
+        if (notification.isResync()) {
+            eventPublisher.publishEvent(new ActivityResyncEvent());
+            return;
+        }
+        CulturalActivity activity = notification.getType() == ActivityChangedEvent.Type.DELETED
+                ? null
+                : activityRepository.findById(notification.getId()).orElse(null);
+        if (activity != null) {
+            eventPublisher.publishEvent(ActivityChangedEvent.remote(notification.getType(), activity,
+                    notification.getPreviousLatitude(), notification.getPreviousLongitude(), notification.getPreviousCategory()));
+            return;
+        }
+        // Deleted, or deleted since: drop it wherever it was before and after this write
+        CulturalActivity removed = new CulturalActivity();
+        removed.setId(notification.getId());
+        removed.setLatitude(notification.getLatitude());
+        removed.setLongitude(notification.getLongitude());
+        removed.setCategory(notification.getCategory());
+        if (notification.getType() == ActivityChangedEvent.Type.UPDATED) {
+            eventPublisher.publishEvent(ActivityChangedEvent.vanished(removed,
+                    notification.getPreviousLatitude(), notification.getPreviousLongitude(), notification.getPreviousCategory()));
+        }
+        eventPublisher.publishEvent(notification.getType() == ActivityChangedEvent.Type.DELETED
+                ? ActivityChangedEvent.remote(ActivityChangedEvent.Type.DELETED, removed,
+                        notification.getLatitude(), notification.getLongitude(), notification.getCategory())
+                : ActivityChangedEvent.vanished(removed,
+                        notification.getLatitude(), notification.getLongitude(), notification.getCategory()));
+    }
+
+    private void notify(ActivityChangeNotification notification) throws JsonProcessingException {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", cacheConfig.getBusChannel(),
+                objectMapper.writeValueAsString(notification));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!cacheConfig.isBusEnabled()) {
+            return;
+        }
+        if (!CHANNEL_NAME.matcher(cacheConfig.getBusChannel()).matches()) {
+            throw new IllegalStateException("app.cache.bus-channel must be a lower-case SQL identifier: " + cacheConfig.getBusChannel());
+        }
+        running = true;
+        Thread thread = new Thread(this::listen, "activity-change-listener");
+        thread.setDaemon(true);
+        listenerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(listenerConnection); // Unblocks a pending getNotifications
+    }
+
+    // Listener loop: connect, LISTEN, poll until the connection fails, back off and reconnect
+    private void listen() {
+        long reconnectDelay = cacheConfig.getBusReconnectDelay().toMillis();
+        boolean listenedBefore = false;
+        while (running) {
+            try (Connection connection = openConnection()) {
+                listenerConnection = connection;
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    logger.warn("Activity change bus needs PostgreSQL; other nodes' writes will not be seen");
+                    return;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + cacheConfig.getBusChannel());
+                }
+                // Changes committed from now on are delivered; earlier ones are covered by the reload. That includes
+                // the first LISTEN, since other nodes may have written between the startup load and this point
+                if (listenedBefore) {
+                    logger.info("Activity change bus reconnected; reloading activity caches and indexes");
+                } else {
+                    logger.info("Activity change bus listening; reloading activity caches and indexes");
+                }
+                eventPublisher.publishEvent(new ActivityResyncEvent());
+                listenedBefore = true;
+                reconnectDelay = cacheConfig.getBusReconnectDelay().toMillis();
+                poll(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    logger.warn("Activity change bus connection lost, retrying in {} ms", reconnectDelay, e);
+                }
+            } finally {
+                listenerConnection = null;
+            }
+            if (!sleep(reconnectDelay)) {
+                return;
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, cacheConfig.getBusReconnectMaxDelay().toMillis());
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        int timeoutMillis = (int) cacheConfig.getBusPollTimeout().toMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+            if (notifications == null || notifications.length == 0) {
+                // A silent channel may also be a dead socket; a round trip tells them apart
+                if (!connection.isValid(Math.max(1, timeoutMillis / 1000))) {
+                    throw new SQLException("Notification connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                try {
+                    onNotification(notification.getParameter());
+                } catch (RuntimeException e) {
+                    logger.warn("Could not apply activity change notification {}", notification.getParameter(), e);
+                }
+            }
+        }
+    }
+
+    // Dedicated connection outside the pool: it is held for the lifetime of the node. Package-private for tests
+    Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return running;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Shutting down anyway
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Change counters for the activity lists, so their ETags can be computed without a query.
+ * Every write bumps the global counter and the counters of the categories it touched.
+ * Counters live in memory and restart at zero, so ETags also carry a random epoch chosen
+ * at startup: a tag handed out before a restart never matches again.
+ * <p>
+ * Counters are per node too: the bus delivers other nodes' writes in its own order and
+ * resyncs bump them independently, so equal versions on two nodes do not mean equal data.
+ * The epoch therefore stays per node, and behind a load balancer a client only gets 304s
+ * while it keeps hitting the same node (sticky sessions); elsewhere it gets a full 200.
+ */
+@Service
+public class ActivityChangeTracker {
+
+    // Version and time of the last change of one scope (all activities, or one category)
+    public static final class Stamp {
+        private final long version;
+        private final long lastModified;
+
+        Stamp(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        // Epoch millis, as expected by WebRequest.checkNotModified
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final long startedAt = System.currentTimeMillis();
+
+    private volatile Stamp all = new Stamp(0, startedAt);
+    private final Map<String, Stamp> byCategory = new ConcurrentHashMap<>();
+    // Version of categories without a counter; raised on resync, when the counters are dropped
+    private volatile Stamp categoryFloor = all;
+
+    /**
+     * Stamp of every activity list. Read it BEFORE running the list query: a write that
+     * lands in between then yields a newer tag on the next request instead of pinning a
+     * stale body to the new tag.
+     */
+    public Stamp all() {
+        return all;
+    }
+
+    // Stamp of the lists of one category
+    public Stamp category(String category) {
+        return byCategory.getOrDefault(category, categoryFloor);
+    }
+
+    // Strong ETag for a stamp; lists of the same scope share it, the URL tells them apart
+    public String eTag(String scope, Stamp stamp) {
+        return "\"" + scope + "-" + epoch + "-" + stamp.getVersion() + "\"";
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            all = new Stamp(all.getVersion() + 1, now);
+            bump(event.getPreviousCategory(), now);
+            CulturalActivity activity = event.getActivity();
+            if (activity != null && !Objects.equals(activity.getCategory(), event.getPreviousCategory())) {
+                bump(activity.getCategory(), now);
+            }
+        }
+    }
+
+    /**
+     * Writes from other nodes may have been missed, so every scope counts as changed. A
+     * category is never bumped without the global counter, so restarting all categories
+     * above the global version keeps every counter increasing.
+     */
+    @EventListener
+    public synchronized void onResync(ActivityResyncEvent event) {
+        all = new Stamp(all.getVersion() + 1, System.currentTimeMillis());
+        categoryFloor = all;
+        byCategory.clear();
+    }
+
+    private void bump(String category, long now) {
+        if (category == null) {
+            return;
+        }
+        long base = categoryFloor.getVersion();
+        byCategory.merge(category, new Stamp(base + 1, now), (old, ignored) -> new Stamp(old.getVersion() + 1, now));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CategoryCountView;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Activity counts, in total and per category, for list responses that ask for an
+ * approximate total instead of a COUNT(*) per page. Seeded from one aggregate query and
+ * then moved by the write events of this node and, through ActivityChangeBus, of the
+ * others. Writes racing a recount can be missed or counted twice, so the counts are
+ * rebuilt periodically and after every resync rather than trusted forever.
+ */
+@Service
+public class ActivityCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityCountService.class);
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    private static final class Counts {
+        final AtomicLong all = new AtomicLong();
+        final Map<String, AtomicLong> byCategory = new ConcurrentHashMap<>();
+    }
+
+    private volatile Counts counts = new Counts();
+
+    @PostConstruct
+    public void load() {
+        Counts fresh = new Counts();
+        for (CategoryCountView row : activityRepository.countByCategory()) {
+            fresh.all.addAndGet(row.getCount());
+            if (row.getCategory() != null) {
+                fresh.byCategory.put(row.getCategory(), new AtomicLong(row.getCount()));
+            }
+        }
+        counts = fresh;
+        logger.debug("Activity counts reloaded: {} in {} categories", fresh.all.get(), fresh.byCategory.size());
+    }
+
+    // Corrects the drift left by writes that raced the previous recount
+    @Scheduled(fixedDelayString = "${app.cache.count-reload-interval-ms:600000}",
+               initialDelayString = "${app.cache.count-reload-interval-ms:600000}")
+    public void reload() {
+        load();
+    }
+
+    public long approximateTotal() {
+        return Math.max(0, counts.all.get());
+    }
+
+    public long approximateTotal(String category) {
+        AtomicLong count = counts.byCategory.get(category);
+        return count == null ? 0 : Math.max(0, count.get());
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        if (event.isVanished()) {
+            return; // Never counted here, and its real delete is counted when it arrives
+        }
+        Counts current = counts;
+        CulturalActivity activity = event.getActivity();
+        switch (event.getType()) {
+            case CREATED -> {
+                current.all.incrementAndGet();
+                add(current, activity.getCategory(), 1);
+            }
+            case DELETED -> {
+                current.all.decrementAndGet();
+                add(current, event.getPreviousCategory(), -1);
+            }
+            case UPDATED -> {
+                String category = activity != null ? activity.getCategory() : null;
+                if (!Objects.equals(category, event.getPreviousCategory())) {
+                    add(current, event.getPreviousCategory(), -1);
+                    add(current, category, 1);
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        load();
+    }
+
+    private static void add(Counts counts, String category, long delta) {
+        if (category != null) {
+            counts.byCategory.computeIfAbsent(category, ignored -> new AtomicLong()).addAndGet(delta);
+        }
+    }
+}
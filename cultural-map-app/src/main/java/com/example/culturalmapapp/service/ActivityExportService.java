@@ -0,0 +1,153 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.ExportConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Writes every activity to a stream in one pass, for GET /api/activities/export. Rows come
+ * from a database cursor as response DTOs and are written as soon as they arrive, so only
+ * a fetch-size window of rows and the write buffer are in memory, whatever the table size.
+ * Every running export holds a database connection, so callers claim one of a few slots
+ * first (tryAcquireSlot) and turn clients away when none is free.
+ */
+@Service
+public class ActivityExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityExportService.class);
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParameter(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + format + ". Use csv or ndjson.");
+            }
+        }
+    }
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExportConfig exportConfig;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Semaphore slots;
+
+    @PostConstruct
+    public void init() {
+        int maxConcurrent = exportConfig.getMaxConcurrent();
+        if (maxConcurrent < 1) {
+            throw new IllegalStateException("app.export.max-concurrent must be at least 1");
+        }
+        // Exports must never be able to take every connection from the rest of the application
+        if (dataSource instanceof HikariDataSource hikari && maxConcurrent >= hikari.getMaximumPoolSize()) {
+            throw new IllegalStateException("app.export.max-concurrent (" + maxConcurrent
+                    + ") must be below the connection pool size (" + hikari.getMaximumPoolSize() + ")");
+        }
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    // Claims an export slot without waiting; false when max-concurrent exports are already running
+    public boolean tryAcquireSlot() {
+        return slots.tryAcquire();
+    }
+
+    // Gives back a slot claimed with tryAcquireSlot, once its export has finished or failed
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /**
+     * Writes all activities in id order and returns how many. The output is flushed but not
+     * closed. The read-only transaction stays open until the last row is written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        long count = 0;
+        try (Stream<ActivityResponse> rows = activityRepository.streamAllResponses()) {
+            Iterator<ActivityResponse> iterator = rows.iterator();
+            if (format == Format.CSV) {
+                CsvWriter csv = new CsvWriter(writer);
+                csv.writeRecord("id", "name", "description", "dateTime", "latitude", "longitude", "category",
+                        "neighbourhoodId", "producerUsername", "version", "updatedAt");
+                while (iterator.hasNext()) {
+                    ActivityResponse row = iterator.next();
+                    csv.writeRecord(row.getId(), row.getName(), row.getDescription(), row.getDateTime(), row.getLatitude(),
+                            row.getLongitude(), row.getCategory(), row.getNeighbourhoodId(), row.getProducerUsername(),
+                            row.getVersion(), row.getUpdatedAt());
+                    count++;
+                }
+            } else {
+                // One object per line; flushing is left to the buffer instead of happening after every row
+                try (SequenceWriter json = objectMapper.writer()
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .withRootValueSeparator("\n")
+                        .writeValues(writer)) {
+                    while (iterator.hasNext()) {
+                        json.write(iterator.next());
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+        logger.debug("Exported {} activities as {}", count, format);
+        return count;
+    }
+}
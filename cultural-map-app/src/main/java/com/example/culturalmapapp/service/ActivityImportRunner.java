@@ -0,0 +1,60 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.ImportConfig;
+import com.example.culturalmapapp.dto.ActivityImportReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line mode of the bulk import, for the nightly agenda load:
+ * java -jar cultural-map-app.jar --spring.main.web-application-type=none
+ *   --app.import.file=agenda.csv --app.import.producer=admin
+ * imports the file, logs the report and exits with status 0, or 1 if the import failed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.import", name = "file")
+public class ActivityImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportRunner.class);
+
+    @Autowired
+    private ActivityImportService activityImportService;
+
+    @Autowired
+    private ImportConfig importConfig;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int status = 0;
+        Path file = Path.of(importConfig.getFile());
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+            ActivityImportReport report = activityImportService.importActivities(input,
+                    ActivityImportService.Format.fromFileName(file.getFileName().toString()), importConfig.getProducer());
+            report.getRejections().forEach(rejection ->
+                    logger.warn("Rejected line {}: {}", rejection.getLine(), rejection.getMessage()));
+            if (report.isRejectionsTruncated()) {
+                logger.warn("{} rejected rows in total; only the first {} are listed", report.getRejected(), report.getRejections().size());
+            }
+        } catch (Exception e) {
+            logger.error("Import of {} failed", file, e);
+            status = 1;
+        }
+        int exitStatus = status;
+        System.exit(SpringApplication.exit(applicationContext, () -> exitStatus));
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.ImportConfig;
+import com.example.culturalmapapp.dto.ActivityImportRejection;
+import com.example.culturalmapapp.dto.ActivityImportReport;
+import com.example.culturalmapapp.dto.ActivityImportRow;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.exception.ResourceNotFoundException;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.ActivityImportStateView;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.util.CsvReader;
+import com.example.culturalmapapp.util.Geohash;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads a whole agenda file (CSV, a JSON array or newline-delimited JSON) into the activity
+ * table. The file is streamed and written in batches of app.import.batch-size rows, one
+ * transaction and one round of JDBC batches each, so only one batch of rows is held at a
+ * time. The externalIds already read are kept too, to reject duplicates within the file,
+ * so memory still grows with the file: roughly 100 bytes per distinct row for a short id.
+ * Rows are matched to activities by externalId; a row whose content hash equals the stored
+ * one is skipped without a write, which makes nightly re-imports of a mostly unchanged
+ * agenda cheap.
+ *
+ * Batches that have committed stay committed if a later one fails; importing the same file
+ * again picks up where it stopped. Caches and indexes are not updated row by row: once the
+ * import is done, every node reloads them through one ActivityResyncEvent.
+ */
+@Service
+public class ActivityImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityImportService.class);
+
+    public enum Format {
+        CSV, JSON; // JSON covers both an array of objects and one object per line
+
+        // By file name, for the command-line mode
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lower.endsWith(".json") || lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+                return JSON;
+            }
+            throw new IllegalArgumentException("Cannot tell the format of " + fileName + "; expected .csv, .json or .ndjson");
+        }
+    }
+
+    private static final List<String> CSV_COLUMNS =
+            List.of("externalId", "name", "description", "dateTime", "latitude", "longitude", "category");
+    private static final int MAX_EXTERNAL_ID_LENGTH = 128;
+    private static final char HASH_SEPARATOR = '\u001f'; // Unit separator: cannot be confused with field content
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NeighbourhoodService neighbourhoodService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImportConfig importConfig;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // A row that passed validation, waiting for its batch
+    private record ValidRow(String externalId, String name, String description, LocalDateTime dateTime,
+                            double latitude, double longitude, String category, String contentHash) {
+    }
+
+    /**
+     * Imports the file as activities of the given producer. Throws IllegalArgumentException
+     * when the file cannot be read at all (unknown CSV header, broken JSON) and
+     * IllegalStateException when another import is still running; bad rows only end up
+     * in the report.
+     */
+    public ActivityImportReport importActivities(InputStream input, Format format, String producerUsername) throws IOException {
+        Long producerId = userRepository.findByUsername(producerUsername)
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + producerUsername));
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another activity import is still running.");
+        }
+        long started = System.nanoTime();
+        ActivityImportReport report = new ActivityImportReport();
+        Run run = new Run(report, producerId);
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, run);
+            } else {
+                readJson(input, run);
+            }
+            run.flush();
+        } finally {
+            running.set(false);
+            if (report.getInserted() + report.getUpdated() > 0) {
+                eventPublisher.publishEvent(new ActivityResyncEvent(true));
+            }
+        }
+        report.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+        report.setRowsPerSecond(report.getRowsRead() * 1000.0 / Math.max(1, report.getElapsedMs()));
+        logger.info("Imported {} activity rows in {} ms ({} rows/s): {} inserted, {} updated, {} unchanged, {} rejected",
+                report.getRowsRead(), report.getElapsedMs(), Math.round(report.getRowsPerSecond()),
+                report.getInserted(), report.getUpdated(), report.getUnchanged(), report.getRejected());
+        return report;
+    }
+
+    private void readCsv(InputStream input, Run run) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).strip();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // Byte order mark written by spreadsheet exports
+            }
+            columns.put(name.toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = CSV_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column.toLowerCase(Locale.ROOT)))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing the column(s) " + String.join(", ", missing) + ".");
+        }
+        Function<List<String>, String> externalId = field(columns, "externalId");
+        Function<List<String>, String> name = field(columns, "name");
+        Function<List<String>, String> description = field(columns, "description");
+        Function<List<String>, String> dateTime = field(columns, "dateTime");
+        Function<List<String>, String> latitude = field(columns, "latitude");
+        Function<List<String>, String> longitude = field(columns, "longitude");
+        Function<List<String>, String> category = field(columns, "category");
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.readRecord();
+            } catch (IllegalArgumentException e) {
+                // An unclosed quote swallows the rest of the file; nothing after it can be read
+                run.skip(reader.getRecordLine(), e.getMessage());
+                return;
+            }
+            if (record == null) {
+                return;
+            }
+            if (record.size() != header.size()) {
+                run.skip(reader.getRecordLine(), "Expected " + header.size() + " fields, found " + record.size());
+                continue;
+            }
+            run.accept(reader.getRecordLine(), new ActivityImportRow(externalId.apply(record), name.apply(record),
+                    description.apply(record), dateTime.apply(record), latitude.apply(record), longitude.apply(record),
+                    category.apply(record)));
+        }
+    }
+
+    private static Function<List<String>, String> field(Map<String, Integer> columns, String name) {
+        int index = columns.get(name.toLowerCase(Locale.ROOT));
+        return record -> record.get(index);
+    }
+
+    private void readJson(InputStream input, Run run) throws IOException {
+        // A top-level array is read element by element, like a file of one object per line
+        try (MappingIterator<ActivityImportRow> rows = objectMapper.readerFor(ActivityImportRow.class).readValues(input)) {
+            while (rows.hasNextValue()) {
+                long line = rows.getParser().currentTokenLocation().getLineNr();
+                try {
+                    run.accept(line, rows.nextValue());
+                } catch (JsonMappingException e) {
+                    // Well-formed JSON of the wrong shape; the iterator skips to the next object
+                    run.skip(line, e.getOriginalMessage());
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Malformed JSON near line " + e.getLocation().getLineNr() + ": " + e.getOriginalMessage(), e);
+        }
+    }
+
+    // State of one import: counters and the rows of the batch being filled
+    private final class Run {
+        private final ActivityImportReport report;
+        private final Long producerId;
+        // Every externalId of the file so far; the one structure that grows with the file rather than the batch
+        private final Set<String> seenExternalIds = new HashSet<>();
+        private final List<ValidRow> batch = new ArrayList<>();
+
+        Run(ActivityImportReport report, Long producerId) {
+            this.report = report;
+            this.producerId = producerId;
+        }
+
+        void accept(long line, ActivityImportRow row) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            ValidRow valid;
+            try {
+                valid = validate(row);
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            if (!seenExternalIds.add(valid.externalId())) {
+                reject(line, "Duplicate externalId " + valid.externalId() + " in this file");
+                return;
+            }
+            batch.add(valid);
+            if (batch.size() >= importConfig.getBatchSize()) {
+                flush();
+            }
+        }
+
+        // A row that could not even be read as an ActivityImportRow
+        void skip(long line, String message) {
+            report.setRowsRead(report.getRowsRead() + 1);
+            reject(line, message);
+        }
+
+        private void reject(long line, String message) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getRejections().size() < importConfig.getMaxReportedRejections()) {
+                report.getRejections().add(new ActivityImportRejection(line, message));
+            } else {
+                report.setRejectionsTruncated(true);
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            long[] counts = transactionTemplate.execute(status -> writeBatch(batch, producerId));
+            report.setInserted(report.getInserted() + counts[0]);
+            report.setUpdated(report.getUpdated() + counts[1]);
+            report.setUnchanged(report.getUnchanged() + counts[2]);
+            batch.clear();
+        }
+    }
+
+    // Inside the batch transaction; returns {inserted, updated, unchanged}
+    private long[] writeBatch(List<ValidRow> batch, Long producerId) {
+        // Inserts and updates of this batch go out as JDBC batches of this size when the session flushes
+        entityManager.unwrap(Session.class).setJdbcBatchSize(importConfig.getBatchSize());
+
+        Map<String, ActivityImportStateView> stored = activityRepository
+                .findImportStates(batch.stream().map(ValidRow::externalId).toList()).stream()
+                .collect(Collectors.toMap(ActivityImportStateView::getExternalId, Function.identity()));
+        List<CulturalActivity> inserts = new ArrayList<>();
+        Map<Long, ValidRow> updates = new HashMap<>();
+        long unchanged = 0;
+        for (ValidRow row : batch) {
+            ActivityImportStateView state = stored.get(row.externalId());
+            if (state == null) {
+                CulturalActivity activity = new CulturalActivity();
+                activity.setExternalId(row.externalId());
+                activity.setProducer(userRepository.getReferenceById(producerId)); // Only the foreign key is needed
+                apply(activity, row);
+                inserts.add(activity);
+            } else if (row.contentHash().equals(state.getContentHash())) {
+                unchanged++;
+            } else {
+                updates.put(state.getId(), row);
+            }
+        }
+        activityRepository.saveAll(inserts);
+        // Changed rows are loaded in one query and written by dirty checking on commit
+        for (CulturalActivity activity : activityRepository.findAllById(updates.keySet())) {
+            apply(activity, updates.get(activity.getId()));
+        }
+        return new long[] {inserts.size(), updates.size(), unchanged};
+    }
+
+    private void apply(CulturalActivity activity, ValidRow row) {
+        activity.setName(row.name());
+        activity.setDescription(row.description());
+        activity.setDateTime(row.dateTime());
+        activity.setLatitude(row.latitude());
+        activity.setLongitude(row.longitude());
+        activity.setCategory(row.category());
+        activity.setGeohash(Geohash.encode(row.latitude(), row.longitude()));
+        activity.setNeighbourhoodId(neighbourhoodService.locate(row.latitude(), row.longitude()));
+        activity.setContentHash(row.contentHash());
+    }
+
+    // Same rules as ActivityRequest, plus a required externalId; throws IllegalArgumentException with the first problem
+    private static ValidRow validate(ActivityImportRow row) {
+        String externalId = required(row.getExternalId(), "externalId");
+        if (externalId.length() > MAX_EXTERNAL_ID_LENGTH) {
+            throw new IllegalArgumentException("externalId must not exceed " + MAX_EXTERNAL_ID_LENGTH + " characters");
+        }
+        String name = required(row.getName(), "Activity name");
+        if (name.length() > 255) {
+            throw new IllegalArgumentException("Activity name must not exceed 255 characters");
+        }
+        String description = required(row.getDescription(), "Description");
+        LocalDateTime dateTime;
+        try {
+            dateTime = LocalDateTime.parse(required(row.getDateTime(), "Date and time"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date and time must be ISO-8601, e.g. 2024-07-20T18:00:00");
+        }
+        double latitude = coordinate(row.getLatitude(), "Latitude", 90);
+        double longitude = coordinate(row.getLongitude(), "Longitude", 180);
+        String category = required(row.getCategory(), "Category");
+        if (category.length() > 100) {
+            throw new IllegalArgumentException("Category must not exceed 100 characters");
+        }
+        String contentHash = hash(name, description, dateTime.toString(), Double.toString(latitude), Double.toString(longitude), category);
+        return new ValidRow(externalId, name, description, dateTime, latitude, longitude, category, contentHash);
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " cannot be blank");
+        }
+        return value.strip();
+    }
+
+    private static double coordinate(String value, String field, double bound) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(required(value, field));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+        if (!(parsed >= -bound && parsed <= bound)) { // Also false for NaN
+            throw new IllegalArgumentException(field + " must be between " + (int) -bound + " and " + (int) bound);
+        }
+        return parsed;
+    }
+
+    // SHA-256 over the parsed values, so formatting differences in the file (1.50 vs 1.5) are not changes
+    private static String hash(String... fields) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : fields) {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) HASH_SEPARATOR);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
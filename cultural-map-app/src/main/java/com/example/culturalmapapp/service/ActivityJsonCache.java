@@ -0,0 +1,150 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized form of single activities, so GET /api/activities/{id} writes cached bytes
+ * instead of running Jackson (and gzip) on every hit. Sits on top of the activities
+ * cache and is bounded by the total bytes it holds; the eviction policy keeps the ids
+ * that are requested most.
+ */
+@Service
+public class ActivityJsonCache {
+
+    // Below this, the gzip header and trailer eat most of the saving
+    private static final int GZIP_MIN_BYTES = 256;
+    // Rough per-entry bookkeeping cost, so small entries still count towards the bound
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private ObjectMapper objectMapper; // The one used by the message converters, so the bytes are identical
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache<Long, Entry> entries;
+
+    public static final class Entry {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final Long version;
+        private final Instant updatedAt;
+
+        Entry(byte[] json, byte[] gzip, Long version, Instant updatedAt) {
+            this.json = json;
+            this.gzip = gzip;
+            this.version = version;
+            this.updatedAt = updatedAt;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        // Null when the JSON is too small to be worth compressing
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public Instant getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = Caffeine.newBuilder()
+                .maximumWeight(cacheConfig.getJsonMaxBytes())
+                .weigher((Long id, Entry entry) -> entry.json.length
+                        + (entry.gzip != null ? entry.gzip.length : 0) + ENTRY_OVERHEAD_BYTES)
+                .expireAfterWrite(cacheConfig.getJsonTtl())
+                .recordStats()
+                .build();
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Cache<Object, Object> nativeCache = (Cache) entries;
+            caffeineCacheManager.registerCustomCache(CacheConfig.ACTIVITY_JSON, nativeCache);
+        }
+    }
+
+    // Throws ResourceNotFoundException like ActivityService.getActivityById; misses are not cached
+    public Entry get(Long id) {
+        return entries.get(id, key -> serialize(activityService.getActivityById(key)));
+    }
+
+    private Entry serialize(ActivityResponse response) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize activity " + response.getId(), e);
+        }
+        return new Entry(json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null, response.getVersion(), response.getUpdatedAt());
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory streams do not fail
+        }
+        return buffer.toByteArray();
+    }
+
+    public long cachedBytes() {
+        entries.cleanUp(); // Weights are applied by asynchronous maintenance; settle them first
+        return entries.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    /**
+     * Entries are built from the activities cache, so that layer is evicted first: a
+     * request in between would otherwise serialize the old state again. invalidate()
+     * also waits for a serialization of the id already in flight and drops its result.
+     */
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        activityCache().evict(event.getActivityId());
+        entries.invalidate(event.getActivityId());
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        activityCache().clear();
+        entries.invalidateAll();
+    }
+
+    private org.springframework.cache.Cache activityCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ACTIVITIES));
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.SearchConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.repository.ActivitySearchRepository;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Text search over activities. On PostgreSQL the name, category and description are kept
+ * in a generated tsvector column (Portuguese stemming, accents removed), so every insert and
+ * update, including bulk imports, refreshes it in the same statement; a GIN index answers
+ * the match and results come back ranked. Elsewhere, or while the column does not exist,
+ * searches fall back to case-insensitive LIKE matching. quickSearch() answers from the
+ * in-memory TextIndexService instead and only reads the results from the database.
+ */
+@Service
+public class ActivitySearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivitySearchService.class);
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SearchConfig searchConfig;
+
+    @Autowired
+    private TextIndexService textIndexService;
+
+    private static final String SEARCH_INDEX = "idx_cultural_activities_search_vector";
+
+    private volatile boolean fullText;
+
+    /**
+     * Turns full-text search on when the database has what it needs: the pt_unaccent
+     * configuration (the built-in portuguese one with unaccent before the stemmer) and the
+     * search_vector column. With app.search.create-schema those are created first, if missing,
+     * together with the GIN index; adding the column rewrites the table under an exclusive lock,
+     * so that is meant for development, and production runs the same statements once as a
+     * migration. Without them, searches use LIKE.
+     */
+    @PostConstruct
+    public void setUpFullText() {
+        if (!searchConfig.isFullTextEnabled()) {
+            return;
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return; // Other databases are only used by tests, which search with LIKE
+        }
+        try {
+            if (searchConfig.isCreateSchema()) {
+                createFullTextSchema();
+            }
+            fullText = fullTextSchemaPresent();
+            if (!fullText) {
+                logger.warn("Full-text search schema missing (search_vector column or " + ActivitySearchRepository.TEXT_SEARCH_CONFIG
+                        + " configuration); text search falls back to LIKE matching");
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Full-text search unavailable, text search falls back to LIKE matching", e);
+        }
+    }
+
+    private void createFullTextSchema() {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+        jdbcTemplate.execute(
+                "DO $$ BEGIN " +
+                "IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = '" + ActivitySearchRepository.TEXT_SEARCH_CONFIG + "') THEN " +
+                "CREATE TEXT SEARCH CONFIGURATION " + ActivitySearchRepository.TEXT_SEARCH_CONFIG + " (COPY = portuguese); " +
+                "ALTER TEXT SEARCH CONFIGURATION " + ActivitySearchRepository.TEXT_SEARCH_CONFIG +
+                " ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem; " +
+                "END IF; END $$");
+        jdbcTemplate.execute("ALTER TABLE cultural_activities ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (" + ActivitySearchRepository.SEARCH_VECTOR_SQL + ") STORED");
+        // A concurrent build that failed leaves an invalid index behind, which IF NOT EXISTS would keep
+        Boolean valid = jdbcTemplate.query("SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass('" + SEARCH_INDEX + "')",
+                rs -> rs.next() ? rs.getBoolean(1) : null);
+        if (Boolean.FALSE.equals(valid)) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + SEARCH_INDEX);
+        }
+        // CONCURRENTLY keeps writes going while the index builds; it cannot run inside a transaction, and this runs outside one
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + SEARCH_INDEX + " ON cultural_activities USING GIN (search_vector)");
+    }
+
+    private boolean fullTextSchemaPresent() {
+        Boolean present = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = ?) " +
+                "AND EXISTS (SELECT 1 FROM information_schema.columns WHERE table_schema = current_schema() " +
+                "AND table_name = 'cultural_activities' AND column_name = 'search_vector')",
+                Boolean.class, ActivitySearchRepository.TEXT_SEARCH_CONFIG);
+        return Boolean.TRUE.equals(present);
+    }
+
+    public boolean isFullText() {
+        return fullText;
+    }
+
+    /**
+     * The k activities the in-memory text index ranks highest for the text, best first, each
+     * with its BM25 score. An activity matches on any word. Only the k results are read from
+     * the database. Throws IllegalStateException when the index is disabled.
+     */
+    @Transactional(readOnly = true)
+    public List<ActivityResponse> quickSearch(String text, int k) {
+        if (!textIndexService.isEnabled()) {
+            throw new IllegalStateException("The text index is disabled.");
+        }
+        validateText(text);
+        if (k < 1 || k > searchConfig.getIndexMaxK()) {
+            throw new IllegalArgumentException("k must be between 1 and " + searchConfig.getIndexMaxK() + ".");
+        }
+        List<TextIndexService.Match> matches = textIndexService.search(text, k);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = matches.stream().map(TextIndexService.Match::getId).collect(Collectors.toList());
+        Map<Long, ActivityResponse> activitiesById = activityRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ActivityResponse::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> activitiesById.containsKey(match.getId())) // Deleted between the index lookup and the load
+                .map(match -> {
+                    ActivityResponse response = activitiesById.get(match.getId());
+                    response.setScore(match.getScore());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Activities matching the text, most relevant first (by date with the LIKE fallback),
+     * optionally within radiusKm of a point and inside a [from, to] date window. With a point,
+     * each activity includes its distanceKm.
+     */
+    @Transactional(readOnly = true)
+    public Page<ActivityResponse> search(String text, Double latitude, Double longitude, Double radiusKm,
+                                         LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        validateText(text);
+        boolean anyGeo = latitude != null || longitude != null || radiusKm != null;
+        if (anyGeo && (latitude == null || longitude == null || radiusKm == null)) {
+            throw new IllegalArgumentException("latitude, longitude and radius must be given together.");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new IllegalArgumentException("radius must be positive.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to.");
+        }
+
+        Page<ActivitySearchRepository.Hit> hits = fullText
+                ? activityRepository.searchFullText(text, latitude, longitude, radiusKm, from, to, pageable)
+                : activityRepository.searchLike(text, latitude, longitude, radiusKm, from, to, pageable);
+        if (hits.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        // Only the page is loaded, in one query, then put back in rank order
+        List<Long> ids = hits.map(ActivitySearchRepository.Hit::getId).getContent();
+        Map<Long, ActivityResponse> activitiesById = activityRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ActivityResponse::getId, Function.identity()));
+        List<ActivityResponse> content = hits.getContent().stream()
+                .filter(hit -> activitiesById.containsKey(hit.getId()))
+                .map(hit -> {
+                    ActivityResponse response = activitiesById.get(hit.getId());
+                    response.setDistanceKm(hit.getDistanceKm());
+                    return response;
+                })
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.getTotalElements());
+    }
+
+    private void validateText(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search text must not be empty.");
+        }
+        if (text.length() > searchConfig.getMaxQueryLength()) {
+            throw new IllegalArgumentException("Search text must be at most " + searchConfig.getMaxQueryLength() + " characters.");
+        }
+    }
+}
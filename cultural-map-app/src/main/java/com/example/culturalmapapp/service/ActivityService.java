@@ -1,34 +1,159 @@
 package com.example.culturalmapapp.service;
 
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityCursorPage;
 import com.example.culturalmapapp.dto.ActivityRequest;
 import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
 import com.example.culturalmapapp.exception.ResourceNotFoundException;
 import com.example.culturalmapapp.model.CulturalActivity;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.repository.NearbyActivityView;
 import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.util.ActivityCursor;
+import com.example.culturalmapapp.util.GeoUtils;
+import com.example.culturalmapapp.util.Geohash;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ActivityService {
 
+    // Same bound Spring Data applies to offset pages (spring.data.web.pageable.max-page-size)
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     @Autowired
     private CulturalActivityRepository activityRepository;
 
     @Autowired
-    private UserRepository userRepository; // To fetch producer details
+    private UserRepository userRepository; // References to the producer
+
+    @Autowired
+    private UserLookupService userLookupService; // Only for tokens without the user id claim
 
-    public ActivityResponse createActivity(ActivityRequest request, String username) {
-        User producer = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    @Autowired
+    private SpatialIndexService spatialIndexService;
+
+    @Autowired
+    private NeighbourhoodService neighbourhoodService;
+
+    @Autowired
+    private GeoConfig geoConfig;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher; // Keeps in-memory indexes in sync with writes
+
+    @Autowired
+    private ActivityChangeTracker changeTracker;
+
+    @Autowired
+    private NearQueryCache nearQueryCache;
+
+    @Autowired
+    private ActivityCountService activityCountService;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Total carried by a list page: an exact COUNT(*), the counter of ActivityCountService, or none
+    // (a Slice, read with one extra row to tell whether a next page exists)
+    public enum Total { EXACT, APPROXIMATE, NONE }
+
+    // Key of a cached list page. category is null for the unfiltered list; version is the change
+    // counter of that scope, read before loading, so a page loaded concurrently with a write is
+    // stored under the old version and never served once the write has been counted.
+    private static final class PageKey {
+        final String category;
+        final Pageable pageable;
+        final Total total;
+        final long version;
+
+        PageKey(String category, Pageable pageable, Total total, long version) {
+            this.category = category;
+            this.pageable = pageable;
+            this.total = total;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PageKey other)) {
+                return false;
+            }
+            return version == other.version && Objects.equals(category, other.category)
+                    && pageable.equals(other.pageable) && total == other.total;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, pageable, total, version);
+        }
+    }
+
+    // Holds Page values for EXACT and APPROXIMATE keys, Slice values for NONE
+    private LoadingCache<PageKey, Slice<ActivityResponse>> pageCache;
+
+    @PostConstruct
+    public void initPageCache() {
+        ExecutorService refreshExecutor = Executors.newFixedThreadPool(cacheConfig.getPageRefreshThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "activity-page-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Stale-while-revalidate: past pageRefreshAfter the cached page is returned and reloaded in the background
+        pageCache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getPageMaxSize())
+                .expireAfterWrite(cacheConfig.getPageTtl())
+                .refreshAfterWrite(cacheConfig.getPageRefreshAfter())
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(this::loadPage);
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = (com.github.benmanes.caffeine.cache.Cache) pageCache;
+            caffeineCacheManager.registerCustomCache(CacheConfig.ACTIVITY_PAGES, nativeCache);
+        }
+    }
+
+    public ActivityResponse createActivity(ActivityRequest request, AuthenticatedUser currentUser) {
+        // The foreign key only needs the id; the producer row is never loaded
+        User producer = userRepository.getReferenceById(userIdOf(currentUser));
 
         CulturalActivity activity = new CulturalActivity();
         activity.setName(request.getName());
@@ -37,93 +162,270 @@ public class ActivityService {
         activity.setLatitude(request.getLatitude());
         activity.setLongitude(request.getLongitude());
         activity.setCategory(request.getCategory());
+        activity.setGeohash(Geohash.encode(request.getLatitude(), request.getLongitude()));
+        activity.setNeighbourhoodId(neighbourhoodService.locate(request.getLatitude(), request.getLongitude()));
         activity.setProducer(producer);
 
         CulturalActivity savedActivity = activityRepository.save(activity);
-        return mapToActivityResponse(savedActivity);
+        eventPublisher.publishEvent(ActivityChangedEvent.created(savedActivity));
+        return mapToActivityResponse(savedActivity, currentUser.getUsername());
     }
 
+    @Cacheable(cacheNames = CacheConfig.ACTIVITIES, key = "#id")
     public ActivityResponse getActivityById(Long id) {
-        CulturalActivity activity = activityRepository.findById(id)
+        return activityRepository.findResponseById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id));
-        return mapToActivityResponse(activity);
     }
 
     public Page<ActivityResponse> getAllActivities(Pageable pageable) {
-        Page<CulturalActivity> activityPage = activityRepository.findAll(pageable);
-        return activityPage.map(this::mapToActivityResponse);
+        return (Page<ActivityResponse>) getAllActivities(pageable, Total.EXACT);
     }
 
-    public ActivityResponse updateActivity(Long id, ActivityRequest request, String username) {
-        CulturalActivity activity = activityRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id));
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    // A Page unless total is NONE
+    public Slice<ActivityResponse> getAllActivities(Pageable pageable, Total total) {
+        return pageCache.get(new PageKey(null, pageable, total, changeTracker.all().getVersion()));
+    }
 
+    @CachePut(cacheNames = CacheConfig.ACTIVITIES, key = "#id") // Refreshed with the saved state
+    public ActivityResponse updateActivity(Long id, ActivityRequest request, AuthenticatedUser currentUser) {
+        CulturalActivity activity = activityRepository.findWithProducerById(id) // The response carries the producer's username
+                .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id));
         // Admin can update any activity, producers can only update their own
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !activity.getProducer().getId().equals(currentUser.getId())) {
+        if (!currentUser.hasRole("ROLE_ADMIN") && !activity.getProducer().getId().equals(userIdOf(currentUser))) {
             throw new AccessDeniedException("You are not authorized to update this activity.");
         }
 
+        Double previousLatitude = activity.getLatitude();
+        Double previousLongitude = activity.getLongitude();
+        String previousCategory = activity.getCategory();
+
         activity.setName(request.getName());
         activity.setDescription(request.getDescription());
         activity.setDateTime(request.getDateTime());
         activity.setLatitude(request.getLatitude());
         activity.setLongitude(request.getLongitude());
         activity.setCategory(request.getCategory());
+        activity.setGeohash(Geohash.encode(request.getLatitude(), request.getLongitude()));
+        activity.setNeighbourhoodId(neighbourhoodService.locate(request.getLatitude(), request.getLongitude()));
 
         CulturalActivity updatedActivity = activityRepository.save(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.updated(updatedActivity, previousLatitude, previousLongitude, previousCategory));
         return mapToActivityResponse(updatedActivity);
     }
 
-    public void deleteActivity(Long id, String username) {
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES, key = "#id")
+    public void deleteActivity(Long id, AuthenticatedUser currentUser) {
         CulturalActivity activity = activityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Activity not found with id: " + id));
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
-
         // Admin can delete any activity, producers can only delete their own
-        if (!currentUser.getRole().equals("ROLE_ADMIN") && !activity.getProducer().getId().equals(currentUser.getId())) {
+        if (!currentUser.hasRole("ROLE_ADMIN") && !activity.getProducer().getId().equals(userIdOf(currentUser))) {
             throw new AccessDeniedException("You are not authorized to delete this activity.");
         }
         activityRepository.delete(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.deleted(activity));
+    }
+
+    // Id from the token; older tokens without it fall back to the cached lookup by username
+    private Long userIdOf(AuthenticatedUser currentUser) {
+        if (currentUser.getId() != null) {
+            return currentUser.getId();
+        }
+        return userLookupService.findByUsername(currentUser.getUsername())
+                .map(User::getId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + currentUser.getUsername()));
     }
 
     public Page<ActivityResponse> getActivitiesByCategory(String category, Pageable pageable) {
-        Page<CulturalActivity> activityPage = activityRepository.findByCategory(category, pageable);
-        return activityPage.map(this::mapToActivityResponse);
+        return (Page<ActivityResponse>) getActivitiesByCategory(category, pageable, Total.EXACT);
+    }
+
+    // A Page unless total is NONE
+    public Slice<ActivityResponse> getActivitiesByCategory(String category, Pageable pageable, Total total) {
+        return pageCache.get(new PageKey(category, pageable, total, changeTracker.category(category).getVersion()));
+    }
+
+    private Slice<ActivityResponse> loadPage(PageKey key) {
+        if (key.total == Total.EXACT) {
+            return key.category == null
+                    ? activityRepository.findAllResponses(key.pageable)
+                    : activityRepository.findResponsesByCategory(key.category, key.pageable);
+        }
+        Slice<ActivityResponse> slice = key.category == null
+                ? activityRepository.findAllResponseSlice(key.pageable)
+                : activityRepository.findResponseSliceByCategory(key.category, key.pageable);
+        if (key.total == Total.NONE) {
+            return slice;
+        }
+        long seen = key.pageable.getOffset() + slice.getNumberOfElements();
+        long estimate = key.category == null ? activityCountService.approximateTotal() : activityCountService.approximateTotal(key.category);
+        // The slice itself is exact about where the list ends; the estimate only fills in the rest
+        long total = slice.hasNext() ? Math.max(estimate, seen + 1) : seen;
+        return new PageImpl<>(slice.getContent(), key.pageable, total);
     }
 
+    /**
+     * Keyset page of activities (one category, or all when category is null) after the
+     * cursor. One extra row is read to tell whether another page follows; there is no total.
+     * Not cached: consecutive pages have distinct cursors, and each is a short index scan.
+     */
+    public ActivityCursorPage getActivitiesAfter(String category, ActivityCursor cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE + ".");
+        }
+        List<ActivityResponse> rows = activityRepository.findResponsesAfter(category, cursor, size + 1);
+        if (rows.size() <= size) {
+            return new ActivityCursorPage(rows, size, null);
+        }
+        List<ActivityResponse> content = rows.subList(0, size);
+        ActivityResponse last = content.get(size - 1);
+        return new ActivityCursorPage(content, size, cursor.after(last.getDateTime(), last.getId()).encode());
+    }
+
+    // Drops the pages a write can change: every unfiltered page and the pages of the categories it touched
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        String previousCategory = event.getPreviousCategory();
+        String category = event.getActivity() != null ? event.getActivity().getCategory() : null;
+        pageCache.asMap().keySet().removeIf(key -> key.category == null
+                || key.category.equals(previousCategory) || key.category.equals(category));
+        // Local writes keep the single-activity cache current through @CachePut/@CacheEvict
+        if (event.isRemote()) {
+            activityCache().evict(event.getActivityId());
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        pageCache.invalidateAll();
+        activityCache().clear();
+    }
+
+    private Cache activityCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ACTIVITIES));
+    }
+
+    // Served from the neighbourhood tag stored on each activity; no geometry at query time
+    public Page<ActivityResponse> getActivitiesByNeighbourhood(String neighbourhoodId, Pageable pageable) {
+        if (!neighbourhoodService.exists(neighbourhoodId)) {
+            throw new ResourceNotFoundException("Neighbourhood not found with id: " + neighbourhoodId);
+        }
+        return activityRepository.findResponsesByNeighbourhoodId(neighbourhoodId, pageable);
+    }
+
+    // Results are always ordered by distance; any sort in the Pageable is ignored
     public Page<ActivityResponse> getActivitiesNear(Double latitude, Double longitude, Double radiusKm, Pageable pageable) {
-        // Basic bounding box approach for now.
-        // Radius in degrees (approximate, as 1 degree lat/lon is not constant km)
-        double latDegrees = radiusKm / 111.0; // Approx 111 km per degree latitude
-        double lonDegrees = radiusKm / (111.0 * Math.cos(Math.toRadians(latitude))); // Adjust for longitude
-
-        List<CulturalActivity> activitiesInBoundingBox = activityRepository.findByLocationBoundingBox(
-                latitude - latDegrees, latitude + latDegrees,
-                longitude - lonDegrees, longitude + lonDegrees
-        );
-
-        // Further filter by precise Haversine distance
-        List<ActivityResponse> filteredActivities = activitiesInBoundingBox.stream()
-                .filter(activity -> haversineDistance(latitude, longitude, activity.getLatitude(), activity.getLongitude()) <= radiusKm)
-                .map(this::mapToActivityResponse)
-                .collect(Collectors.toList());
-        
-        // Manual pagination for the in-memory filtered list
+        switch (geoConfig.getNearStrategy()) {
+            case DATABASE:
+                return getActivitiesNearFromDatabase(latitude, longitude, radiusKm, pageable);
+            case GEOHASH:
+                return toDistancePage(findMatchesByGeohash(latitude, longitude, radiusKm), pageable);
+            default:
+                // Ids and distances come from the in-memory spatial index, already ordered by distance
+                return toDistancePage(spatialIndexService.findWithinRadius(latitude, longitude, radiusKm), pageable);
+        }
+    }
+
+    // Candidates from the geohash ranges covering the search box, then the exact distance check
+    private List<SpatialIndexService.Match> findMatchesByGeohash(double latitude, double longitude, double radiusKm) {
+        if (nearQueryCache.accepts(radiusKm)) {
+            // Candidates of the snapped cell and radius bucket, shared by nearby GPS fixes
+            return nearQueryCache.findWithinRadius(latitude, longitude, radiusKm, this::findLocationsByGeohash);
+        }
+        List<SpatialIndexService.Match> matches = new ArrayList<>();
+        for (ActivityLocation candidate : findLocationsByGeohash(latitude, longitude, radiusKm)) {
+            double distance = GeoUtils.haversineKm(latitude, longitude, candidate.getLatitude(), candidate.getLongitude());
+            if (distance <= radiusKm) {
+                matches.add(new SpatialIndexService.Match(candidate.getId(), distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(SpatialIndexService.Match::getDistanceKm)
+                .thenComparingLong(SpatialIndexService.Match::getId));
+        return matches;
+    }
+
+    // Every activity in the geohash ranges covering the search box of the circle
+    private List<ActivityLocation> findLocationsByGeohash(double latitude, double longitude, double radiusKm) {
+        double latDelta = GeoUtils.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtils.longitudeDelta(latitude, radiusKm);
+        List<Geohash.Range> ranges = Geohash.coveringRanges(
+                latitude - latDelta, latitude + latDelta, longitude - lonDelta, longitude + lonDelta);
+
+        List<ActivityLocation> candidates = new ArrayList<>();
+        for (Geohash.Range range : ranges) {
+            candidates.addAll(range.getTo() == null
+                    ? activityRepository.findLocationsByGeohashFrom(range.getFrom())
+                    : activityRepository.findLocationsByGeohashRange(range.getFrom(), range.getTo()));
+        }
+        return candidates;
+    }
+
+    /**
+     * The k activities closest to the point, closest first, optionally restricted to a
+     * category and a [from, to] date window. Always answered by the in-memory spatial
+     * index, whatever the near strategy, since it needs no radius.
+     */
+    public List<ActivityResponse> getNearestActivities(Double latitude, Double longitude, int k,
+                                                       String category, LocalDateTime from, LocalDateTime to) {
+        if (k < 1 || k > geoConfig.getNearestMaxK()) {
+            throw new IllegalArgumentException("k must be between 1 and " + geoConfig.getNearestMaxK() + ".");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to.");
+        }
+        return hydrate(spatialIndexService.findNearest(latitude, longitude, k, category, from, to));
+    }
+
+    // Pages a distance-ordered match list and hydrates only the activities on the requested page
+    private Page<ActivityResponse> toDistancePage(List<SpatialIndexService.Match> matches, Pageable pageable) {
         int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), filteredActivities.size());
+        if (start >= matches.size()) {
+            return new PageImpl<>(List.of(), pageable, matches.size());
+        }
+        int end = Math.min(start + pageable.getPageSize(), matches.size());
+
+        // Only the requested page is loaded from the database
+        List<ActivityResponse> pageContent = hydrate(matches.subList(start, end));
+        return new PageImpl<>(pageContent, pageable, matches.size());
+    }
 
-        if (start > filteredActivities.size()) {
-            return new PageImpl<>(List.of(), pageable, filteredActivities.size());
+    // Loads the matched activities in one query, keeping the match order and attaching distances
+    private List<ActivityResponse> hydrate(List<SpatialIndexService.Match> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
         }
-        
-        List<ActivityResponse> pageContent = filteredActivities.subList(start, end);
-        return new PageImpl<>(pageContent, pageable, filteredActivities.size());
+        List<Long> ids = matches.stream()
+                .map(SpatialIndexService.Match::getId)
+                .collect(Collectors.toList());
+        Map<Long, ActivityResponse> activitiesById = activityRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ActivityResponse::getId, Function.identity()));
+
+        return matches.stream()
+                .filter(match -> activitiesById.containsKey(match.getId())) // Deleted between the index lookup and the load
+                .map(match -> {
+                    ActivityResponse response = activitiesById.get(match.getId());
+                    response.setDistanceKm(match.getDistanceKm());
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Page<ActivityResponse> getActivitiesNearFromDatabase(Double latitude, Double longitude, Double radiusKm, Pageable pageable) {
+        double latDelta = GeoUtils.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtils.longitudeDelta(latitude, radiusKm);
+        Page<NearbyActivityView> rows = activityRepository.findNearby(
+                latitude, longitude, radiusKm,
+                latitude - latDelta, latitude + latDelta,
+                longitude - lonDelta, longitude + lonDelta,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        return rows.map(this::mapToActivityResponse);
     }
 
     private ActivityResponse mapToActivityResponse(CulturalActivity activity) {
+        return mapToActivityResponse(activity, activity.getProducer() != null ? activity.getProducer().getUsername() : null);
+    }
+
+    // With the producer username given, so an uninitialized producer reference is not loaded
+    private ActivityResponse mapToActivityResponse(CulturalActivity activity, String producerUsername) {
         ActivityResponse response = new ActivityResponse();
         response.setId(activity.getId());
         response.setName(activity.getName());
@@ -132,34 +434,26 @@ public class ActivityService {
         response.setLatitude(activity.getLatitude());
         response.setLongitude(activity.getLongitude());
         response.setCategory(activity.getCategory());
-        if (activity.getProducer() != null) {
-            response.setProducerUsername(activity.getProducer().getUsername());
-        }
+        response.setNeighbourhoodId(activity.getNeighbourhoodId());
+        response.setVersion(activity.getVersion());
+        response.setUpdatedAt(activity.getUpdatedAt());
+        response.setProducerUsername(producerUsername);
         return response;
     }
 
-    // Haversine distance calculation
-    private static final double EARTH_RADIUS_KM = 6371.0;
-
-    private double haversineDistance(Double userLat, Double userLon, Double activityLat, Double activityLon) {
-        if (userLat == null || userLon == null || activityLat == null || activityLon == null) {
-            return Double.MAX_VALUE; // Cannot calculate distance if any coordinate is missing
-        }
-        
-        double lat1 = userLat;
-        double lon1 = userLon;
-        double lat2 = activityLat;
-        double lon2 = activityLon;
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-
-        double radLat1 = Math.toRadians(lat1);
-        double radLat2 = Math.toRadians(lat2);
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(radLat1) * Math.cos(radLat2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return EARTH_RADIUS_KM * c;
+    private ActivityResponse mapToActivityResponse(NearbyActivityView row) {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(row.getId());
+        response.setName(row.getName());
+        response.setDescription(row.getDescription());
+        response.setDateTime(row.getDateTime());
+        response.setLatitude(row.getLatitude());
+        response.setLongitude(row.getLongitude());
+        response.setCategory(row.getCategory());
+        response.setNeighbourhoodId(row.getNeighbourhoodId());
+        response.setVersion(row.getVersion());
+        response.setProducerUsername(row.getProducerUsername());
+        response.setDistanceKm(row.getDistanceKm());
+        return response;
     }
 }
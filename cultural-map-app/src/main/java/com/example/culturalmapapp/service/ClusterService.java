@@ -0,0 +1,147 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ClusterResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.ClusterHierarchy;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side map clustering. Keeps a per-zoom cluster hierarchy of all activity
+ * coordinates in memory, updated incrementally from activity write events and rebuilt
+ * from the database on every ActivityResyncEvent.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private GeoConfig geoConfig;
+
+    private ClusterHierarchy hierarchy;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One rebuild at a time; writes made while it reads the table, by id ({latitude, longitude}, null when removed),
+    // replayed onto the new hierarchy
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private Map<Long, double[]> changedDuringLoad;
+
+    /**
+     * Rebuilds the hierarchy from the database. The new one is filled without holding the lock,
+     * so queries and writes go on during the scan; writes are recorded and replayed onto it just
+     * before it replaces the current one.
+     */
+    @PostConstruct
+    public void load() {
+        int maxZoom = geoConfig.getClusterMaxZoom();
+        if (maxZoom < 0 || maxZoom > ClusterHierarchy.MAX_ZOOM) {
+            // Deeper levels would overflow the cell index, so refuse to start rather than cluster wrongly
+            throw new IllegalStateException("app.geo.cluster-max-zoom must be between 0 and " + ClusterHierarchy.MAX_ZOOM + ", was " + maxZoom);
+        }
+        long start = System.currentTimeMillis();
+        loadLock.lock();
+        try {
+            setChangedDuringLoad(new HashMap<>());
+            ClusterHierarchy loaded = new ClusterHierarchy(maxZoom);
+            try {
+                activityRepository.forEachLocation(LOAD_BATCH_SIZE,
+                        location -> loaded.insert(location.getId(), location.getLatitude(), location.getLongitude()));
+            } catch (RuntimeException e) {
+                setChangedDuringLoad(null); // The current hierarchy stays, already up to date with those writes
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad.forEach((id, position) -> {
+                    if (position == null) {
+                        loaded.remove(id);
+                    } else {
+                        loaded.insert(id, position[0], position[1]);
+                    }
+                });
+                changedDuringLoad = null;
+                hierarchy = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Cluster hierarchy loaded with {} activities in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public List<ClusterResponse> getClusters(double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new IllegalArgumentException("Bounding box must be minLon,minLat,maxLon,maxLat with min <= max.");
+        }
+        if (zoom < 0) {
+            throw new IllegalArgumentException("Zoom must not be negative.");
+        }
+        List<ClusterHierarchy.Cluster> clusters;
+        lock.readLock().lock();
+        try {
+            clusters = hierarchy.query(minLat, maxLat, minLon, maxLon, zoom);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clusters.stream()
+                .map(c -> new ClusterResponse(c.getLatitude(), c.getLongitude(), c.getCount(), c.getActivityId()))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        CulturalActivity activity = event.getActivity();
+        lock.writeLock().lock();
+        try {
+            double[] position = event.getType() == ActivityChangedEvent.Type.DELETED
+                    || activity.getLatitude() == null || activity.getLongitude() == null
+                    ? null
+                    : new double[] {activity.getLatitude(), activity.getLongitude()};
+            if (position == null) {
+                hierarchy.remove(event.getActivityId());
+            } else {
+                hierarchy.insert(event.getActivityId(), position[0], position[1]); // Moves it on update
+            }
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(event.getActivityId(), position);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        load();
+    }
+
+    private void setChangedDuringLoad(Map<Long, double[]> changes) {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
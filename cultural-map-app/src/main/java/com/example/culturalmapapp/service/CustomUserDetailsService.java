@@ -1,14 +1,19 @@
 package com.example.culturalmapapp.service;
 
+import com.example.culturalmapapp.config.CacheConfig;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -17,14 +22,17 @@ import java.util.Arrays;
 
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UserRepository userRepository; // Hash upgrades only
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userLookupService.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         // Spring Security expects roles to be in the format "ROLE_USER", "ROLE_ADMIN" etc.
@@ -43,9 +51,25 @@ public class CustomUserDetailsService implements UserDetailsService {
                   .collect(Collectors.toList());
 
 
-        return new org.springframework.security.core.userdetails.User(
+        // Carries the id so the issued JWT can include it
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
                 authorities);
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash no
+     * longer matches the configured encoding (older BCrypt cost, or no {bcrypt} prefix).
+     * newPassword is the presented password hashed with the current settings.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.username")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        Long id = user instanceof AuthenticatedUser authenticatedUser ? authenticatedUser.getId() : null;
+        return new AuthenticatedUser(id, user.getUsername(), newPassword, user.getAuthorities());
+    }
 }
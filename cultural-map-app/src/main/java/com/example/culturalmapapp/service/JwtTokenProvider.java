@@ -1,22 +1,41 @@
 package com.example.culturalmapapp.service;
 
+import com.example.culturalmapapp.config.CacheConfig;
 import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,8 +43,72 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    // Database id of the user, so requests can check ownership without looking the user up
+    public static final String USER_ID_CLAIM = "uid";
+
     private final JwtConfig jwtConfig;
     private final SecretKey key;
+    // Thread-safe and immutable; building one per call redid the key setup on every request
+    private final JwtParser parser;
+
+    // Principal of each token already verified, by SHA-256 of the token, kept until the token expires
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    // One immutable authority list per distinct roles claim; only tokens we signed get here, so it stays small
+    private final Map<String, List<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private CacheManager cacheManager;
+
+    // A token whose signature and expiry have been checked; revocation is up to the caller
+    public static final class VerifiedToken {
+        private final AuthenticatedUser principal;
+        private final String tokenId;
+        private final long expiresAtMillis;
+
+        VerifiedToken(AuthenticatedUser principal, String tokenId, long expiresAtMillis) {
+            this.principal = principal;
+            this.tokenId = tokenId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public AuthenticatedUser getPrincipal() {
+            return principal;
+        }
+
+        // The jti claim; null in tokens issued before it was added
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public Instant getExpiresAt() {
+            return Instant.ofEpochMilli(expiresAtMillis);
+        }
+    }
+
+    // A freshly signed access token with the claims callers need to track it
+    public static final class IssuedToken {
+        private final String value;
+        private final String tokenId;
+        private final Instant expiresAt;
+
+        IssuedToken(String value, String tokenId, Instant expiresAt) {
+            this.value = value;
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
 
     @Autowired
     public JwtTokenProvider(JwtConfig jwtConfig) {
@@ -37,59 +120,111 @@ public class JwtTokenProvider {
             // Pad or throw error if necessary, for now, Keys.hmacShaKeyFor will handle it or use a stronger key
         }
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getVerifiedCacheMaxSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMillis - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return expireAfterCreate(digest, token, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration; // Reads never extend a token's life
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
-    public String generateToken(Authentication authentication) {
-        String username = authentication.getName();
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtConfig.getExpirationMs());
+    @PostConstruct
+    public void registerCache() {
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Cache<Object, Object> nativeCache = (Cache) verifiedTokens;
+            caffeineCacheManager.registerCustomCache(CacheConfig.VERIFIED_TOKENS, nativeCache);
+        }
+    }
 
+    public String generateToken(Authentication authentication) {
+        Long userId = authentication.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : null;
         String roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
+        return issueToken(authentication.getName(), userId, roles).getValue();
+    }
 
-        return Jwts.builder()
+    // Every token gets a random id (jti), the key under which it can be revoked before it expires
+    public IssuedToken issueToken(String username, Long userId, String roles) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtConfig.getExpirationMs());
+        String tokenId = UUID.randomUUID().toString();
+
+        JwtBuilder builder = Jwts.builder()
+                .id(tokenId)
                 .subject(username)
                 .claim("roles", roles)
-                .issuedAt(new Date())
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
+                .issuedAt(now)
+                .expiration(expiryDate);
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId);
+        }
+        return new IssuedToken(builder.signWith(key).compact(), tokenId, expiryDate.toInstant());
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    /**
+     * The principal a token stands for, or null when the token is invalid or expired. The
+     * signature is checked once per token; later requests with it hash the token and
+     * reuse the principal built from the first one. Does not check revocation.
+     */
+    public AuthenticatedUser authenticate(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.principal : null;
     }
-    
-    public Claims getClaimsFromJWT(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+
+    // Same as authenticate(), keeping the token id and expiry for the revocation check
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+        if (verified != null) {
+            return verified;
+        }
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("Rejected JWT: {}", ex.getMessage());
+            return null;
+        }
+        Long userId = claims.get(USER_ID_CLAIM, Long.class); // Absent in older tokens
+        AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), "",
+                authorities(claims.get("roles", String.class)));
+        verified = new VerifiedToken(principal, claims.getId(), claims.getExpiration().getTime());
+        verifiedTokens.put(digest, verified);
+        return verified;
     }
 
+    private List<GrantedAuthority> authorities(String roles) {
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        return authoritiesByRoles.computeIfAbsent(roles, key -> Arrays.stream(key.split(","))
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList());
+    }
 
-    public boolean validateToken(String authToken) {
+    // SHA-256 hex of a token, so caches and tables never hold usable credentials
+    static String digest(String token) {
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(authToken);
-            return true;
-        } catch (SignatureException ex) {
-            logger.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            logger.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            logger.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            logger.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            logger.error("JWT claims string is empty.");
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every JVM", e);
         }
-        return false;
     }
 }
@@ -0,0 +1,203 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.util.GeoUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Candidate cache for database-backed near queries. GPS fixes of the same place never
+ * repeat exactly, so the query point is snapped to a grid cell and the radius rounded up
+ * to a bucket. Each (cell, bucket) caches every activity within bucket + cell half-diagonal
+ * of the cell centre, which is a superset of the answer for any point of the cell and any
+ * radius up to the bucket. The exact distance filter then runs on those candidates.
+ */
+@Service
+public class NearQueryCache {
+
+    // Activities within radiusKm of the point (a superset is fine, it is filtered again)
+    @FunctionalInterface
+    public interface CandidateLoader {
+        List<ActivityLocation> load(double latitude, double longitude, double radiusKm);
+    }
+
+    @Autowired
+    private GeoConfig geoConfig;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache<CellKey, Candidates> cells;
+    // Keys whose load may be in flight, so a write can wait for and drop them (see evictAround)
+    private final Map<CellKey, Integer> loading = new ConcurrentHashMap<>();
+
+    private static final class CellKey {
+        final int row, col, bucket;
+
+        CellKey(int row, int col, int bucket) {
+            this.row = row;
+            this.col = col;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CellKey other && row == other.row && col == other.col && bucket == other.bucket;
+        }
+
+        @Override
+        public int hashCode() {
+            return (row * 31 + col) * 31 + bucket;
+        }
+    }
+
+    // Struct-of-arrays candidate list of one cell and bucket
+    private static final class Candidates {
+        final long[] ids;
+        final double[] latitudes, longitudes;
+
+        Candidates(List<ActivityLocation> locations) {
+            ids = new long[locations.size()];
+            latitudes = new double[locations.size()];
+            longitudes = new double[locations.size()];
+            for (int i = 0; i < locations.size(); i++) {
+                ids[i] = locations.get(i).getId();
+                latitudes[i] = locations.get(i).getLatitude();
+                longitudes[i] = locations.get(i).getLongitude();
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        cells = Caffeine.newBuilder()
+                .maximumWeight(geoConfig.getNearCacheMaxCandidates())
+                .weigher((CellKey key, Candidates candidates) -> candidates.ids.length + 1)
+                .expireAfterWrite(geoConfig.getNearCacheTtl())
+                .recordStats()
+                .build();
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Cache<Object, Object> nativeCache = (Cache) cells;
+            caffeineCacheManager.registerCustomCache(CacheConfig.NEAR_CELLS, nativeCache);
+        }
+    }
+
+    // Large radii would cache most of the table per cell; those queries go straight to the loader
+    public boolean accepts(double radiusKm) {
+        return geoConfig.isNearCacheEnabled() && radiusKm > 0 && radiusKm <= geoConfig.getNearCacheMaxRadiusKm();
+    }
+
+    // Activities within radiusKm of the point, closest first (ties broken by id)
+    public List<SpatialIndexService.Match> findWithinRadius(double latitude, double longitude, double radiusKm,
+                                                           CandidateLoader loader) {
+        double cellDegrees = geoConfig.getNearCacheCellDegrees();
+        CellKey key = new CellKey((int) Math.floor(latitude / cellDegrees), (int) Math.floor(longitude / cellDegrees),
+                (int) Math.ceil(radiusKm / geoConfig.getNearCacheRadiusStepKm()));
+
+        Candidates candidates;
+        loading.merge(key, 1, Integer::sum);
+        try {
+            candidates = cells.get(key, k -> {
+                double[] centre = centre(k);
+                double coverKm = coverKm(k);
+                List<ActivityLocation> within = new ArrayList<>();
+                for (ActivityLocation location : loader.load(centre[0], centre[1], coverKm)) {
+                    if (location.getLatitude() != null && location.getLongitude() != null
+                            && GeoUtils.haversineKm(centre[0], centre[1], location.getLatitude(), location.getLongitude()) <= coverKm) {
+                        within.add(location);
+                    }
+                }
+                return new Candidates(within);
+            });
+        } finally {
+            // Only after get() returns is the entry visible to the keySet scan in evictAround
+            loading.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+        }
+
+        List<SpatialIndexService.Match> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.ids.length; i++) {
+            double distance = GeoUtils.haversineKm(latitude, longitude, candidates.latitudes[i], candidates.longitudes[i]);
+            if (distance <= radiusKm) {
+                matches.add(new SpatialIndexService.Match(candidates.ids[i], distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(SpatialIndexService.Match::getDistanceKm)
+                .thenComparingLong(SpatialIndexService.Match::getId));
+        return matches;
+    }
+
+    public long size() {
+        return cells.estimatedSize();
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        evictAround(event.getPreviousLatitude(), event.getPreviousLongitude());
+        CulturalActivity activity = event.getActivity();
+        if (event.getType() != ActivityChangedEvent.Type.DELETED && activity != null) {
+            evictAround(activity.getLatitude(), activity.getLongitude());
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        // Same ordering as evictAround: in-flight loads first, then whatever is stored
+        for (CellKey key : loading.keySet()) {
+            cells.invalidate(key);
+        }
+        cells.invalidateAll();
+    }
+
+    // Drops every cell whose candidate area contains the point, i.e. the cells the point can appear in
+    private void evictAround(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        // In-flight loads first: invalidate() waits for the load and removes what it stored. A load
+        // that finished before this scan is already in the map and is caught by the keySet scan below.
+        for (CellKey key : loading.keySet()) {
+            if (covers(key, latitude, longitude)) {
+                cells.invalidate(key);
+            }
+        }
+        cells.asMap().keySet().removeIf(key -> covers(key, latitude, longitude));
+    }
+
+    private boolean covers(CellKey key, double latitude, double longitude) {
+        double[] centre = centre(key);
+        return GeoUtils.haversineKm(centre[0], centre[1], latitude, longitude) <= coverKm(key);
+    }
+
+    private double[] centre(CellKey key) {
+        double cellDegrees = geoConfig.getNearCacheCellDegrees();
+        return new double[] {(key.row + 0.5) * cellDegrees, (key.col + 0.5) * cellDegrees};
+    }
+
+    // Bucket radius plus the distance from the centre to the farthest corner of the cell
+    private double coverKm(CellKey key) {
+        double cellDegrees = geoConfig.getNearCacheCellDegrees();
+        double[] centre = centre(key);
+        double south = key.row * cellDegrees, north = south + cellDegrees, west = key.col * cellDegrees;
+        double halfDiagonal = Math.max(GeoUtils.haversineKm(centre[0], centre[1], south, west),
+                GeoUtils.haversineKm(centre[0], centre[1], north, west));
+        return key.bucket * geoConfig.getNearCacheRadiusStepKm() + halfDiagonal;
+    }
+}
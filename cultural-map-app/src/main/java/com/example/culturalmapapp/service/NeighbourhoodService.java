@@ -0,0 +1,119 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.NeighbourhoodConfig;
+import com.example.culturalmapapp.util.PolygonIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Neighbourhood (bairro) lookup. Boundaries are read once from the configured GeoJSON
+ * file into a PolygonIndex; activities are tagged with the id of the neighbourhood that
+ * contains them when they are written, so queries by neighbourhood need no geometry.
+ */
+@Service
+public class NeighbourhoodService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NeighbourhoodService.class);
+
+    @Autowired
+    private NeighbourhoodConfig neighbourhoodConfig;
+
+    private volatile PolygonIndex index = new PolygonIndex(List.of());
+
+    @PostConstruct
+    public void load() {
+        String location = neighbourhoodConfig.getGeojsonPath();
+        if (location == null || location.isBlank()) {
+            logger.info("No neighbourhood boundaries configured (app.neighbourhoods.geojson-path); neighbourhood tagging is disabled");
+            return;
+        }
+        Path path = Paths.get(location);
+        if (!Files.isReadable(path)) {
+            logger.warn("Neighbourhood boundary file {} not found; neighbourhood tagging is disabled", path);
+            return;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            load(in);
+            logger.info("Loaded {} neighbourhood boundaries from {}", index.size(), path);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Could not read neighbourhood boundaries from {}; neighbourhood tagging is disabled", path, e);
+        }
+    }
+
+    // Replaces the index with the features of a GeoJSON FeatureCollection
+    public void load(InputStream geojson) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(geojson);
+        JsonNode features = root.path("features");
+        if (!features.isArray()) {
+            throw new IllegalArgumentException("GeoJSON must be a FeatureCollection.");
+        }
+        List<PolygonIndex.Region> regions = new ArrayList<>();
+        for (JsonNode feature : features) {
+            JsonNode properties = feature.path("properties");
+            String id = properties.path(neighbourhoodConfig.getIdProperty()).asText(null);
+            if (id == null) {
+                continue;
+            }
+            String name = properties.path(neighbourhoodConfig.getNameProperty()).asText(id);
+            List<double[][]> rings = readRings(feature.path("geometry"));
+            if (!rings.isEmpty()) {
+                regions.add(new PolygonIndex.Region(id, name, rings));
+            }
+        }
+        index = new PolygonIndex(regions);
+    }
+
+    // Id of the neighbourhood containing the point; null without coordinates or outside every boundary
+    public String locate(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return index.locate(latitude, longitude);
+    }
+
+    public boolean isEnabled() {
+        return index.size() > 0;
+    }
+
+    public boolean exists(String id) {
+        return index.getRegions().stream().anyMatch(region -> region.getId().equals(id));
+    }
+
+    // All rings of a Polygon or MultiPolygon; holes are handled by the even-odd rule
+    private static List<double[][]> readRings(JsonNode geometry) {
+        List<double[][]> rings = new ArrayList<>();
+        String type = geometry.path("type").asText();
+        JsonNode coordinates = geometry.path("coordinates");
+        if ("Polygon".equals(type)) {
+            addPolygon(rings, coordinates);
+        } else if ("MultiPolygon".equals(type)) {
+            for (JsonNode polygon : coordinates) {
+                addPolygon(rings, polygon);
+            }
+        }
+        return rings;
+    }
+
+    private static void addPolygon(List<double[][]> rings, JsonNode polygon) {
+        for (JsonNode ring : polygon) {
+            double[][] vertices = new double[ring.size()][];
+            for (int i = 0; i < ring.size(); i++) {
+                vertices[i] = new double[] {ring.get(i).get(0).asDouble(), ring.get(i).get(1).asDouble()};
+            }
+            rings.add(vertices);
+        }
+    }
+}
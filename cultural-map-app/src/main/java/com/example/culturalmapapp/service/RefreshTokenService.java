@@ -0,0 +1,139 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.dto.LoginResponse;
+import com.example.culturalmapapp.exception.InvalidRefreshTokenException;
+import com.example.culturalmapapp.model.RefreshToken;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.RefreshTokenRepository;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues access/refresh token pairs and rotates them. A refresh token can be exchanged
+ * once; the new pair belongs to the same family. If a token that was already exchanged
+ * comes back, one of the two holders is not the user, so the whole family is revoked,
+ * together with the access tokens issued with it.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    // First pair after a successful login; starts a new family
+    @Transactional
+    public LoginResponse issueTokens(Authentication authentication) {
+        AuthenticatedUser principal = AuthenticatedUser.from(authentication);
+        User user = principal.getId() != null
+                ? userRepository.getReferenceById(principal.getId()) // The login has just loaded it
+                : userRepository.findByUsername(principal.getUsername())
+                        .orElseThrow(() -> new IllegalStateException("Authenticated user not found: " + principal.getUsername()));
+        String roles = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        return issue(user, principal.getUsername(), principal.getId(), roles, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. Roles are read from the user again, so a
+     * role change reaches the client at the latest with its next refresh.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public LoginResponse refresh(String rawRefreshToken) {
+        Instant now = Instant.now();
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest(rawRefreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        if (token.isRevoked() || !token.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired or revoked");
+        }
+        if (token.getUsedAt() != null) {
+            logger.warn("Refresh token of family {} used twice; revoking the family", token.getFamilyId());
+            revokeFamily(token.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Refresh token already used");
+        }
+        token.setUsedAt(now);
+        User user = token.getUser();
+        return issue(user, user.getUsername(), user.getId(), user.getRole(), token.getFamilyId());
+    }
+
+    // Logout: the access token stops working now, the refresh token family with it
+    @Transactional
+    public void logout(String accessToken, String rawRefreshToken) {
+        if (accessToken != null) {
+            JwtTokenProvider.VerifiedToken verified = jwtTokenProvider.verify(accessToken);
+            if (verified != null) {
+                tokenRevocationService.revoke(verified.getTokenId(), verified.getExpiresAt());
+            }
+        }
+        if (rawRefreshToken != null) {
+            refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest(rawRefreshToken))
+                    .ifPresent(token -> revokeFamily(token.getFamilyId(), Instant.now()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        logger.debug("Purged {} expired refresh tokens", purged);
+    }
+
+    private LoginResponse issue(User user, String username, Long userId, String roles, String familyId) {
+        JwtTokenProvider.IssuedToken accessToken = jwtTokenProvider.issueToken(username, userId, roles);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawRefreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(JwtTokenProvider.digest(rawRefreshToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plusMillis(jwtConfig.getRefreshExpirationMs()));
+        refreshToken.setAccessTokenId(accessToken.getTokenId());
+        refreshToken.setAccessTokenExpiresAt(accessToken.getExpiresAt());
+        refreshTokenRepository.save(refreshToken);
+
+        return new LoginResponse(accessToken.getValue(), rawRefreshToken, jwtConfig.getExpirationMs() / 1000);
+    }
+
+    private void revokeFamily(String familyId, Instant now) {
+        for (RefreshToken token : refreshTokenRepository.findByFamilyId(familyId)) {
+            token.setRevoked(true);
+            if (token.getAccessTokenExpiresAt() != null && token.getAccessTokenExpiresAt().isAfter(now)) {
+                tokenRevocationService.revoke(token.getAccessTokenId(), token.getAccessTokenExpiresAt());
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.QuadTree;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process spatial index of activity coordinates. Near queries resolve ids here and
+ * only hydrate the requested page from the database.
+ */
+@Service
+public class SpatialIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpatialIndexService.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    private QuadTree tree = new QuadTree();
+    // Last indexed position per id, needed to find the leaf again on update/delete
+    private Map<Long, double[]> positions = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // One rebuild at a time; writes made while it reads the table are recorded here and replayed onto the new tree
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private Map<Long, Location> changedDuringLoad;
+
+    @Data
+    @AllArgsConstructor
+    public static class Match {
+        private long id;
+        private double distanceKm;
+    }
+
+    // Coordinates written while a rebuild runs; null in changedDuringLoad means deleted
+    @AllArgsConstructor
+    private static class Location {
+        private final Double latitude;
+        private final Double longitude;
+        private final String category;
+        private final LocalDateTime dateTime;
+    }
+
+    /**
+     * Rebuilds the index from the database. The new tree is filled without holding the lock,
+     * so searches keep answering from the old one during the scan, and is swapped in at the
+     * end together with any writes made in the meantime.
+     */
+    @PostConstruct
+    public void load() {
+        long start = System.currentTimeMillis();
+        loadLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            QuadTree loadedTree = new QuadTree();
+            Map<Long, double[]> loadedPositions = new HashMap<>();
+            try {
+                activityRepository.forEachLocation(LOAD_BATCH_SIZE,
+                        location -> insert(loadedTree, loadedPositions, location.getId(), location.getLatitude(),
+                                location.getLongitude(), location.getCategory(), location.getDateTime()));
+            } catch (RuntimeException e) {
+                stopRecording(); // The old tree stays, already up to date with those writes
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad.forEach((id, location) -> {
+                    removeInternal(loadedTree, loadedPositions, id);
+                    if (location != null) {
+                        insert(loadedTree, loadedPositions, id, location.latitude, location.longitude,
+                                location.category, location.dateTime);
+                    }
+                });
+                changedDuringLoad = null;
+                tree = loadedTree;
+                positions = loadedPositions;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+        logger.info("Spatial index loaded with {} activities in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    public void put(Long id, Double latitude, Double longitude) {
+        put(id, latitude, longitude, null, null);
+    }
+
+    // Adds the activity or moves it to its new coordinates; activities without coordinates are dropped
+    public void put(Long id, Double latitude, Double longitude, String category, LocalDateTime dateTime) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(tree, positions, id);
+            if (latitude != null && longitude != null) {
+                insert(tree, positions, id, latitude, longitude, category, dateTime);
+            }
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, latitude != null && longitude != null
+                        ? new Location(latitude, longitude, category, dateTime) : null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(tree, positions, id);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // All indexed activities within radiusKm of the point, closest first (ties broken by id)
+    public List<Match> findWithinRadius(double latitude, double longitude, double radiusKm) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Distances come from the batch kernel over each leaf's precomputed radians
+            tree.withinRadius(latitude, longitude, radiusKm, (id, distance) -> matches.add(new Match(id, distance)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Comparator.comparingDouble(Match::getDistanceKm).thenComparingLong(Match::getId));
+        return matches;
+    }
+
+    /**
+     * The k indexed activities closest to the point, closest first. Category and the
+     * [from, to] date window (each optional) are checked inside the best-first search,
+     * so filtered-out activities never take a slot among the k results.
+     */
+    public List<Match> findNearest(double latitude, double longitude, int k,
+                                   String category, LocalDateTime from, LocalDateTime to) {
+        QuadTree.PointFilter filter = null;
+        if (category != null || from != null || to != null) {
+            long fromTime = from == null ? Long.MIN_VALUE : toTime(from);
+            long toTime = to == null ? Long.MAX_VALUE : toTime(to);
+            boolean dated = from != null || to != null;
+            filter = (pointCategory, time) -> (category == null || category.equals(pointCategory))
+                    && (!dated || (time != QuadTree.NO_TIME && time >= fromTime && time <= toTime));
+        }
+
+        List<Match> matches = new ArrayList<>(k);
+        lock.readLock().lock();
+        try {
+            tree.nearest(latitude, longitude, k, filter, (id, distance) -> matches.add(new Match(id, distance)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        if (event.getType() == ActivityChangedEvent.Type.DELETED) {
+            remove(event.getActivityId());
+        } else {
+            CulturalActivity activity = event.getActivity();
+            put(activity.getId(), activity.getLatitude(), activity.getLongitude(), activity.getCategory(), activity.getDateTime());
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        load();
+    }
+
+    private void stopRecording() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void insert(QuadTree tree, Map<Long, double[]> positions,
+                               Long id, Double latitude, Double longitude, String category, LocalDateTime dateTime) {
+        tree.insert(id, latitude, longitude, category, dateTime == null ? QuadTree.NO_TIME : toTime(dateTime));
+        positions.put(id, new double[] {latitude, longitude});
+    }
+
+    // Dates are stored as plain seconds; only their order matters for the filter
+    private static long toTime(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void removeInternal(QuadTree tree, Map<Long, double[]> positions, Long id) {
+        double[] previous = positions.remove(id);
+        if (previous != null) {
+            tree.remove(id, previous[0], previous[1]);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.SearchConfig;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.InvertedIndex;
+import com.example.culturalmapapp.util.PortugueseAnalyzer;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process BM25 index over activity names, categories and descriptions, for text search
+ * that does not touch the database until the results are hydrated. Built at startup and
+ * updated from activity change events. The index is immutable: a write builds the next
+ * version (sharing almost everything with the current one) and publishes it through a
+ * volatile field, so searches never wait for writes or a reload and always see a complete
+ * version. Writes are serialized among themselves, but not with a reload's table scan.
+ */
+@Service
+public class TextIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextIndexService.class);
+
+    private static final int LOAD_BATCH_SIZE = 2_000;
+
+    // Each occurrence counts this many times, so a word in the name outweighs the same word in the description
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private SearchConfig searchConfig;
+
+    private volatile InvertedIndex index = InvertedIndex.empty(Integer.MAX_VALUE);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // One rebuild at a time; writes made while it reads the table, by id (null when deleted), replayed onto the new version
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private Map<Long, InvertedIndex.Document> changedDuringLoad;
+
+    @Data
+    @AllArgsConstructor
+    public static class Match {
+        private long id;
+        private double score;
+    }
+
+    /**
+     * Rebuilds the index from the database. The new version is built without holding the write
+     * lock, so writes go on during the scan; they are recorded and applied to the new version
+     * just before it replaces the current one.
+     */
+    @PostConstruct
+    public void load() {
+        if (!searchConfig.isIndexEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        loadLock.lock();
+        try {
+            setChangedDuringLoad(new HashMap<>());
+            InvertedIndex loaded;
+            try {
+                InvertedIndex.Builder builder = new InvertedIndex.Builder(searchConfig.getIndexMergeThreshold());
+                activityRepository.forEachText(LOAD_BATCH_SIZE,
+                        text -> builder.add(text.getId(), document(text.getName(), text.getCategory(), text.getDescription())));
+                loaded = builder.build();
+            } catch (RuntimeException e) {
+                setChangedDuringLoad(null); // The current version stays, already up to date with those writes
+                throw e;
+            }
+            writeLock.lock();
+            try {
+                for (Map.Entry<Long, InvertedIndex.Document> change : changedDuringLoad.entrySet()) {
+                    loaded = change.getValue() == null ? loaded.without(change.getKey()) : loaded.with(change.getKey(), change.getValue());
+                }
+                changedDuringLoad = null;
+                index = loaded;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            loadLock.unlock();
+        }
+        logger.info("Text index loaded with {} activities ({} KB of postings) in {} ms",
+                index.size(), index.postingBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    public boolean isEnabled() {
+        return searchConfig.isIndexEnabled();
+    }
+
+    // Adds the activity or replaces its text
+    public void put(Long id, String name, String category, String description) {
+        InvertedIndex.Document document = document(name, category, description);
+        writeLock.lock();
+        try {
+            index = index.with(id, document);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, document);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            index = index.without(id);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.put(id, null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // The k activities ranked highest by BM25 for the query, best first; an activity needs any one of the words
+    public List<Match> search(String query, int k) {
+        List<Match> matches = new ArrayList<>(k);
+        index.search(PortugueseAnalyzer.terms(query), k, (id, score) -> matches.add(new Match(id, score)));
+        return matches;
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        if (!searchConfig.isIndexEnabled()) {
+            return;
+        }
+        if (event.getType() == ActivityChangedEvent.Type.DELETED) {
+            remove(event.getActivityId());
+        } else {
+            CulturalActivity activity = event.getActivity();
+            put(activity.getId(), activity.getName(), activity.getCategory(), activity.getDescription());
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        load();
+    }
+
+    private void setChangedDuringLoad(Map<Long, InvertedIndex.Document> changes) {
+        writeLock.lock();
+        try {
+            changedDuringLoad = changes;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static InvertedIndex.Document document(String name, String category, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, name, NAME_WEIGHT);
+        addTerms(frequencies, category, CATEGORY_WEIGHT);
+        addTerms(frequencies, description, DESCRIPTION_WEIGHT);
+        return new InvertedIndex.Document(frequencies);
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : PortugueseAnalyzer.terms(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.TileFeature;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.MvtEncoder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves activities as Mapbox Vector Tiles, at most tile-max-features per tile (the latest
+ * ones). Encoded tiles are kept in a cache bounded by their total size in bytes; a write
+ * only evicts the tiles, one per zoom level, that contain the old or new coordinates of
+ * the activity.
+ */
+@Service
+public class TileService {
+
+    public static final String MVT_MEDIA_TYPE = "application/vnd.mapbox-vector-tile";
+    public static final String LAYER_NAME = "activities";
+
+    // Deepest zoom tileKey() can pack (29 bits per tile coordinate)
+    private static final int MAX_ZOOM = 29;
+
+    // Rough per-entry bookkeeping cost, so empty tiles still count towards the bound
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private GeoConfig geoConfig;
+
+    private Cache<Long, byte[]> tiles;
+
+    @PostConstruct
+    public void init() {
+        if (geoConfig.getTileMaxZoom() < 0 || geoConfig.getTileMaxZoom() > MAX_ZOOM) {
+            throw new IllegalStateException("app.geo.tile-max-zoom must be between 0 and " + MAX_ZOOM + ", was " + geoConfig.getTileMaxZoom());
+        }
+        tiles = Caffeine.newBuilder()
+                .maximumWeight(geoConfig.getTileCacheMaxBytes())
+                .weigher((Long key, byte[] tile) -> tile.length + ENTRY_OVERHEAD_BYTES)
+                .build();
+    }
+
+    // Encoded tile; an empty array when the tile holds no activity
+    public byte[] getTile(int z, int x, int y) {
+        if (z < 0 || z > geoConfig.getTileMaxZoom()) {
+            throw new IllegalArgumentException("Zoom must be between 0 and " + geoConfig.getTileMaxZoom() + ".");
+        }
+        long tilesPerAxis = 1L << z;
+        if (x < 0 || y < 0 || x >= tilesPerAxis || y >= tilesPerAxis) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " does not exist.");
+        }
+        return tiles.get(tileKey(z, x, y), key -> render(z, x, y));
+    }
+
+    private byte[] render(int z, int x, int y) {
+        double[] bounds = MvtEncoder.tileBounds(z, x, y);
+        long tilesPerAxis = 1L << z;
+        // Tiles on the edge of the map also own everything beyond it, as MvtEncoder clamps those points onto them
+        double minLat = y == tilesPerAxis - 1 ? -Double.MAX_VALUE : bounds[0];
+        double maxLat = y == 0 ? Double.MAX_VALUE : bounds[1];
+        double maxLon = x == tilesPerAxis - 1 ? Double.MAX_VALUE : bounds[3];
+        MvtEncoder encoder = new MvtEncoder(LAYER_NAME, z, x, y);
+        // The query already leaves out points owned by a neighbour, so every one of the capped rows is drawn
+        List<TileFeature> features = activityRepository.findTileFeatures(minLat, maxLat, bounds[2], maxLon,
+                PageRequest.of(0, geoConfig.getTileMaxFeatures()));
+        for (TileFeature feature : features) {
+            // Rounding in tileBounds can still disagree with tileX/tileY right on an edge; keep such points out, since
+            // eviction only looks for a point in the tile those functions name
+            if (MvtEncoder.tileX(feature.getLongitude(), z) != x || MvtEncoder.tileY(feature.getLatitude(), z) != y) {
+                continue;
+            }
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("name", feature.getName());
+            properties.put("category", feature.getCategory());
+            encoder.addPoint(feature.getId(), feature.getLatitude(), feature.getLongitude(), properties);
+        }
+        return encoder.encode();
+    }
+
+    public long cachedBytes() {
+        tiles.cleanUp(); // Weights are applied by asynchronous maintenance; settle them first
+        return tiles.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    @EventListener
+    public void onActivityChanged(ActivityChangedEvent event) {
+        evictTilesAt(event.getPreviousLatitude(), event.getPreviousLongitude());
+        CulturalActivity activity = event.getActivity();
+        if (event.getType() != ActivityChangedEvent.Type.DELETED && activity != null) {
+            evictTilesAt(activity.getLatitude(), activity.getLongitude());
+        }
+    }
+
+    @EventListener
+    public void onResync(ActivityResyncEvent event) {
+        tiles.invalidateAll();
+    }
+
+    private void evictTilesAt(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        for (int z = 0; z <= geoConfig.getTileMaxZoom(); z++) {
+            tiles.invalidate(tileKey(z, MvtEncoder.tileX(longitude, z), MvtEncoder.tileY(latitude, z)));
+        }
+    }
+
+    // z fits in 6 bits and x, y in 29 bits each for every zoom up to 29
+    private static long tileKey(int z, int x, int y) {
+        return ((long) z << 58) | ((long) x << 29) | y;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.model.RevokedToken;
+import com.example.culturalmapapp.repository.RevokedTokenRepository;
+import com.example.culturalmapapp.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Revoked access tokens, by token id (jti). The revoked_tokens table is the authoritative
+ * list; every authenticated request first asks an in-memory Bloom filter over it, which
+ * has no false negatives, so only tokens that might be revoked cost a database lookup.
+ *
+ * Bloom filters cannot forget, so entries age out by generation: ids go into the current
+ * filter and lookups check it and the previous one. Every access-token lifetime the
+ * previous filter is dropped and the current one takes its place. An id therefore stays
+ * at least one full lifetime, by which time the token it stands for has expired.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Rows are stamped with the revoking node's clock; re-reading a margin covers skew between nodes
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtConfig jwtConfig;
+
+    private volatile Generations generations;
+    private volatile Instant syncedUntil;
+
+    private static final class Generations {
+        final BloomFilter current;
+        final BloomFilter previous;
+        final Instant startedAt;
+
+        Generations(BloomFilter current, BloomFilter previous, Instant startedAt) {
+            this.current = current;
+            this.previous = previous;
+            this.startedAt = startedAt;
+        }
+    }
+
+    // Loaded before the server takes requests, so a restart never lets a revoked token through
+    @PostConstruct
+    public void init() {
+        Instant now = Instant.now();
+        BloomFilter current = newFilter();
+        revokedTokenRepository.findTokenIdsExpiringAfter(now).forEach(current::add);
+        generations = new Generations(current, newFilter(), now);
+        syncedUntil = now;
+    }
+
+    /**
+     * Whether the token must be rejected. Tokens without an id predate revocation and
+     * cannot be revoked; they expire on their own.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Generations current = generations;
+        if (!current.current.mightContain(tokenId) && !current.previous.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByTokenIdAndExpiresAtAfter(tokenId, Instant.now());
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (tokenId == null || !expiresAt.isAfter(now)) {
+            return; // Nothing to do for a token that is rejected anyway
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, now));
+        generations.current.add(tokenId);
+    }
+
+    /**
+     * Adds revocations made on other nodes since the last run, and starts a new generation
+     * once the current one is an access-token lifetime old, purging expired rows.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation-sync-interval-ms:5000}")
+    @Transactional
+    public void sync() {
+        Instant now = Instant.now();
+        Duration lifetime = Duration.ofMillis(jwtConfig.getExpirationMs());
+        if (!now.isBefore(generations.startedAt.plus(lifetime))) {
+            rotate(now, lifetime);
+        }
+        BloomFilter current = generations.current;
+        revokedTokenRepository.findTokenIdsRevokedSince(syncedUntil.minus(SYNC_OVERLAP), now).forEach(current::add);
+        syncedUntil = now;
+    }
+
+    private void rotate(Instant now, Duration lifetime) {
+        BloomFilter next = newFilter();
+        // Tokens issued under a longer expiration-ms outlive two generations; carry them over
+        revokedTokenRepository.findTokenIdsExpiringAfter(now.plus(lifetime)).forEach(next::add);
+        generations = new Generations(next, generations.current, now);
+        int purged = revokedTokenRepository.deleteExpired(now);
+        logger.debug("Started a new revocation filter generation, purged {} expired revocations", purged);
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(jwtConfig.getRevocationExpectedInsertions(), jwtConfig.getRevocationFalsePositiveRate());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Cached user lookups by username, for logins and other reads that need the whole user.
+ * UserService evicts an entry whenever it changes that user. Kept apart from UserService,
+ * which depends on the PasswordEncoder, so the security configuration can use it.
+ */
+@Service
+public class UserLookupService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Unknown usernames are not cached, so a user registered right after a failed lookup is found
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#username", unless = "#result == null")
+    public Optional<User> findByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.culturalmapapp.service;
 
+import com.example.culturalmapapp.config.CacheConfig;
 import com.example.culturalmapapp.dto.ChangePasswordRequest;
 import com.example.culturalmapapp.dto.UpdateUserProfileRequest;
 import com.example.culturalmapapp.dto.UserRegistrationRequest;
@@ -8,6 +9,7 @@ import com.example.culturalmapapp.exception.UserAlreadyExistsException;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +26,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserLookupService userLookupService;
+
     @Transactional
     public User registerUser(UserRegistrationRequest registrationRequest) {
         if (userRepository.findByUsername(registrationRequest.getUsername()).isPresent()) {
@@ -55,11 +60,12 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public User getCurrentUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userLookupService.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#username")
     public User updateUserProfile(String username, UpdateUserProfileRequest request) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
@@ -76,6 +82,7 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#username")
     public void changePassword(String username, ChangePasswordRequest request) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
@@ -0,0 +1,107 @@
+package com.example.culturalmapapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-paginated activity listing: the sort order and the (sort key, id)
+ * of the last activity already returned. The next page is everything strictly after that
+ * pair, so rows inserted or deleted elsewhere in the list never shift it, unlike an offset.
+ * Clients see it only as an opaque URL-safe string.
+ */
+public final class ActivityCursor {
+
+    public enum SortKey {
+        DATE_TIME("dateTime"), ID("id");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortKey fromProperty(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Cursor pagination sorts by dateTime or id, not " + property + ".");
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final LocalDateTime dateTime;
+    private final Long id; // null before the first page
+
+    private ActivityCursor(SortKey sortKey, boolean descending, LocalDateTime dateTime, Long id) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.dateTime = dateTime;
+        this.id = id;
+    }
+
+    public static ActivityCursor start(SortKey sortKey, boolean descending) {
+        return new ActivityCursor(sortKey, descending, null, null);
+    }
+
+    // Cursor of the page that follows the given row, in the same order
+    public ActivityCursor after(LocalDateTime lastDateTime, Long lastId) {
+        return new ActivityCursor(sortKey, descending, sortKey == SortKey.DATE_TIME ? lastDateTime : null, lastId);
+    }
+
+    public boolean isStart() {
+        return id == null;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public LocalDateTime getDateTime() {
+        return dateTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // e.g. "dateTime|asc|2024-07-20T18:00|42", base64url-encoded
+    public String encode() {
+        String plain = sortKey.getProperty() + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR
+                + (dateTime != null ? dateTime : "") + SEPARATOR + (id != null ? id : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ActivityCursor decode(String cursor) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = plain.split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            SortKey sortKey = SortKey.fromProperty(parts[0]);
+            LocalDateTime dateTime = parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]);
+            Long id = parts[3].isEmpty() ? null : Long.valueOf(parts[3]);
+            if (id != null && sortKey == SortKey.DATE_TIME && dateTime == null) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new ActivityCursor(sortKey, parts[1].equals("desc"), dateTime, id);
+        } catch (DateTimeParseException e) { // NumberFormatException is an IllegalArgumentException already
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+}
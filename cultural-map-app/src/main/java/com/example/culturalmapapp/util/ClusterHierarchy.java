@@ -0,0 +1,247 @@
+package com.example.culturalmapapp.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical point clustering over Web Mercator, one level per map zoom.
+ * Level z is a grid of 2^(z+2) x 2^(z+2) cells (64 px cells on 256 px tiles), so every
+ * cell splits into exactly four cells on the next level. Each cell keeps a count and the
+ * sum of its points' coordinates, which gives the cluster centroid; the finest level
+ * also keeps the ids. Adding or removing a point touches one cell per level, so the
+ * hierarchy is maintained incrementally and never rebuilt. Not thread-safe.
+ */
+public class ClusterHierarchy {
+
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    // Deepest maxZoom whose leaf level (4 << (maxZoom + 1) cells per axis) still fits an int cell index
+    public static final int MAX_ZOOM = 27;
+
+    private final int maxZoom;
+    // levels[z] for z in [0, maxZoom]; levels[maxZoom + 1] is the leaf level holding ids
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+    private final Map<Long, double[]> points = new HashMap<>();
+
+    public static final class Cluster {
+        private final double latitude;
+        private final double longitude;
+        private final int count;
+        private final Long activityId; // Set when the cluster is a single activity
+
+        Cluster(double latitude, double longitude, int count, Long activityId) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.activityId = activityId;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Long getActivityId() {
+            return activityId;
+        }
+    }
+
+    private static final class Cell {
+        int count;
+        double sumX;
+        double sumY;
+        Set<Long> ids; // Leaf level only
+    }
+
+    public ClusterHierarchy(int maxZoom) {
+        if (maxZoom < 0 || maxZoom > MAX_ZOOM) {
+            throw new IllegalArgumentException("maxZoom must be between 0 and " + MAX_ZOOM + ", was " + maxZoom);
+        }
+        this.maxZoom = maxZoom;
+        for (int level = 0; level <= maxZoom + 1; level++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public void clear() {
+        levels.forEach(Map::clear);
+        points.clear();
+    }
+
+    public void insert(long id, double latitude, double longitude) {
+        remove(id);
+        double x = mercatorX(longitude);
+        double y = mercatorY(latitude);
+        points.put(id, new double[] {x, y, latitude, longitude});
+        for (int level = 0; level < levels.size(); level++) {
+            Cell cell = levels.get(level).computeIfAbsent(cellKey(x, y, level), key -> new Cell());
+            cell.count++;
+            cell.sumX += x;
+            cell.sumY += y;
+            if (level == leafLevel()) {
+                if (cell.ids == null) {
+                    cell.ids = new HashSet<>();
+                }
+                cell.ids.add(id);
+            }
+        }
+    }
+
+    public boolean remove(long id) {
+        double[] point = points.remove(id);
+        if (point == null) {
+            return false;
+        }
+        double x = point[0];
+        double y = point[1];
+        for (int level = 0; level < levels.size(); level++) {
+            long key = cellKey(x, y, level);
+            Cell cell = levels.get(level).get(key);
+            cell.count--;
+            cell.sumX -= x;
+            cell.sumY -= y;
+            if (cell.ids != null) {
+                cell.ids.remove(id);
+            }
+            if (cell.count == 0) {
+                levels.get(level).remove(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clusters intersecting the box at the given zoom. Above maxZoom every activity is
+     * returned on its own, at its exact position.
+     */
+    public List<Cluster> query(double minLat, double maxLat, double minLon, double maxLon, int zoom) {
+        int level = Math.max(0, Math.min(zoom, leafLevel()));
+        int cellsPerAxis = cellsPerAxis(level);
+        int minCx = clampCell(mercatorX(minLon), cellsPerAxis);
+        int maxCx = clampCell(mercatorX(maxLon), cellsPerAxis);
+        int minCy = clampCell(mercatorY(maxLat), cellsPerAxis); // y grows southwards
+        int maxCy = clampCell(mercatorY(minLat), cellsPerAxis);
+
+        Map<Long, Cell> cells = levels.get(level);
+        List<Cluster> clusters = new ArrayList<>();
+        long boxCells = (long) (maxCx - minCx + 1) * (maxCy - minCy + 1);
+        if (boxCells <= cells.size()) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                for (int cy = minCy; cy <= maxCy; cy++) {
+                    Cell cell = cells.get(key(cx, cy));
+                    if (cell != null) {
+                        addClusters(clusters, cell, cx, cy, level);
+                    }
+                }
+            }
+        } else {
+            // Sparse level: walking the occupied cells is cheaper than walking the box
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                int cx = (int) (entry.getKey() >>> 32);
+                int cy = (int) (entry.getKey() & 0xffffffffL);
+                if (cx >= minCx && cx <= maxCx && cy >= minCy && cy <= maxCy) {
+                    addClusters(clusters, entry.getValue(), cx, cy, level);
+                }
+            }
+        }
+        return clusters;
+    }
+
+    private void addClusters(List<Cluster> clusters, Cell cell, int cx, int cy, int level) {
+        if (level == leafLevel()) {
+            for (Long id : cell.ids) {
+                double[] point = points.get(id);
+                clusters.add(new Cluster(point[2], point[3], 1, id));
+            }
+            return;
+        }
+        if (cell.count == 1) {
+            long id = singleId(cx, cy, level);
+            double[] point = points.get(id);
+            clusters.add(new Cluster(point[2], point[3], 1, id));
+            return;
+        }
+        clusters.add(new Cluster(latitudeOf(cell.sumY / cell.count), longitudeOf(cell.sumX / cell.count), cell.count, null));
+    }
+
+    // Follows the only occupied child down to the leaf level
+    private long singleId(int cx, int cy, int level) {
+        while (level < leafLevel()) {
+            level++;
+            Map<Long, Cell> children = levels.get(level);
+            int childX = cx * 2;
+            int childY = cy * 2;
+            search:
+            for (int dx = 0; dx <= 1; dx++) {
+                for (int dy = 0; dy <= 1; dy++) {
+                    if (children.containsKey(key(childX + dx, childY + dy))) {
+                        cx = childX + dx;
+                        cy = childY + dy;
+                        break search;
+                    }
+                }
+            }
+        }
+        return levels.get(level).get(key(cx, cy)).ids.iterator().next();
+    }
+
+    private int leafLevel() {
+        return maxZoom + 1;
+    }
+
+    private static int cellsPerAxis(int level) {
+        return 1 << (level + 2);
+    }
+
+    private static long cellKey(double x, double y, int level) {
+        int cellsPerAxis = cellsPerAxis(level);
+        return key(clampCell(x, cellsPerAxis), clampCell(y, cellsPerAxis));
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private static int clampCell(double coordinate, int cellsPerAxis) {
+        int cell = (int) Math.floor(coordinate * cellsPerAxis);
+        return Math.max(0, Math.min(cellsPerAxis - 1, cell));
+    }
+
+    // Web Mercator projection onto the unit square, x eastwards and y southwards
+    static double mercatorX(double longitude) {
+        return (longitude + 180.0) / 360.0;
+    }
+
+    static double mercatorY(double latitude) {
+        double lat = Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, latitude));
+        double sin = Math.sin(Math.toRadians(lat));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    static double longitudeOf(double x) {
+        return x * 360.0 - 180.0;
+    }
+
+    static double latitudeOf(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+}
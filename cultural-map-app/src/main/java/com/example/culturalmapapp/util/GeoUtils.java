@@ -0,0 +1,60 @@
+package com.example.culturalmapapp.util;
+
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoUtils() {
+    }
+
+    // Great-circle distance between two points, in kilometers
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2) * Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2));
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    // Half-height of the box enclosing a circle of radiusKm, in degrees of latitude
+    public static double latitudeDelta(double radiusKm) {
+        return Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+    }
+
+    // Half-width of the box enclosing a circle of radiusKm around the given latitude, in degrees of longitude
+    public static double longitudeDelta(double latitude, double radiusKm) {
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        if (cosLat < 1e-9) {
+            return 180.0; // At the poles every longitude is within reach
+        }
+        return Math.min(180.0, Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * cosLat)));
+    }
+
+    /**
+     * Lower bound on the great-circle distance from the point to any point of the box.
+     * Combines the latitude gap (no path is shorter than its change in latitude) with the
+     * distance to the great circle of the nearest box meridian, which separates the point
+     * from the box as long as the box is at most 180 degrees wide. Zero when the point
+     * lies inside the box.
+     */
+    public static double minDistanceToBoxKm(double latitude, double longitude,
+                                            double minLat, double maxLat, double minLon, double maxLon) {
+        double latGap = latitude < minLat ? minLat - latitude : (latitude > maxLat ? latitude - maxLat : 0.0);
+        double latBound = EARTH_RADIUS_KM * Math.toRadians(latGap);
+
+        double lonBound = 0.0;
+        if (longitude < minLon || longitude > maxLon) {
+            double lonGap = Math.min(longitudeGap(longitude, minLon), longitudeGap(longitude, maxLon));
+            lonBound = EARTH_RADIUS_KM * Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(Math.toRadians(lonGap)));
+        }
+        return Math.max(latBound, lonBound);
+    }
+
+    // Smallest angle between two longitudes, in degrees within [0, 180]
+    private static double longitudeGap(double lon1, double lon2) {
+        double gap = Math.abs(lon1 - lon2) % 360.0;
+        return gap > 180.0 ? 360.0 - gap : gap;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.culturalmapapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Geohash encoding plus the helpers needed to turn a search box into a handful of
+ * prefix ranges that can be answered with B-tree range scans on the geohash column.
+ */
+public final class Geohash {
+
+    public static final int MAX_PRECISION = 12;
+
+    // Standard geohash alphabet; it is in ascending ASCII order, so prefix ranges sort correctly
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    // Upper bound on cells used to cover a box before merging adjacent ones into ranges
+    private static final int MAX_COVERING_CELLS = 16;
+
+    private Geohash() {
+    }
+
+    // Half-open range [from, to) of geohash values; to == null means "no upper bound"
+    public static final class Range {
+        private final String from;
+        private final String to;
+
+        Range(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + from + ", " + (to == null ? "+inf" : to) + ")";
+        }
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90.0, maxLat = 90.0;
+        double minLon = -180.0, maxLon = 180.0;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // Bits alternate starting with longitude
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // Null-safe encoding at full precision, as stored on CulturalActivity
+    public static String encode(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return encode(latitude, longitude, MAX_PRECISION);
+    }
+
+    // Cell height in degrees of latitude for the given precision
+    public static double cellHeight(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    // Cell width in degrees of longitude for the given precision
+    public static double cellWidth(int precision) {
+        int lonBits = (5 * precision + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    /**
+     * Covers the box with geohash cells of the finest precision that needs at most
+     * MAX_COVERING_CELLS cells, and merges cells that are adjacent in geohash order.
+     * Every point inside the box falls into one of the returned ranges; points outside
+     * may too, so callers still apply an exact filter.
+     */
+    public static List<Range> coveringRanges(double minLat, double maxLat, double minLon, double maxLon) {
+        minLat = Math.max(-90.0, minLat);
+        maxLat = Math.min(90.0, maxLat);
+        minLon = Math.max(-180.0, minLon);
+        maxLon = Math.min(180.0, maxLon);
+
+        TreeSet<String> cells = null;
+        for (int precision = MAX_PRECISION; precision >= 1; precision--) {
+            long rows = cellSpan(minLat, maxLat, -90.0, cellHeight(precision));
+            long columns = cellSpan(minLon, maxLon, -180.0, cellWidth(precision));
+            if (rows * columns <= MAX_COVERING_CELLS) {
+                cells = coveringCells(minLat, maxLat, minLon, maxLon, precision);
+                break;
+            }
+        }
+        if (cells == null) {
+            // Box is larger than what precision 1 covers in MAX_COVERING_CELLS cells: scan everything
+            List<Range> all = new ArrayList<>();
+            all.add(new Range("", null));
+            return all;
+        }
+
+        List<Range> ranges = new ArrayList<>();
+        String rangeStart = null;
+        String rangeEnd = null;
+        for (String cell : cells) {
+            if (rangeStart != null && cell.equals(rangeEnd)) {
+                rangeEnd = increment(cell); // Adjacent in geohash order: extend the current range
+                continue;
+            }
+            if (rangeStart != null) {
+                ranges.add(new Range(rangeStart, rangeEnd));
+            }
+            rangeStart = cell;
+            rangeEnd = increment(cell);
+        }
+        ranges.add(new Range(rangeStart, rangeEnd));
+        return ranges;
+    }
+
+    // Number of grid cells (of the given size, aligned to origin) spanned by [min, max]
+    private static long cellSpan(double min, double max, double origin, double cellSize) {
+        long first = (long) Math.floor((min - origin) / cellSize);
+        long last = (long) Math.floor((max - origin) / cellSize);
+        return last - first + 1;
+    }
+
+    private static TreeSet<String> coveringCells(double minLat, double maxLat, double minLon, double maxLon, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        long firstRow = (long) Math.floor((minLat + 90.0) / height);
+        long lastRow = (long) Math.floor((maxLat + 90.0) / height);
+        long firstColumn = (long) Math.floor((minLon + 180.0) / width);
+        long lastColumn = (long) Math.floor((maxLon + 180.0) / width);
+
+        TreeSet<String> cells = new TreeSet<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            // Encode the centre of each cell so rounding never lands on a neighbour
+            double lat = Math.min(90.0, -90.0 + (row + 0.5) * height);
+            for (long column = firstColumn; column <= lastColumn; column++) {
+                double lon = Math.min(180.0, -180.0 + (column + 0.5) * width);
+                cells.add(encode(lat, lon, precision));
+            }
+        }
+        return cells;
+    }
+
+    // Smallest string greater than every string starting with prefix; null when prefix is all 'z'
+    static String increment(String prefix) {
+        char[] chars = prefix.toCharArray();
+        for (int i = chars.length - 1; i >= 0; i--) {
+            int index = BASE32.indexOf(chars[i]);
+            if (index < BASE32.length() - 1) {
+                chars[i] = BASE32.charAt(index + 1);
+                return new String(chars, 0, i + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.culturalmapapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Great-circle distances from one query point to a batch of points held as
+ * struct-of-arrays: latitude and longitude in radians and the cosine of the latitude,
+ * all computed once when the point is stored. The query point is prepared once per
+ * batch too, so the inner loop is only subtractions, two sines, a square root and
+ * an arcsine per point.
+ */
+public interface HaversineKernel {
+
+    // Writes the distance in km from the query point to points [0, count) into distancesKm
+    void distances(double queryLatRad, double queryLonRad, double queryCosLat,
+                   double[] latRad, double[] lonRad, double[] cosLat, int count, double[] distancesKm);
+
+    /**
+     * The Vector API kernel when the jdk.incubator.vector module is resolved (start the
+     * JVM with --add-modules jdk.incubator.vector), otherwise the scalar one. The vector
+     * class is only loaded after the module check, so its absence never breaks linking.
+     */
+    static HaversineKernel best() {
+        return Holder.BEST;
+    }
+
+    final class Holder {
+        private static final Logger logger = LoggerFactory.getLogger(HaversineKernel.class);
+        private static final HaversineKernel BEST = select();
+
+        private Holder() {
+        }
+
+        private static HaversineKernel select() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    HaversineKernel kernel = (HaversineKernel) Class.forName("com.example.culturalmapapp.util.VectorHaversineKernel")
+                            .getDeclaredConstructor().newInstance();
+                    logger.info("Using the Vector API Haversine kernel");
+                    return kernel;
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    logger.warn("Vector API Haversine kernel unavailable, using the scalar kernel", e);
+                }
+            }
+            return new ScalarHaversineKernel();
+        }
+    }
+}
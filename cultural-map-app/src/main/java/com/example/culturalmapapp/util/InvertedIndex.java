@@ -0,0 +1,439 @@
+package com.example.culturalmapapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable inverted index of documents identified by a long id, searched with BM25.
+ * <p>
+ * Most documents live in a compressed base segment: one posting list per term, listing the
+ * documents that contain it by their position in the segment's sorted id array, with each
+ * position stored as the gap from the previous one in a variable-length byte encoding and
+ * the term frequency folded into the same bytes when it is 1 (the common case). A term
+ * in a few thousand documents costs a few kilobytes.
+ * <p>
+ * with() and without() return a new index and leave this one untouched, so readers holding
+ * a reference never see a half-applied change and need no locking. The new index shares the
+ * base segment and keeps the change in a small overlay: the recently written documents and
+ * the base documents they replace. Once the overlay holds more than mergeThreshold
+ * documents, it is merged into a new base segment. As in most search engines, the collection
+ * statistics (document count, average length, document frequencies) still count replaced
+ * documents until that merge, which shifts scores only slightly.
+ */
+public final class InvertedIndex {
+
+    // BM25 term frequency saturation and length normalization, at their customary values
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Lower score first, then higher id
+    private static final Comparator<Scored> WORST_FIRST = Comparator.<Scored>comparingDouble(scored -> scored.score)
+            .thenComparing(Comparator.<Scored>comparingLong(scored -> scored.id).reversed());
+
+    @FunctionalInterface
+    public interface HitVisitor {
+        void visit(long id, double score);
+    }
+
+    // A document as term frequencies; its length is their sum
+    public static final class Document {
+        private final Map<String, Integer> frequencies;
+        private final int length;
+
+        public Document(Map<String, Integer> frequencies) {
+            this.frequencies = Map.copyOf(frequencies);
+            this.length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public int frequency(String term) {
+            return frequencies.getOrDefault(term, 0);
+        }
+    }
+
+    private final Segment base;
+    private final Map<Long, Document> recent;
+    // Base positions replaced by a recent document or deleted since the base was built
+    private final BitSet superseded;
+    private final int supersededCount;
+    private final long recentLength;
+    private final int mergeThreshold;
+
+    private InvertedIndex(Segment base, Map<Long, Document> recent, BitSet superseded, int supersededCount, int mergeThreshold) {
+        this.base = base;
+        this.recent = recent;
+        this.superseded = superseded;
+        this.supersededCount = supersededCount;
+        this.recentLength = recent.values().stream().mapToLong(Document::getLength).sum();
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    public static InvertedIndex empty(int mergeThreshold) {
+        return new Builder(mergeThreshold).build();
+    }
+
+    // Number of documents, each counted once however often it was rewritten
+    public int size() {
+        return base.ids.length - supersededCount + recent.size();
+    }
+
+    // Bytes taken by the base segment's posting lists, for monitoring
+    public long postingBytes() {
+        return base.postings.values().stream().mapToLong(postings -> postings.data.length).sum();
+    }
+
+    // This index with the document added, or replacing the one with the same id
+    public InvertedIndex with(long id, Document document) {
+        Map<Long, Document> newRecent = new HashMap<>(recent);
+        newRecent.put(id, document);
+        return next(newRecent, Arrays.binarySearch(base.ids, id));
+    }
+
+    // This index without the document; the same index if it is not there
+    public InvertedIndex without(long id) {
+        int position = Arrays.binarySearch(base.ids, id);
+        boolean inBase = position >= 0 && !superseded.get(position);
+        if (!inBase && !recent.containsKey(id)) {
+            return this;
+        }
+        Map<Long, Document> newRecent = new HashMap<>(recent);
+        newRecent.remove(id);
+        return next(newRecent, position);
+    }
+
+    /**
+     * Visits the k documents with the highest BM25 score for the terms, best first (ties by
+     * id). A document matches if it contains any of the terms; the more it contains, and the
+     * rarer they are, the higher it ranks. Repeated terms count once.
+     */
+    public void search(Collection<String> terms, int k, HitVisitor visitor) {
+        long documents = base.ids.length + recent.size();
+        if (documents == 0 || k <= 0) {
+            return;
+        }
+        double averageLength = (double) (base.totalLength + recentLength) / documents;
+
+        List<String> matched = new ArrayList<>();
+        List<Double> idfs = new ArrayList<>();
+        List<Cursor> cursors = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(terms)) {
+            Postings postings = base.postings.get(term);
+            int documentFrequency = postings == null ? 0 : postings.documentFrequency;
+            for (Document document : recent.values()) {
+                if (document.frequency(term) > 0) {
+                    documentFrequency++;
+                }
+            }
+            if (documentFrequency == 0) {
+                continue;
+            }
+            double idf = Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            matched.add(term);
+            idfs.add(idf);
+            if (postings != null) {
+                Cursor cursor = new Cursor(postings.data, idf);
+                cursor.next();
+                cursors.add(cursor);
+            }
+        }
+        if (matched.isEmpty()) {
+            return;
+        }
+
+        // Worst of the best k at the head
+        PriorityQueue<Scored> top = new PriorityQueue<>(k + 1, WORST_FIRST);
+
+        // Document at a time over the base: every cursor sits on its next position, the lowest is scored
+        Cursor[] active = cursors.toArray(new Cursor[0]);
+        int activeCount = active.length;
+        while (activeCount > 0) {
+            int position = Integer.MAX_VALUE;
+            for (int i = 0; i < activeCount; i++) {
+                position = Math.min(position, active[i].position);
+            }
+            double score = 0;
+            for (int i = 0; i < activeCount; i++) {
+                Cursor cursor = active[i];
+                if (cursor.position == position) {
+                    score += bm25(cursor.idf, cursor.frequency, base.lengths[position], averageLength);
+                    if (!cursor.next()) {
+                        active[i--] = active[--activeCount];
+                    }
+                }
+            }
+            if (!superseded.get(position)) {
+                offer(top, k, base.ids[position], score);
+            }
+        }
+
+        for (Map.Entry<Long, Document> entry : recent.entrySet()) {
+            Document document = entry.getValue();
+            double score = 0;
+            for (int i = 0; i < matched.size(); i++) {
+                int frequency = document.frequency(matched.get(i));
+                if (frequency > 0) {
+                    score += bm25(idfs.get(i), frequency, document.getLength(), averageLength);
+                }
+            }
+            if (score > 0) {
+                offer(top, k, entry.getKey(), score);
+            }
+        }
+
+        Scored[] best = top.toArray(new Scored[0]);
+        Arrays.sort(best, WORST_FIRST.reversed());
+        for (Scored hit : best) {
+            visitor.visit(hit.id, hit.score);
+        }
+    }
+
+    private static double bm25(double idf, int frequency, int length, double averageLength) {
+        return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static void offer(PriorityQueue<Scored> top, int k, long id, double score) {
+        if (top.size() < k) {
+            top.add(new Scored(id, score));
+        } else {
+            Scored candidate = new Scored(id, score);
+            if (WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        }
+    }
+
+    private InvertedIndex next(Map<Long, Document> newRecent, int basePosition) {
+        BitSet newSuperseded = superseded;
+        int newSupersededCount = supersededCount;
+        if (basePosition >= 0 && !superseded.get(basePosition)) {
+            newSuperseded = (BitSet) superseded.clone();
+            newSuperseded.set(basePosition);
+            newSupersededCount++;
+        }
+        if (newRecent.size() + newSupersededCount > mergeThreshold) {
+            return new InvertedIndex(merge(newRecent, newSuperseded, newSupersededCount), Map.of(), new BitSet(), 0, mergeThreshold);
+        }
+        return new InvertedIndex(base, Collections.unmodifiableMap(newRecent), newSuperseded, newSupersededCount, mergeThreshold);
+    }
+
+    // A new base holding the live base documents and the recent ones, in id order
+    private Segment merge(Map<Long, Document> newRecent, BitSet newSuperseded, int newSupersededCount) {
+        long[] recentIds = newRecent.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int count = base.ids.length - newSupersededCount + recentIds.length;
+        long[] ids = new long[count];
+        int[] lengths = new int[count];
+        int[] basePositions = new int[base.ids.length]; // Old position to new, -1 when dropped
+
+        // Recent documents grouped by term, as (new position, frequency) in position order
+        Map<String, List<int[]>> recentPostings = new HashMap<>();
+        int b = 0;
+        int r = 0;
+        int n = 0;
+        while (b < base.ids.length || r < recentIds.length) {
+            if (b < base.ids.length && newSuperseded.get(b)) {
+                basePositions[b++] = -1;
+            } else if (r == recentIds.length || (b < base.ids.length && base.ids[b] < recentIds[r])) {
+                ids[n] = base.ids[b];
+                lengths[n] = base.lengths[b];
+                basePositions[b++] = n++;
+            } else {
+                Document document = newRecent.get(recentIds[r]);
+                ids[n] = recentIds[r++];
+                lengths[n] = document.getLength();
+                int position = n++;
+                for (Map.Entry<String, Integer> term : document.frequencies.entrySet()) {
+                    recentPostings.computeIfAbsent(term.getKey(), key -> new ArrayList<>()).add(new int[] {position, term.getValue()});
+                }
+            }
+        }
+
+        Set<String> terms = new HashSet<>(base.postings.keySet());
+        terms.addAll(recentPostings.keySet());
+        Map<String, Postings> postings = new HashMap<>(terms.size() * 4 / 3 + 1);
+        for (String term : terms) {
+            PostingsWriter writer = new PostingsWriter();
+            Postings basePostings = base.postings.get(term);
+            Cursor cursor = basePostings == null ? null : new Cursor(basePostings.data, 0);
+            boolean more = cursor != null && cursor.next();
+            List<int[]> added = recentPostings.getOrDefault(term, List.of());
+            int a = 0;
+            while (more || a < added.size()) {
+                int mapped = more ? basePositions[cursor.position] : -1;
+                if (more && mapped < 0) {
+                    more = cursor.next();
+                } else if (more && (a == added.size() || mapped < added.get(a)[0])) {
+                    writer.add(mapped, cursor.frequency);
+                    more = cursor.next();
+                } else {
+                    writer.add(added.get(a)[0], added.get(a)[1]);
+                    a++;
+                }
+            }
+            if (writer.documentFrequency > 0) {
+                postings.put(term, writer.finish());
+            }
+        }
+        return new Segment(ids, lengths, postings);
+    }
+
+    /**
+     * Bulk loading into a base segment, without the overlay. Documents must be added in
+     * ascending id order, which lets each posting list be encoded as it grows.
+     */
+    public static final class Builder {
+
+        private final int mergeThreshold;
+        private final Map<String, PostingsWriter> writers = new HashMap<>();
+        private long[] ids = new long[1024];
+        private int[] lengths = new int[1024];
+        private int count;
+
+        public Builder(int mergeThreshold) {
+            this.mergeThreshold = mergeThreshold;
+        }
+
+        public Builder add(long id, Document document) {
+            if (count > 0 && id <= ids[count - 1]) {
+                throw new IllegalArgumentException("Documents must be added in ascending id order");
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            ids[count] = id;
+            lengths[count] = document.getLength();
+            for (Map.Entry<String, Integer> term : document.frequencies.entrySet()) {
+                writers.computeIfAbsent(term.getKey(), key -> new PostingsWriter()).add(count, term.getValue());
+            }
+            count++;
+            return this;
+        }
+
+        public InvertedIndex build() {
+            Map<String, Postings> postings = new HashMap<>(writers.size() * 4 / 3 + 1);
+            writers.forEach((term, writer) -> postings.put(term, writer.finish()));
+            Segment segment = new Segment(Arrays.copyOf(ids, count), Arrays.copyOf(lengths, count), postings);
+            return new InvertedIndex(segment, Map.of(), new BitSet(), 0, mergeThreshold);
+        }
+    }
+
+    private static final class Segment {
+        final long[] ids; // Ascending; a document's position here is what posting lists store
+        final int[] lengths;
+        final long totalLength;
+        final Map<String, Postings> postings;
+
+        Segment(long[] ids, int[] lengths, Map<String, Postings> postings) {
+            this.ids = ids;
+            this.lengths = lengths;
+            this.totalLength = Arrays.stream(lengths).asLongStream().sum();
+            this.postings = postings;
+        }
+    }
+
+    private static final class Postings {
+        final byte[] data;
+        final int documentFrequency;
+
+        Postings(byte[] data, int documentFrequency) {
+            this.data = data;
+            this.documentFrequency = documentFrequency;
+        }
+    }
+
+    // Each entry: varint((gap << 1) | (frequency == 1 ? 1 : 0)), then varint(frequency) unless it is 1
+    private static final class PostingsWriter {
+        private byte[] data = new byte[8];
+        private int size;
+        private int previous;
+        private int documentFrequency;
+
+        void add(int position, int frequency) {
+            int gap = position - previous;
+            previous = position;
+            documentFrequency++;
+            if (frequency == 1) {
+                writeVarint((gap << 1) | 1);
+            } else {
+                writeVarint(gap << 1);
+                writeVarint(frequency);
+            }
+        }
+
+        private void writeVarint(int value) {
+            if (size + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + 5));
+            }
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        Postings finish() {
+            return new Postings(Arrays.copyOf(data, size), documentFrequency);
+        }
+    }
+
+    private static final class Cursor {
+        final byte[] data;
+        final double idf;
+        int offset;
+        int position;
+        int frequency;
+
+        Cursor(byte[] data, double idf) {
+            this.data = data;
+            this.idf = idf;
+        }
+
+        // Moves to the next entry; false once the list is exhausted
+        boolean next() {
+            if (offset == data.length) {
+                return false;
+            }
+            int code = readVarint();
+            position += code >>> 1;
+            frequency = (code & 1) != 0 ? 1 : readVarint();
+            return true;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    private static final class Scored {
+        final long id;
+        final double score;
+
+        Scored(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.culturalmapapp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal Mapbox Vector Tile (v2.1) encoder for a single layer of point features
+ * with string properties. Writes the protobuf wire format directly, so no generated
+ * classes or protobuf runtime are needed.
+ */
+public class MvtEncoder {
+
+    public static final int EXTENT = 4096;
+
+    private static final int VERSION = 2;
+    private static final int GEOM_TYPE_POINT = 1;
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private final String layerName;
+    private final int zoom;
+    private final int tileX;
+    private final int tileY;
+
+    private final ByteArrayOutputStream features = new ByteArrayOutputStream();
+    // Keys and values are de-duplicated per layer and referenced by index from each feature
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+    private final Map<String, Integer> values = new LinkedHashMap<>();
+    private int featureCount;
+
+    public MvtEncoder(String layerName, int zoom, int tileX, int tileY) {
+        this.layerName = layerName;
+        this.zoom = zoom;
+        this.tileX = tileX;
+        this.tileY = tileY;
+    }
+
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    // Column of the tile holding the longitude at the given zoom (XYZ / slippy map scheme)
+    public static int tileX(double longitude, int zoom) {
+        return tileIndex(ClusterHierarchy.mercatorX(longitude), zoom);
+    }
+
+    // Row of the tile holding the latitude at the given zoom; row 0 is the northernmost
+    public static int tileY(double latitude, int zoom) {
+        return tileIndex(ClusterHierarchy.mercatorY(latitude), zoom);
+    }
+
+    // Tile bounds as {minLat, maxLat, minLon, maxLon}
+    public static double[] tileBounds(int zoom, int x, int y) {
+        double worldSize = 1L << zoom;
+        return new double[] {
+                ClusterHierarchy.latitudeOf((y + 1) / worldSize),
+                ClusterHierarchy.latitudeOf(y / worldSize),
+                ClusterHierarchy.longitudeOf(x / worldSize),
+                ClusterHierarchy.longitudeOf((x + 1) / worldSize)
+        };
+    }
+
+    private static int tileIndex(double coordinate, int zoom) {
+        long tiles = 1L << zoom;
+        return (int) Math.max(0, Math.min(tiles - 1, (long) Math.floor(coordinate * tiles)));
+    }
+
+    public void addPoint(long id, double latitude, double longitude, Map<String, String> properties) {
+        double worldSize = 1L << zoom;
+        long px = Math.round((ClusterHierarchy.mercatorX(longitude) * worldSize - tileX) * EXTENT);
+        long py = Math.round((ClusterHierarchy.mercatorY(latitude) * worldSize - tileY) * EXTENT);
+
+        List<Integer> tags = new ArrayList<>();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            if (property.getValue() == null) {
+                continue;
+            }
+            tags.add(keys.computeIfAbsent(property.getKey(), k -> keys.size()));
+            tags.add(values.computeIfAbsent(property.getValue(), v -> values.size()));
+        }
+
+        ByteArrayOutputStream feature = new ByteArrayOutputStream();
+        writeTag(feature, 1, WIRE_VARINT);
+        writeVarint(feature, id);
+        if (!tags.isEmpty()) {
+            ByteArrayOutputStream packed = new ByteArrayOutputStream();
+            for (int tag : tags) {
+                writeVarint(packed, tag);
+            }
+            writeBytes(feature, 2, packed.toByteArray());
+        }
+        writeTag(feature, 3, WIRE_VARINT);
+        writeVarint(feature, GEOM_TYPE_POINT);
+
+        // One MoveTo command (id 1, count 1) followed by the zigzag-encoded position
+        ByteArrayOutputStream geometry = new ByteArrayOutputStream();
+        writeVarint(geometry, (1 & 0x7) | (1 << 3));
+        writeVarint(geometry, zigZag(px));
+        writeVarint(geometry, zigZag(py));
+        writeBytes(feature, 4, geometry.toByteArray());
+
+        writeBytes(features, 2, feature.toByteArray());
+        featureCount++;
+    }
+
+    // Encoded tile; empty when no feature was added
+    public byte[] encode() {
+        if (featureCount == 0) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream layer = new ByteArrayOutputStream();
+        writeTag(layer, 15, WIRE_VARINT);
+        writeVarint(layer, VERSION);
+        writeBytes(layer, 1, layerName.getBytes(StandardCharsets.UTF_8));
+        layer.writeBytes(features.toByteArray());
+        for (String key : keys.keySet()) {
+            writeBytes(layer, 3, key.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String value : values.keySet()) {
+            ByteArrayOutputStream encodedValue = new ByteArrayOutputStream();
+            writeBytes(encodedValue, 1, value.getBytes(StandardCharsets.UTF_8)); // string_value
+            writeBytes(layer, 4, encodedValue.toByteArray());
+        }
+        writeTag(layer, 5, WIRE_VARINT);
+        writeVarint(layer, EXTENT);
+
+        ByteArrayOutputStream tile = new ByteArrayOutputStream();
+        writeBytes(tile, 3, layer.toByteArray());
+        return tile.toByteArray();
+    }
+
+    private static void writeTag(ByteArrayOutputStream out, int field, int wireType) {
+        writeVarint(out, ((long) field << 3) | wireType);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, int field, byte[] bytes) {
+        writeTag(out, field, WIRE_LENGTH_DELIMITED);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
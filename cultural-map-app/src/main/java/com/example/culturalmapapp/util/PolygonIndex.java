@@ -0,0 +1,201 @@
+package com.example.culturalmapapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable point-in-polygon index for a set of (multi)polygons such as neighbourhood
+ * boundaries. Polygons are prepared once: a coarse grid over their bounding boxes picks
+ * the few candidates for a point, and each polygon buckets its edges into latitude
+ * bands, so a containment test only crosses the edges of one band instead of all of
+ * them. Safe for concurrent reads.
+ */
+public class PolygonIndex {
+
+    private static final int GRID_SIZE = 32;
+    private static final int EDGES_PER_BAND = 8;
+    private static final int MAX_BANDS = 256;
+
+    // A named area given by all rings of its polygon parts and holes. Rings are {lon, lat}
+    // vertices in GeoJSON order; the closing vertex is optional.
+    public static final class Region {
+        private final String id;
+        private final String name;
+        private final List<double[][]> rings;
+
+        public Region(String id, String name, List<double[][]> rings) {
+            this.id = id;
+            this.name = name;
+            this.rings = rings;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final List<PreparedPolygon> polygons = new ArrayList<>();
+    private final double minLat, maxLat, minLon, maxLon;
+    private final int[][] grid; // Polygon indexes whose bounding box overlaps each cell
+
+    public PolygonIndex(List<Region> regions) {
+        double gMinLat = Double.POSITIVE_INFINITY, gMaxLat = Double.NEGATIVE_INFINITY;
+        double gMinLon = Double.POSITIVE_INFINITY, gMaxLon = Double.NEGATIVE_INFINITY;
+        for (Region region : regions) {
+            PreparedPolygon polygon = new PreparedPolygon(region);
+            if (polygon.edgeCount == 0) {
+                continue;
+            }
+            polygons.add(polygon);
+            gMinLat = Math.min(gMinLat, polygon.minLat);
+            gMaxLat = Math.max(gMaxLat, polygon.maxLat);
+            gMinLon = Math.min(gMinLon, polygon.minLon);
+            gMaxLon = Math.max(gMaxLon, polygon.maxLon);
+        }
+        minLat = gMinLat;
+        maxLat = gMaxLat;
+        minLon = gMinLon;
+        maxLon = gMaxLon;
+
+        List<List<Integer>> cells = new ArrayList<>();
+        for (int i = 0; i < GRID_SIZE * GRID_SIZE; i++) {
+            cells.add(new ArrayList<>());
+        }
+        for (int p = 0; p < polygons.size(); p++) {
+            PreparedPolygon polygon = polygons.get(p);
+            for (int row = cell(polygon.minLat, minLat, maxLat); row <= cell(polygon.maxLat, minLat, maxLat); row++) {
+                for (int col = cell(polygon.minLon, minLon, maxLon); col <= cell(polygon.maxLon, minLon, maxLon); col++) {
+                    cells.get(row * GRID_SIZE + col).add(p);
+                }
+            }
+        }
+        grid = new int[cells.size()][];
+        for (int i = 0; i < cells.size(); i++) {
+            grid[i] = cells.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public int size() {
+        return polygons.size();
+    }
+
+    public List<Region> getRegions() {
+        List<Region> regions = new ArrayList<>(polygons.size());
+        for (PreparedPolygon polygon : polygons) {
+            regions.add(polygon.region);
+        }
+        return regions;
+    }
+
+    // Id of the first region containing the point, or null when it lies outside all of them
+    public String locate(double latitude, double longitude) {
+        if (polygons.isEmpty() || latitude < minLat || latitude > maxLat || longitude < minLon || longitude > maxLon) {
+            return null;
+        }
+        int[] candidates = grid[cell(latitude, minLat, maxLat) * GRID_SIZE + cell(longitude, minLon, maxLon)];
+        for (int candidate : candidates) {
+            PreparedPolygon polygon = polygons.get(candidate);
+            if (polygon.contains(latitude, longitude)) {
+                return polygon.region.getId();
+            }
+        }
+        return null;
+    }
+
+    private static int cell(double value, double min, double max) {
+        if (max <= min) {
+            return 0;
+        }
+        int cell = (int) ((value - min) / (max - min) * GRID_SIZE);
+        return Math.max(0, Math.min(GRID_SIZE - 1, cell));
+    }
+
+    private static final class PreparedPolygon {
+        final Region region;
+        final double minLat, maxLat, minLon, maxLon;
+        final int edgeCount;
+        final int bandCount;
+        final double bandHeight;
+        // bands[b] holds the edges overlapping band b as consecutive {lon1, lat1, lon2, lat2}
+        final double[][] bands;
+
+        PreparedPolygon(Region region) {
+            this.region = region;
+            double pMinLat = Double.POSITIVE_INFINITY, pMaxLat = Double.NEGATIVE_INFINITY;
+            double pMinLon = Double.POSITIVE_INFINITY, pMaxLon = Double.NEGATIVE_INFINITY;
+            List<double[]> edges = new ArrayList<>();
+            for (double[][] ring : region.rings) {
+                for (int i = 0; i < ring.length; i++) {
+                    double[] a = ring[i];
+                    double[] b = ring[(i + 1) % ring.length];
+                    pMinLon = Math.min(pMinLon, a[0]);
+                    pMaxLon = Math.max(pMaxLon, a[0]);
+                    pMinLat = Math.min(pMinLat, a[1]);
+                    pMaxLat = Math.max(pMaxLat, a[1]);
+                    if (a[1] != b[1]) { // Horizontal edges never cross a horizontal ray
+                        edges.add(new double[] {a[0], a[1], b[0], b[1]});
+                    }
+                }
+            }
+            minLat = pMinLat;
+            maxLat = pMaxLat;
+            minLon = pMinLon;
+            maxLon = pMaxLon;
+            edgeCount = edges.size();
+            bandCount = Math.max(1, Math.min(MAX_BANDS, edgeCount / EDGES_PER_BAND));
+            bandHeight = (maxLat - minLat) / bandCount;
+
+            double[][] bandEdges = new double[bandCount][];
+            int[] fill = new int[bandCount];
+            for (int b = 0; b < bandCount; b++) {
+                bandEdges[b] = new double[16];
+            }
+            for (double[] edge : edges) {
+                int first = band(Math.min(edge[1], edge[3]));
+                int last = band(Math.max(edge[1], edge[3]));
+                for (int b = first; b <= last; b++) {
+                    if (fill[b] + 4 > bandEdges[b].length) {
+                        bandEdges[b] = Arrays.copyOf(bandEdges[b], bandEdges[b].length * 2);
+                    }
+                    System.arraycopy(edge, 0, bandEdges[b], fill[b], 4);
+                    fill[b] += 4;
+                }
+            }
+            bands = new double[bandCount][];
+            for (int b = 0; b < bandCount; b++) {
+                bands[b] = Arrays.copyOf(bandEdges[b], fill[b]);
+            }
+        }
+
+        int band(double latitude) {
+            if (bandHeight <= 0) {
+                return 0;
+            }
+            return Math.max(0, Math.min(bandCount - 1, (int) ((latitude - minLat) / bandHeight)));
+        }
+
+        // Even-odd ray casting eastwards from the point, over the edges of its band only
+        boolean contains(double latitude, double longitude) {
+            if (latitude < minLat || latitude > maxLat || longitude < minLon || longitude > maxLon) {
+                return false;
+            }
+            double[] edges = bands[band(latitude)];
+            boolean inside = false;
+            for (int i = 0; i < edges.length; i += 4) {
+                double lon1 = edges[i], lat1 = edges[i + 1], lon2 = edges[i + 2], lat2 = edges[i + 3];
+                if ((lat1 > latitude) != (lat2 > latitude)) {
+                    double crossingLon = lon1 + (latitude - lat1) * (lon2 - lon1) / (lat2 - lat1);
+                    if (longitude < crossingLon) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.culturalmapapp.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns Portuguese text into index terms: lower case, accents removed ("Forró" and "forro"
+ * are the same term), split on anything that is not a letter or digit, common stop words
+ * dropped, and plurals reduced to the singular following the plural step of the RSLP
+ * stemmer ("espetáculos" to "espetaculo", "infantis" to "infantil", "canções" to "cancao").
+ * Only the plural step is applied: it merges the forms people actually type differently
+ * without conflating unrelated words the way a full stemmer does.
+ */
+public final class PortugueseAnalyzer {
+
+    private static final int MAX_TERM_LENGTH = 40;
+
+    // Accent-free, as compared after folding
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "e", "ou", "de", "da", "do", "das", "dos",
+            "em", "na", "no", "nas", "nos", "num", "numa", "ao", "aos", "para", "pra", "por", "pela", "pelo",
+            "pelas", "pelos", "com", "sem", "que", "se", "sua", "seu", "suas", "seus", "mais", "muito", "como",
+            "the", "and", "of");
+
+    // Words ending in s that are not plurals, or whose singular the rules below would get wrong
+    private static final Set<String> PLURAL_EXCEPTIONS = Set.of(
+            "lapis", "cais", "pais", "mas", "pois", "depois", "dois", "tres", "seis", "simples", "onibus",
+            "virus", "bonus", "atlas", "jus", "tenis", "gas", "mes", "portugues", "ingles", "frances", "japones");
+
+    private PortugueseAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Lower case without diacritics: "Ação" becomes "acao"
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static void addTerm(List<String> terms, String word) {
+        if (word.length() > MAX_TERM_LENGTH || STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(singular(word));
+    }
+
+    // RSLP plural reduction, on folded words (so "ões" is matched as "oes")
+    static String singular(String word) {
+        if (word.length() < 4 || !word.endsWith("s") || PLURAL_EXCEPTIONS.contains(word)) {
+            return word;
+        }
+        if (word.endsWith("ns")) {
+            return word.substring(0, word.length() - 2) + "m"; // bons, jardins
+        }
+        if (word.endsWith("oes") || word.endsWith("aes")) {
+            return word.substring(0, word.length() - 3) + "ao"; // cancoes, paes
+        }
+        if (word.endsWith("ais")) {
+            return word.substring(0, word.length() - 2) + "l"; // musicais
+        }
+        if (word.endsWith("eis")) {
+            return word.substring(0, word.length() - 3) + "el"; // papeis
+        }
+        if (word.endsWith("ois")) {
+            return word.substring(0, word.length() - 3) + "ol"; // lencois
+        }
+        if (word.endsWith("is")) {
+            return word.substring(0, word.length() - 2) + "il"; // infantis
+        }
+        if (word.endsWith("les")) {
+            return word.substring(0, word.length() - 2); // males
+        }
+        if (word.endsWith("res") || word.endsWith("zes")) {
+            return word.substring(0, word.length() - 2); // atores, vozes
+        }
+        return word.substring(0, word.length() - 1); // teatros, dancas
+    }
+}
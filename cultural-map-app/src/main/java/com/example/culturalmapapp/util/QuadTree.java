@@ -0,0 +1,425 @@
+package com.example.culturalmapapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Point-region quadtree over latitude/longitude holding (id, lat, lon) entries, each
+ * optionally tagged with a category and a time so searches can filter as they go.
+ * Leaves keep their points in parallel primitive arrays, including radians and the
+ * cosine of the latitude computed once on insert, so a radius query hands whole leaves
+ * to a batch HaversineKernel and touches no per-point objects. Not thread-safe for
+ * writes; callers are expected to guard it.
+ */
+public class QuadTree {
+
+    private static final int LEAF_CAPACITY = 64;
+    private static final int MAX_DEPTH = 24; // ~2 m cells at the equator, far below GPS precision
+    // Below this many candidate points a radius query is not worth splitting across cores
+    static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int LEAVES_PER_TASK = 64;
+
+    // Time value of points inserted without one
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    @FunctionalInterface
+    public interface PointVisitor {
+        void visit(long id, double latitude, double longitude);
+    }
+
+    @FunctionalInterface
+    public interface PointFilter {
+        boolean accept(String category, long time);
+    }
+
+    @FunctionalInterface
+    public interface NeighbourVisitor {
+        void visit(long id, double distanceKm);
+    }
+
+    private final HaversineKernel kernel;
+    private Node root = new Node(-90.0, 90.0, -180.0, 180.0, 0);
+    private int size;
+
+    public QuadTree() {
+        this(HaversineKernel.best());
+    }
+
+    public QuadTree(HaversineKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = new Node(-90.0, 90.0, -180.0, 180.0, 0);
+        size = 0;
+    }
+
+    public void insert(long id, double latitude, double longitude) {
+        insert(id, latitude, longitude, null, NO_TIME);
+    }
+
+    public void insert(long id, double latitude, double longitude, String category, long time) {
+        Node node = root;
+        while (node.children != null) {
+            node = node.childFor(latitude, longitude);
+        }
+        node.add(id, latitude, longitude, category, time);
+        size++;
+        if (node.count > LEAF_CAPACITY && node.depth < MAX_DEPTH) {
+            node.split();
+        }
+    }
+
+    public boolean remove(long id, double latitude, double longitude) {
+        Node node = root;
+        while (node.children != null) {
+            node = node.childFor(latitude, longitude);
+        }
+        if (node.remove(id)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    // Visits every point inside the box (bounds inclusive)
+    public void search(double minLat, double maxLat, double minLon, double maxLon, PointVisitor visitor) {
+        search(root, minLat, maxLat, minLon, maxLon, visitor);
+    }
+
+    /**
+     * Visits every point within radiusKm of (latitude, longitude) with its distance, in
+     * no particular order. Leaves overlapping the enclosing box are collected first;
+     * their distances are computed a leaf at a time by the batch kernel, and large
+     * candidate sets are split across the common fork/join pool. The visitor is always
+     * called on the calling thread.
+     */
+    public void withinRadius(double latitude, double longitude, double radiusKm, NeighbourVisitor visitor) {
+        double latDelta = GeoUtils.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtils.longitudeDelta(latitude, radiusKm);
+        List<Node> leaves = new ArrayList<>();
+        int candidates = collectLeaves(root, latitude - latDelta, latitude + latDelta,
+                longitude - lonDelta, longitude + lonDelta, leaves);
+
+        RadiusQuery query = new RadiusQuery(latitude, longitude, radiusKm);
+        RadiusMatches matches = candidates >= PARALLEL_THRESHOLD && leaves.size() > LEAVES_PER_TASK
+                ? ForkJoinPool.commonPool().invoke(new RadiusTask(query, leaves, 0, leaves.size()))
+                : query.scan(leaves, 0, leaves.size());
+        for (int i = 0; i < matches.count; i++) {
+            visitor.visit(matches.ids[i], matches.distances[i]);
+        }
+    }
+
+    private int collectLeaves(Node node, double minLat, double maxLat, double minLon, double maxLon, List<Node> leaves) {
+        if (node.maxLat < minLat || node.minLat > maxLat || node.maxLon < minLon || node.minLon > maxLon) {
+            return 0;
+        }
+        if (node.children == null) {
+            if (node.count == 0) {
+                return 0;
+            }
+            leaves.add(node);
+            return node.count;
+        }
+        int candidates = 0;
+        for (Node child : node.children) {
+            candidates += collectLeaves(child, minLat, maxLat, minLon, maxLon, leaves);
+        }
+        return candidates;
+    }
+
+    private final class RadiusQuery {
+        final double radiusKm;
+        final double latRad, lonRad, cosLat;
+
+        RadiusQuery(double latitude, double longitude, double radiusKm) {
+            this.radiusKm = radiusKm;
+            this.latRad = Math.toRadians(latitude);
+            this.lonRad = Math.toRadians(longitude);
+            this.cosLat = Math.cos(latRad);
+        }
+
+        RadiusMatches scan(List<Node> leaves, int from, int to) {
+            RadiusMatches matches = new RadiusMatches();
+            double[] distances = new double[LEAF_CAPACITY + 1];
+            for (int l = from; l < to; l++) {
+                Node leaf = leaves.get(l);
+                if (distances.length < leaf.count) {
+                    distances = new double[leaf.count]; // Leaves at MAX_DEPTH may exceed the capacity
+                }
+                kernel.distances(latRad, lonRad, cosLat, leaf.latRads, leaf.lonRads, leaf.cosLats, leaf.count, distances);
+                for (int i = 0; i < leaf.count; i++) {
+                    if (distances[i] <= radiusKm) {
+                        matches.add(leaf.ids[i], distances[i]);
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+
+    private final class RadiusTask extends RecursiveTask<RadiusMatches> {
+        private final RadiusQuery query;
+        private final List<Node> leaves;
+        private final int from, to;
+
+        RadiusTask(RadiusQuery query, List<Node> leaves, int from, int to) {
+            this.query = query;
+            this.leaves = leaves;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected RadiusMatches compute() {
+            if (to - from <= LEAVES_PER_TASK) {
+                return query.scan(leaves, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            RadiusTask left = new RadiusTask(query, leaves, from, mid);
+            left.fork();
+            RadiusMatches right = new RadiusTask(query, leaves, mid, to).compute();
+            return left.join().append(right);
+        }
+    }
+
+    // Growable (id, distance) pairs
+    private static final class RadiusMatches {
+        long[] ids = new long[16];
+        double[] distances = new double[16];
+        int count;
+
+        void add(long id, double distance) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                distances = Arrays.copyOf(distances, count * 2);
+            }
+            ids[count] = id;
+            distances[count] = distance;
+            count++;
+        }
+
+        RadiusMatches append(RadiusMatches other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.ids[i], other.distances[i]);
+            }
+            return this;
+        }
+    }
+
+    private void search(Node node, double minLat, double maxLat, double minLon, double maxLon, PointVisitor visitor) {
+        if (node.maxLat < minLat || node.minLat > maxLat || node.maxLon < minLon || node.minLon > maxLon) {
+            return;
+        }
+        if (node.children != null) {
+            for (Node child : node.children) {
+                search(child, minLat, maxLat, minLon, maxLon, visitor);
+            }
+            return;
+        }
+        boolean contained = node.minLat >= minLat && node.maxLat <= maxLat && node.minLon >= minLon && node.maxLon <= maxLon;
+        for (int i = 0; i < node.count; i++) {
+            double lat = node.lats[i];
+            double lon = node.lons[i];
+            if (contained || (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon)) {
+                visitor.visit(node.ids[i], lat, lon);
+            }
+        }
+    }
+
+    /**
+     * Visits the k points closest to (latitude, longitude) that pass the filter (null
+     * accepts everything), closest first, ties broken by id. Best-first search: nodes
+     * are expanded in order of their minimum possible distance and the search stops as
+     * soon as no unexpanded node can beat the current k-th result, so the work depends
+     * on k and local density rather than on the total number of points.
+     */
+    public void nearest(double latitude, double longitude, int k, PointFilter filter, NeighbourVisitor visitor) {
+        if (k <= 0) {
+            return;
+        }
+        PriorityQueue<NodeEntry> frontier = new PriorityQueue<>(Comparator.comparingDouble((NodeEntry e) -> e.minDistanceKm));
+        // Max-heap on distance holding the best k so far; its head is the one to beat
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(k + 1, NEIGHBOUR_ORDER.reversed());
+        frontier.add(new NodeEntry(root, 0.0));
+        double queryLatRad = Math.toRadians(latitude);
+        double queryLonRad = Math.toRadians(longitude);
+        double queryCosLat = Math.cos(queryLatRad);
+
+        while (!frontier.isEmpty()) {
+            NodeEntry entry = frontier.poll();
+            if (best.size() == k && entry.minDistanceKm > best.peek().distanceKm) {
+                break; // Every remaining node is farther than the k-th result
+            }
+            Node node = entry.node;
+            if (node.children != null) {
+                for (Node child : node.children) {
+                    double bound = GeoUtils.minDistanceToBoxKm(latitude, longitude,
+                            child.minLat, child.maxLat, child.minLon, child.maxLon);
+                    if (best.size() < k || bound <= best.peek().distanceKm) {
+                        frontier.add(new NodeEntry(child, bound));
+                    }
+                }
+                continue;
+            }
+            for (int i = 0; i < node.count; i++) {
+                if (filter != null && !filter.accept(node.categories[i], node.times[i])) {
+                    continue;
+                }
+                Neighbour candidate = new Neighbour(node.ids[i], ScalarHaversineKernel.distanceKm(
+                        queryLatRad, queryLonRad, queryCosLat, node.latRads[i], node.lonRads[i], node.cosLats[i]));
+                if (best.size() < k) {
+                    best.add(candidate);
+                } else if (NEIGHBOUR_ORDER.compare(candidate, best.peek()) < 0) {
+                    best.poll();
+                    best.add(candidate);
+                }
+            }
+        }
+
+        List<Neighbour> ordered = new ArrayList<>(best);
+        ordered.sort(NEIGHBOUR_ORDER);
+        for (Neighbour neighbour : ordered) {
+            visitor.visit(neighbour.id, neighbour.distanceKm);
+        }
+    }
+
+    private static final Comparator<Neighbour> NEIGHBOUR_ORDER =
+            Comparator.comparingDouble((Neighbour n) -> n.distanceKm).thenComparingLong(n -> n.id);
+
+    private static final class Neighbour {
+        final long id;
+        final double distanceKm;
+
+        Neighbour(long id, double distanceKm) {
+            this.id = id;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    private static final class NodeEntry {
+        final Node node;
+        final double minDistanceKm;
+
+        NodeEntry(Node node, double minDistanceKm) {
+            this.node = node;
+            this.minDistanceKm = minDistanceKm;
+        }
+    }
+
+    private static final class Node {
+        final double minLat, maxLat, minLon, maxLon;
+        final double midLat, midLon;
+        final int depth;
+
+        // Children in order SW, SE, NW, NE; null while this node is a leaf
+        Node[] children;
+
+        long[] ids = new long[8];
+        double[] lats = new double[8];
+        double[] lons = new double[8];
+        double[] latRads = new double[8];
+        double[] lonRads = new double[8];
+        double[] cosLats = new double[8];
+        String[] categories = new String[8];
+        long[] times = new long[8];
+        int count;
+
+        Node(double minLat, double maxLat, double minLon, double maxLon, int depth) {
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+            this.midLat = (minLat + maxLat) / 2;
+            this.midLon = (minLon + maxLon) / 2;
+            this.depth = depth;
+        }
+
+        Node childFor(double latitude, double longitude) {
+            int index = (latitude >= midLat ? 2 : 0) + (longitude >= midLon ? 1 : 0);
+            return children[index];
+        }
+
+        void add(long id, double latitude, double longitude, String category, long time) {
+            if (count == ids.length) {
+                int capacity = count * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lons = Arrays.copyOf(lons, capacity);
+                latRads = Arrays.copyOf(latRads, capacity);
+                lonRads = Arrays.copyOf(lonRads, capacity);
+                cosLats = Arrays.copyOf(cosLats, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                times = Arrays.copyOf(times, capacity);
+            }
+            ids[count] = id;
+            lats[count] = latitude;
+            lons[count] = longitude;
+            latRads[count] = Math.toRadians(latitude);
+            lonRads[count] = Math.toRadians(longitude);
+            cosLats[count] = Math.cos(latRads[count]);
+            categories[count] = category;
+            times[count] = time;
+            count++;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    // Order inside a leaf is irrelevant, so move the last point into the hole
+                    int last = count - 1;
+                    ids[i] = ids[last];
+                    lats[i] = lats[last];
+                    lons[i] = lons[last];
+                    latRads[i] = latRads[last];
+                    lonRads[i] = lonRads[last];
+                    cosLats[i] = cosLats[last];
+                    categories[i] = categories[last];
+                    times[i] = times[last];
+                    categories[last] = null;
+                    count--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void split() {
+            int childDepth = depth + 1;
+            children = new Node[] {
+                    new Node(minLat, midLat, minLon, midLon, childDepth),
+                    new Node(minLat, midLat, midLon, maxLon, childDepth),
+                    new Node(midLat, maxLat, minLon, midLon, childDepth),
+                    new Node(midLat, maxLat, midLon, maxLon, childDepth)
+            };
+            for (int i = 0; i < count; i++) {
+                Node child = childFor(lats[i], lons[i]);
+                child.add(ids[i], lats[i], lons[i], categories[i], times[i]);
+            }
+            ids = null;
+            lats = null;
+            lons = null;
+            latRads = null;
+            lonRads = null;
+            cosLats = null;
+            categories = null;
+            times = null;
+            count = 0;
+            for (Node child : children) {
+                // All points may share one quadrant (e.g. many events at the same venue)
+                if (child.count > LEAF_CAPACITY && child.depth < MAX_DEPTH) {
+                    child.split();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.culturalmapapp.util;
+
+// Plain loop over the coordinate arrays; the JIT unrolls it but cannot vectorize the sin/asin calls
+public final class ScalarHaversineKernel implements HaversineKernel {
+
+    private static final double DIAMETER_KM = 2 * GeoUtils.EARTH_RADIUS_KM;
+
+    @Override
+    public void distances(double queryLatRad, double queryLonRad, double queryCosLat,
+                          double[] latRad, double[] lonRad, double[] cosLat, int count, double[] distancesKm) {
+        for (int i = 0; i < count; i++) {
+            distancesKm[i] = distanceKm(queryLatRad, queryLonRad, queryCosLat, latRad[i], lonRad[i], cosLat[i]);
+        }
+    }
+
+    static double distanceKm(double queryLatRad, double queryLonRad, double queryCosLat,
+                             double latRad, double lonRad, double cosLat) {
+        double sinHalfDLat = Math.sin((latRad - queryLatRad) * 0.5);
+        double sinHalfDLon = Math.sin((lonRad - queryLonRad) * 0.5);
+        double a = sinHalfDLat * sinHalfDLat + queryCosLat * cosLat * sinHalfDLon * sinHalfDLon;
+        return DIAMETER_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.culturalmapapp.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Same formula as ScalarHaversineKernel, SPECIES_PREFERRED lanes at a time; the tail runs scalar
+public final class VectorHaversineKernel implements HaversineKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DIAMETER_KM = 2 * GeoUtils.EARTH_RADIUS_KM;
+
+    @Override
+    public void distances(double queryLatRad, double queryLonRad, double queryCosLat,
+                          double[] latRad, double[] lonRad, double[] cosLat, int count, double[] distancesKm) {
+        int bound = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector sinHalfDLat = DoubleVector.fromArray(SPECIES, latRad, i)
+                    .sub(queryLatRad).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinHalfDLon = DoubleVector.fromArray(SPECIES, lonRad, i)
+                    .sub(queryLonRad).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector cosProduct = DoubleVector.fromArray(SPECIES, cosLat, i).mul(queryCosLat);
+            DoubleVector a = sinHalfDLon.mul(sinHalfDLon).mul(cosProduct).add(sinHalfDLat.mul(sinHalfDLat));
+            a.sqrt().min(1.0).lanewise(VectorOperators.ASIN).mul(DIAMETER_KM).intoArray(distancesKm, i);
+        }
+        for (; i < count; i++) {
+            distancesKm[i] = ScalarHaversineKernel.distanceKm(queryLatRad, queryLonRad, queryCosLat, latRad[i], lonRad[i], cosLat[i]);
+        }
+    }
+}
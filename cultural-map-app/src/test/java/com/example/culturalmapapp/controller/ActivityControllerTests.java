@@ -1,12 +1,28 @@
 package com.example.culturalmapapp.controller;
 
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.config.ExportConfig;
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.config.PasswordConfig;
 import com.example.culturalmapapp.config.SecurityConfig;
+import com.example.culturalmapapp.dto.ActivityCursorPage;
 import com.example.culturalmapapp.dto.ActivityRequest;
 import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.dto.ClusterResponse;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.exception.ResourceNotFoundException;
 import com.example.culturalmapapp.filter.JwtAuthenticationFilter;
+import com.example.culturalmapapp.service.ActivityChangeTracker;
+import com.example.culturalmapapp.service.ActivityExportService;
+import com.example.culturalmapapp.service.ActivityJsonCache;
+import com.example.culturalmapapp.service.ActivitySearchService;
 import com.example.culturalmapapp.service.ActivityService;
+import com.example.culturalmapapp.service.ClusterService;
+import com.example.culturalmapapp.service.TileService;
 import com.example.culturalmapapp.service.CustomUserDetailsService;
 import com.example.culturalmapapp.service.JwtTokenProvider;
+import com.example.culturalmapapp.service.TokenRevocationService;
+import com.example.culturalmapapp.util.ActivityCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,32 +34,46 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ActivityController.class)
-@Import({SecurityConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, PasswordConfig.class, JwtConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class, ActivityChangeTracker.class,
+        CacheConfig.class, ActivityJsonCache.class, ExportConfig.class})
 public class ActivityControllerTests {
 
     @Autowired
@@ -52,15 +82,33 @@ public class ActivityControllerTests {
     @MockBean
     private ActivityService activityService;
 
+    @MockBean
+    private ClusterService clusterService;
+
+    @MockBean
+    private TileService tileService;
+
+    @MockBean
+    private ActivityExportService activityExportService;
+
+    @MockBean
+    private ActivitySearchService activitySearchService;
+
     @MockBean
     private JwtTokenProvider jwtTokenProvider; // Required by JwtAuthenticationFilter
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService; // Required by JwtAuthenticationFilter
+
     @MockBean
     private CustomUserDetailsService customUserDetailsService; // Required by SecurityConfig
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ActivityJsonCache activityJsonCache;
+
     private ActivityRequest activityRequest;
     private ActivityResponse activityResponse;
 
@@ -70,6 +118,7 @@ public class ActivityControllerTests {
                 .webAppContextSetup(webApplicationContext)
                 .apply(springSecurity())
                 .build();
+        activityJsonCache.onResync(new ActivityResyncEvent()); // The context, and its caches, outlive a test
 
         activityRequest = new ActivityRequest();
         activityRequest.setName("Festival");
@@ -89,7 +138,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
     void testCreateActivity_AsProducer_ReturnsCreated() throws Exception {
-        given(activityService.createActivity(any(ActivityRequest.class), eq("produceruser"))).willReturn(activityResponse);
+        given(activityService.createActivity(any(ActivityRequest.class), argThat(user -> user.getUsername().equals("produceruser")))).willReturn(activityResponse);
 
         mockMvc.perform(post("/api/activities")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -136,24 +185,90 @@ public class ActivityControllerTests {
                 .andExpect(jsonPath("$.name", is("Festival")));
     }
 
-    // --- GET /api/activities ---
+    @Test
+    void testGetActivityById_MatchingETag_ReturnsNotModified() throws Exception {
+        activityResponse.setVersion(3L);
+        given(activityService.getActivityById(1L)).willReturn(activityResponse);
+        mockMvc.perform(get("/api/activities/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+        mockMvc.perform(get("/api/activities/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetActivityById_AcceptsGzip_ReturnsCompressedBytes() throws Exception {
+        activityResponse.setDescription("Annual music festival with local bands. ".repeat(20));
+        activityResponse.setVersion(3L);
+        given(activityService.getActivityById(1L)).willReturn(activityResponse);
+
+        byte[] body = mockMvc.perform(get("/api/activities/1").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(header().string("ETag", "\"3-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("Festival", objectMapper.readValue(in.readAllBytes(), ActivityResponse.class).getName());
+        }
+
+        mockMvc.perform(get("/api/activities/1").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.name", is("Festival")));
+        verify(activityService, times(1)).getActivityById(1L); // Both encodings come from one cached entry
+    }
+
     @Test
     void testGetAllActivities_ReturnsOk() throws Exception {
         Pageable pageable = PageRequest.of(0, 10);
         Page<ActivityResponse> page = new PageImpl<>(Collections.singletonList(activityResponse), pageable, 1);
-        given(activityService.getAllActivities(any(Pageable.class))).willReturn(page);
+        given(activityService.getAllActivities(any(Pageable.class), eq(ActivityService.Total.EXACT))).willReturn(page);
 
         mockMvc.perform(get("/api/activities?page=0&size=10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].name", is("Festival")));
     }
+
+    @Test
+    void testGetAllActivities_MatchingETag_ReturnsNotModifiedWithoutQuery() throws Exception {
+        Page<ActivityResponse> page = new PageImpl<>(Collections.singletonList(activityResponse), PageRequest.of(0, 10), 1);
+        given(activityService.getAllActivities(any(Pageable.class), eq(ActivityService.Total.EXACT))).willReturn(page);
+        String eTag = mockMvc.perform(get("/api/activities?page=0&size=10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/activities?page=0&size=10").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        verify(activityService, times(1)).getAllActivities(any(Pageable.class), eq(ActivityService.Total.EXACT));
+    }
     
+    @Test
+    void testGetAllActivities_TotalNone_ReturnsSliceWithoutTotals() throws Exception {
+        Pageable pageable = PageRequest.of(0, 10);
+        given(activityService.getAllActivities(any(Pageable.class), eq(ActivityService.Total.NONE)))
+                .willReturn(new SliceImpl<>(List.of(activityResponse), pageable, true));
+
+        mockMvc.perform(get("/api/activities?page=0&size=10&total=none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Festival")))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testGetAllActivities_UnknownTotal_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/activities?total=some"))
+                .andExpect(status().isBadRequest());
+    }
+
     // --- PUT /api/activities/{id} ---
     @Test
     @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
     void testUpdateActivity_AsOwnerProducer_ReturnsOk() throws Exception {
-        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), eq("produceruser"))).willReturn(activityResponse);
+        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), argThat(user -> user.getUsername().equals("produceruser")))).willReturn(activityResponse);
 
         mockMvc.perform(put("/api/activities/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -165,7 +280,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "otherproducer", roles = {"PRODUCER"})
     void testUpdateActivity_AsNonOwnerProducer_ReturnsForbidden() throws Exception {
-        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), eq("otherproducer")))
+        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), argThat(user -> user.getUsername().equals("otherproducer"))))
             .willThrow(new AccessDeniedException("Not owner"));
 
         mockMvc.perform(put("/api/activities/1")
@@ -177,7 +292,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "adminuser", roles = {"ADMIN"})
     void testUpdateActivity_AsAdmin_ReturnsOk() throws Exception {
-        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), eq("adminuser"))).willReturn(activityResponse);
+        given(activityService.updateActivity(eq(1L), any(ActivityRequest.class), argThat(user -> user.getUsername().equals("adminuser")))).willReturn(activityResponse);
 
         mockMvc.perform(put("/api/activities/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -200,7 +315,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
     void testDeleteActivity_AsOwnerProducer_ReturnsNoContent() throws Exception {
-        doNothing().when(activityService).deleteActivity(eq(1L), eq("produceruser"));
+        doNothing().when(activityService).deleteActivity(eq(1L), argThat(user -> user.getUsername().equals("produceruser")));
         mockMvc.perform(delete("/api/activities/1"))
                 .andExpect(status().isNoContent());
     }
@@ -208,7 +323,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "otherproducer", roles = {"PRODUCER"})
     void testDeleteActivity_AsNonOwnerProducer_ReturnsForbidden() throws Exception {
-        doThrow(new AccessDeniedException("Not owner")).when(activityService).deleteActivity(eq(1L), eq("otherproducer"));
+        doThrow(new AccessDeniedException("Not owner")).when(activityService).deleteActivity(eq(1L), argThat(user -> user.getUsername().equals("otherproducer")));
         mockMvc.perform(delete("/api/activities/1"))
                 .andExpect(status().isForbidden());
     }
@@ -216,7 +331,7 @@ public class ActivityControllerTests {
     @Test
     @WithMockUser(username = "adminuser", roles = {"ADMIN"})
     void testDeleteActivity_AsAdmin_ReturnsNoContent() throws Exception {
-        doNothing().when(activityService).deleteActivity(eq(1L), eq("adminuser"));
+        doNothing().when(activityService).deleteActivity(eq(1L), argThat(user -> user.getUsername().equals("adminuser")));
         mockMvc.perform(delete("/api/activities/1"))
                 .andExpect(status().isNoContent());
     }
@@ -226,13 +341,34 @@ public class ActivityControllerTests {
     void testSearchActivitiesByCategory_ReturnsOk() throws Exception {
         Pageable pageable = PageRequest.of(0, 5);
         Page<ActivityResponse> page = new PageImpl<>(Collections.singletonList(activityResponse), pageable, 1);
-        given(activityService.getActivitiesByCategory(eq("Music"), any(Pageable.class))).willReturn(page);
+        given(activityService.getActivitiesByCategory(eq("Music"), any(Pageable.class), eq(ActivityService.Total.EXACT))).willReturn(page);
 
         mockMvc.perform(get("/api/activities/search?category=Music&page=0&size=5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name", is("Festival")));
     }
 
+    @Test
+    void testSearchActivitiesByCategory_WithAfter_ReturnsCursorPage() throws Exception {
+        given(activityService.getActivitiesAfter(eq("Music"), any(ActivityCursor.class), eq(1)))
+                .willReturn(new ActivityCursorPage(List.of(activityResponse), 1, "bmV4dA"));
+
+        mockMvc.perform(get("/api/activities/search?category=Music&after=&size=1&sort=dateTime,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Festival")))
+                .andExpect(jsonPath("$.nextCursor", is("bmV4dA")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        verify(activityService).getActivitiesAfter(eq("Music"), argThat(cursor -> cursor.isStart() && cursor.isDescending()), eq(1));
+    }
+
+    @Test
+    void testGetAllActivities_WithInvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/activities?after=garbage!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/activities?after=&sort=name"))
+                .andExpect(status().isBadRequest());
+    }
+
     // --- GET /api/activities/near ---
     @Test
     void testGetActivitiesNear_ReturnsOk() throws Exception {
@@ -244,4 +380,185 @@ public class ActivityControllerTests {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name", is("Festival")));
     }
+
+    // --- GET /api/activities/by-neighbourhood/{id} ---
+    @Test
+    void testGetActivitiesByNeighbourhood_ReturnsOk() throws Exception {
+        given(activityService.getActivitiesByNeighbourhood(eq("benfica"), any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(activityResponse)));
+
+        mockMvc.perform(get("/api/activities/by-neighbourhood/benfica"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    void testGetActivitiesByNeighbourhood_Unknown_ReturnsNotFound() throws Exception {
+        given(activityService.getActivitiesByNeighbourhood(eq("atlantis"), any(Pageable.class)))
+                .willThrow(new ResourceNotFoundException("Neighbourhood not found with id: atlantis"));
+
+        mockMvc.perform(get("/api/activities/by-neighbourhood/atlantis"))
+                .andExpect(status().isNotFound());
+    }
+
+    // --- GET /api/activities/nearest ---
+    @Test
+    void testGetNearestActivities_ReturnsOk() throws Exception {
+        ActivityResponse nearest = new ActivityResponse();
+        nearest.setId(1L);
+        nearest.setName("Festival");
+        nearest.setDistanceKm(0.4);
+        given(activityService.getNearestActivities(-3.72, -38.52, 5, "Music", null, null)).willReturn(List.of(nearest));
+
+        mockMvc.perform(get("/api/activities/nearest?latitude=-3.72&longitude=-38.52&k=5&category=Music"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Festival")))
+                .andExpect(jsonPath("$[0].distanceKm", is(0.4)));
+    }
+
+    // --- GET /api/activities/text-search ---
+    @Test
+    void testSearchActivitiesByText_ReturnsOk() throws Exception {
+        ActivityResponse match = new ActivityResponse();
+        match.setId(1L);
+        match.setName("Forró no Dragão");
+        match.setDistanceKm(1.2);
+        given(activitySearchService.search(eq("forro"), eq(-3.72), eq(-38.52), eq(5.0), eq(null), eq(null), any(Pageable.class)))
+                .willReturn(new PageImpl<>(List.of(match)));
+
+        mockMvc.perform(get("/api/activities/text-search?q=forro&latitude=-3.72&longitude=-38.52&radius=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Forró no Dragão")))
+                .andExpect(jsonPath("$.content[0].distanceKm", is(1.2)));
+    }
+
+    @Test
+    void testSearchActivitiesByText_InvalidInput_ReturnsBadRequest() throws Exception {
+        given(activitySearchService.search(eq("forro"), eq(-3.72), eq(null), eq(null), eq(null), eq(null), any(Pageable.class)))
+                .willThrow(new IllegalArgumentException("latitude, longitude and radius must be given together."));
+
+        mockMvc.perform(get("/api/activities/text-search?q=forro&latitude=-3.72"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("latitude, longitude and radius must be given together."));
+    }
+
+    // --- GET /api/activities/quick-search ---
+    @Test
+    void testQuickSearchActivities_ReturnsOk() throws Exception {
+        ActivityResponse match = new ActivityResponse();
+        match.setId(1L);
+        match.setName("Forró no Dragão");
+        match.setScore(3.5);
+        given(activitySearchService.quickSearch("forro", 5)).willReturn(List.of(match));
+
+        mockMvc.perform(get("/api/activities/quick-search?q=forro&k=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Forró no Dragão")))
+                .andExpect(jsonPath("$[0].score", is(3.5)));
+    }
+
+    @Test
+    void testQuickSearchActivities_IndexDisabled_ReturnsServiceUnavailable() throws Exception {
+        given(activitySearchService.quickSearch("forro", 10)).willThrow(new IllegalStateException("The text index is disabled."));
+
+        mockMvc.perform(get("/api/activities/quick-search?q=forro"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // --- GET /api/activities/clusters ---
+    @Test
+    void testGetClusters_ReturnsOk() throws Exception {
+        given(clusterService.getClusters(-3.89, -3.69, -38.64, -38.40, 12))
+                .willReturn(List.of(new ClusterResponse(-3.75, -38.52, 12, null)));
+
+        mockMvc.perform(get("/api/activities/clusters?bbox=-38.64,-3.89,-38.40,-3.69&zoom=12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].count", is(12)));
+    }
+
+    @Test
+    void testGetClusters_MalformedBbox_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/activities/clusters?bbox=-38.64,-3.89&zoom=12"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- GET /api/activities/tiles/{z}/{x}/{y}.mvt ---
+    @Test
+    void testGetTile_ReturnsTileBytes() throws Exception {
+        given(tileService.getTile(12, 1608, 2091)).willReturn(new byte[] {0x1a, 0x00});
+
+        mockMvc.perform(get("/api/activities/tiles/12/1608/2091.mvt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TileService.MVT_MEDIA_TYPE))
+                .andExpect(content().bytes(new byte[] {0x1a, 0x00}));
+    }
+
+    @Test
+    void testGetTile_EmptyTile_ReturnsNoContent() throws Exception {
+        given(tileService.getTile(3, 1, 1)).willReturn(new byte[0]);
+
+        mockMvc.perform(get("/api/activities/tiles/3/1/1.mvt"))
+                .andExpect(status().isNoContent());
+    }
+
+    // --- GET /api/activities/export ---
+    @Test
+    @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
+    void testExport_CsvWithGzip_StreamedCompressed() throws Exception {
+        given(activityExportService.tryAcquireSlot()).willReturn(true);
+        given(activityExportService.export(eq(ActivityExportService.Format.CSV), any(OutputStream.class))).willAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("id,name\r\n1,Festival\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/api/activities/export?format=csv").header("Accept-Encoding", "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"activities.csv\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("id,name\r\n1,Festival\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(activityExportService).releaseSlot();
+    }
+
+    @Test
+    @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
+    void testExport_AllSlotsTaken_ReturnsServiceUnavailableWithRetryAfter() throws Exception {
+        given(activityExportService.tryAcquireSlot()).willReturn(false);
+
+        MvcResult started = mockMvc.perform(get("/api/activities/export")).andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+        verify(activityExportService, times(0)).export(any(), any());
+    }
+
+    @Test
+    void testExport_Unauthenticated_IsRefused() throws Exception {
+        mockMvc.perform(get("/api/activities/export"))
+                .andExpect(result -> assertTrue(result.getResponse().getStatus() == 401 || result.getResponse().getStatus() == 403));
+        verify(activityExportService, times(0)).tryAcquireSlot();
+    }
+
+    @Test
+    @WithMockUser(username = "consumeruser", roles = {"CONSUMER"})
+    void testExport_AsConsumer_IsForbidden() throws Exception {
+        mockMvc.perform(get("/api/activities/export"))
+                .andExpect(status().isForbidden());
+        verify(activityExportService, times(0)).tryAcquireSlot();
+    }
+
+    @Test
+    @WithMockUser(username = "produceruser", roles = {"PRODUCER"})
+    void testExport_UnsupportedFormat_ReturnsBadRequest() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/activities/export?format=xml")).andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported export format: xml. Use csv or ndjson."));
+    }
 }
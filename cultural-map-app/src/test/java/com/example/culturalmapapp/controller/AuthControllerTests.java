@@ -2,10 +2,14 @@ package com.example.culturalmapapp.controller;
 
 import com.example.culturalmapapp.dto.LoginRequest;
 import com.example.culturalmapapp.dto.LoginResponse;
+import com.example.culturalmapapp.dto.RefreshTokenRequest;
+import com.example.culturalmapapp.exception.InvalidRefreshTokenException;
 import com.example.culturalmapapp.dto.UserRegistrationRequest;
 import com.example.culturalmapapp.exception.UserAlreadyExistsException;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.service.JwtTokenProvider;
+import com.example.culturalmapapp.service.RefreshTokenService;
+import com.example.culturalmapapp.service.TokenRevocationService;
 import com.example.culturalmapapp.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,12 +26,15 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.config.PasswordConfig;
 import com.example.culturalmapapp.config.SecurityConfig; // Import your security config
 import com.example.culturalmapapp.service.CustomUserDetailsService; // Import if SecurityConfig depends on it directly for bean creation
 import com.example.culturalmapapp.filter.JwtAuthenticationFilter; // Import if SecurityConfig depends on it
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -39,7 +46,7 @@ import static org.hamcrest.Matchers.is;
 @WebMvcTest(AuthController.class)
 // Import SecurityConfig to apply security filters. 
 // Also import other beans that SecurityConfig might depend on if they are not already scanned by WebMvcTest.
-@Import({SecurityConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, PasswordConfig.class, JwtConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class})
 public class AuthControllerTests {
 
     @Autowired
@@ -53,6 +60,12 @@ public class AuthControllerTests {
 
     @MockBean
     private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService; // Required by JwtAuthenticationFilter
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
     
     // CustomUserDetailsService is already imported via @Import if needed by SecurityConfig for bean creation
     // No need to @MockBean it if its interactions are not directly tested here or if SecurityConfig uses a real one.
@@ -138,16 +151,59 @@ public class AuthControllerTests {
     void testAuthenticateUser_ValidCredentials_ReturnsToken() throws Exception {
         Authentication authentication = mock(Authentication.class);
         when(authenticationManager.authenticate(any())).thenReturn(authentication);
-        when(jwtTokenProvider.generateToken(authentication)).thenReturn("mock.jwt.token");
+        when(refreshTokenService.issueTokens(authentication)).thenReturn(new LoginResponse("mock.jwt.token", "mock-refresh", 900));
 
         mockMvc.perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.accessToken", is("mock.jwt.token")))
+                .andExpect(jsonPath("$.refreshToken", is("mock-refresh")))
+                .andExpect(jsonPath("$.expiresIn", is(900)))
                 .andExpect(jsonPath("$.tokenType", is("Bearer")));
     }
 
+    @Test
+    void testRefreshToken_ValidToken_ReturnsNewPair() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("old-refresh");
+        when(refreshTokenService.refresh("old-refresh")).thenReturn(new LoginResponse("new.jwt.token", "new-refresh", 900));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken", is("new.jwt.token")))
+                .andExpect(jsonPath("$.refreshToken", is("new-refresh")));
+    }
+
+    @Test
+    void testRefreshToken_ReusedToken_ReturnsUnauthorized() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("used-refresh");
+        when(refreshTokenService.refresh("used-refresh")).thenThrow(new InvalidRefreshTokenException("Refresh token already used"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message", is("Refresh token already used")));
+    }
+
+    @Test
+    void testLogout_RevokesAccessAndRefreshToken() throws Exception {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken("refresh");
+
+        mockMvc.perform(post("/api/auth/logout")
+                .header("Authorization", "Bearer access.jwt.token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNoContent());
+
+        verify(refreshTokenService).logout("access.jwt.token", "refresh");
+    }
+
     @Test
     void testAuthenticateUser_InvalidCredentials_ReturnsUnauthorized() throws Exception {
         when(authenticationManager.authenticate(any()))
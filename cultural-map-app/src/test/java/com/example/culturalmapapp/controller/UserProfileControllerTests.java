@@ -1,5 +1,7 @@
 package com.example.culturalmapapp.controller;
 
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.config.PasswordConfig;
 import com.example.culturalmapapp.config.SecurityConfig;
 import com.example.culturalmapapp.dto.ChangePasswordRequest;
 import com.example.culturalmapapp.dto.UpdateUserProfileRequest;
@@ -9,6 +11,7 @@ import com.example.culturalmapapp.filter.JwtAuthenticationFilter;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.service.CustomUserDetailsService;
 import com.example.culturalmapapp.service.JwtTokenProvider;
+import com.example.culturalmapapp.service.TokenRevocationService;
 import com.example.culturalmapapp.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,7 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserProfileController.class)
-@Import({SecurityConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class})
+@Import({SecurityConfig.class, PasswordConfig.class, JwtConfig.class, CustomUserDetailsService.class, JwtTokenProvider.class, JwtAuthenticationFilter.class})
 public class UserProfileControllerTests {
 
     @Autowired
@@ -48,6 +51,9 @@ public class UserProfileControllerTests {
     @MockBean
     private JwtTokenProvider jwtTokenProvider; // Required by JwtAuthenticationFilter
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService; // Required by JwtAuthenticationFilter
+
     @MockBean
     private CustomUserDetailsService customUserDetailsService; // Required by SecurityConfig
 
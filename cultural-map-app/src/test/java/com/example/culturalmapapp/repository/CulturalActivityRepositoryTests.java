@@ -0,0 +1,211 @@
+package com.example.culturalmapapp.repository;
+
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.util.ActivityCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Read queries against an in-memory database, counting the SQL Hibernate actually sends
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+public class CulturalActivityRepositoryTests {
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Five producers, so an N+1 over the producer would show up as extra statements
+        List<User> producers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User producer = new User(null, "producer" + i, "hashed", "producer" + i + "@example.com", "ROLE_PRODUCER");
+            entityManager.persist(producer);
+            producers.add(producer);
+        }
+        for (int i = 0; i < 25; i++) {
+            CulturalActivity activity = new CulturalActivity(null, "Activity " + i, "Desc " + i, LocalDateTime.now().plusDays(i),
+                    -3.73, -38.52, i % 2 == 0 ? "Music" : "Theatre", producers.get(i % producers.size()));
+            activity.setNeighbourhoodId("benfica");
+            entityManager.persist(activity);
+            ids.add(activity.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllResponses_PartialPage_OneStatementNoEntities() {
+        Page<ActivityResponse> page = activityRepository.findAllResponses(PageRequest.of(0, 50, Sort.by("name")));
+
+        assertEquals(25, page.getContent().size());
+        assertEquals(25, page.getTotalElements());
+        page.getContent().forEach(response -> assertTrue(response.getProducerUsername().startsWith("producer")));
+        // The total follows from a partial first page, so Spring Data skips the count query
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindAllResponses_FullPage_ContentAndCountOnly() {
+        Page<ActivityResponse> page = activityRepository.findAllResponses(PageRequest.of(0, 10, Sort.by("name")));
+
+        assertEquals(10, page.getContent().size());
+        assertEquals(25, page.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindResponsesByCategoryAndNeighbourhood_OneStatementPerPage() {
+        Page<ActivityResponse> music = activityRepository.findResponsesByCategory("Music", PageRequest.of(0, 20));
+        Page<ActivityResponse> benfica = activityRepository.findResponsesByNeighbourhoodId("benfica", PageRequest.of(0, 30));
+
+        assertEquals(13, music.getTotalElements());
+        assertEquals(25, benfica.getTotalElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindResponseSlice_OneStatementReadsOneExtraRow() {
+        Slice<ActivityResponse> middle = activityRepository.findAllResponseSlice(PageRequest.of(1, 10, Sort.by("id")));
+        Slice<ActivityResponse> last = activityRepository.findResponseSliceByCategory("Music", PageRequest.of(1, 10, Sort.by("id")));
+
+        assertEquals(10, middle.getNumberOfElements());
+        assertTrue(middle.hasNext());
+        assertEquals(3, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+        // No count query for either
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCountByCategory_OneRowPerCategory() {
+        List<CategoryCountView> counts = activityRepository.countByCategory();
+
+        assertEquals(2, counts.size());
+        assertEquals(13, counts.stream().filter(row -> "Music".equals(row.getCategory())).findFirst().orElseThrow().getCount());
+    }
+
+    @Test
+    void testFindResponseById_OneStatementWithProducerUsername() {
+        ActivityResponse response = activityRepository.findResponseById(ids.get(3)).orElseThrow();
+
+        assertEquals("Activity 3", response.getName());
+        assertEquals("producer3", response.getProducerUsername());
+        assertNotNull(response.getVersion());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindResponsesByIdIn_OneStatementForAllIds() {
+        List<ActivityResponse> responses = activityRepository.findResponsesByIdIn(ids.subList(0, 12));
+
+        assertEquals(12, responses.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindWithProducerById_LoadsProducerInSameStatement() {
+        CulturalActivity activity = activityRepository.findWithProducerById(ids.get(1)).orElseThrow();
+
+        assertEquals("producer1", activity.getProducer().getUsername());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindResponsesAfter_WalksEveryRowOnceInKeyOrder() {
+        // Ties on dateTime are broken by id, so no row is skipped or repeated at a page boundary
+        CulturalActivity tie = activityRepository.findById(ids.get(4)).orElseThrow();
+        CulturalActivity other = activityRepository.findById(ids.get(5)).orElseThrow();
+        other.setDateTime(tie.getDateTime());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        ActivityCursor cursor = ActivityCursor.start(ActivityCursor.SortKey.DATE_TIME, false);
+        List<ActivityResponse> page;
+        do {
+            page = activityRepository.findResponsesAfter(null, cursor, 5);
+            page.forEach(response -> seen.add(response.getId()));
+            if (!page.isEmpty()) {
+                ActivityResponse last = page.get(page.size() - 1);
+                cursor = cursor.after(last.getDateTime(), last.getId());
+            }
+        } while (page.size() == 5);
+
+        assertEquals(ids, seen);
+    }
+
+    @Test
+    void testFindResponsesAfter_InsertBeforeCursor_DoesNotShiftNextPage() {
+        ActivityCursor start = ActivityCursor.start(ActivityCursor.SortKey.DATE_TIME, true);
+        List<ActivityResponse> first = activityRepository.findResponsesAfter("Music", start, 4);
+        ActivityResponse last = first.get(3);
+
+        // A new activity sorting before the cursor; an offset would now repeat the last row of the first page
+        CulturalActivity inserted = new CulturalActivity(null, "Late addition", "Desc", LocalDateTime.now().plusYears(1),
+                -3.73, -38.52, "Music", entityManager.find(User.class, userId(last.getProducerUsername())));
+        entityManager.persist(inserted);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ActivityResponse> second = activityRepository.findResponsesAfter("Music", start.after(last.getDateTime(), last.getId()), 4);
+
+        assertEquals(4, second.size());
+        assertTrue(second.get(0).getDateTime().isBefore(last.getDateTime()));
+        second.forEach(response -> assertEquals("Music", response.getCategory()));
+        assertTrue(second.stream().noneMatch(response -> first.stream().anyMatch(seen -> seen.getId().equals(response.getId()))));
+    }
+
+    @Test
+    void testFindResponsesAfter_ById_OneStatementNoCount() {
+        List<ActivityResponse> page = activityRepository.findResponsesAfter(null,
+                ActivityCursor.start(ActivityCursor.SortKey.ID, false).after(null, ids.get(19)), 10);
+
+        assertEquals(ids.subList(20, 25), page.stream().map(ActivityResponse::getId).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private Long userId(String username) {
+        return entityManager.createQuery("SELECT u.id FROM User u WHERE u.username = :username", Long.class)
+                .setParameter("username", username)
+                .getSingleResult();
+    }
+}
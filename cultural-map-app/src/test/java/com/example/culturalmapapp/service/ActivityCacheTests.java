@@ -0,0 +1,126 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityRequest;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.dto.CacheStatsResponse;
+import com.example.culturalmapapp.exception.ResourceNotFoundException;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Runs ActivityService behind the real cache proxy; everything it talks to is mocked
+@SpringJUnitConfig({CacheConfig.class, GeoConfig.class, ActivityService.class, ActivityChangeTracker.class, CacheStatsService.class})
+public class ActivityCacheTests {
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private CulturalActivityRepository activityRepository;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private SpatialIndexService spatialIndexService;
+
+    @MockBean
+    private NeighbourhoodService neighbourhoodService;
+
+    @MockBean
+    private NearQueryCache nearQueryCache;
+
+    @MockBean
+    private UserLookupService userLookupService;
+
+    @MockBean
+    private ActivityCountService activityCountService;
+
+    private CulturalActivity activity;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ACTIVITIES).clear();
+        admin = new User(1L, "admin", "password", "admin@example.com", "ROLE_ADMIN");
+        activity = new CulturalActivity(1L, "Concert", "Live music", LocalDateTime.now().plusDays(1), -3.73, -38.52, "Music", admin);
+        when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
+        when(activityRepository.findWithProducerById(1L)).thenReturn(Optional.of(activity));
+        when(activityRepository.findResponseById(1L)).thenReturn(Optional.of(new ActivityResponse(1L, "Concert", "Live music",
+                activity.getDateTime(), -3.73, -38.52, "Music", null, "admin", 0L, null)));
+        when(activityRepository.save(any(CulturalActivity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private AuthenticatedUser adminPrincipal() {
+        return new AuthenticatedUser(admin.getId(), admin.getUsername(), "", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    void testGetActivityById_RepeatedLookups_HitDatabaseOnce() {
+        ActivityResponse first = activityService.getActivityById(1L);
+        ActivityResponse second = activityService.getActivityById(1L);
+
+        assertEquals("Concert", second.getName());
+        assertSame(first, second);
+        verify(activityRepository, times(1)).findResponseById(1L);
+
+        CacheStatsResponse stats = cacheStatsService.getCacheStats().stream()
+                .filter(s -> s.getName().equals(CacheConfig.ACTIVITIES)).findFirst().orElseThrow();
+        assertTrue(stats.getHitCount() >= 1);
+        assertTrue(stats.getMissCount() >= 1);
+    }
+
+    @Test
+    void testUpdateActivity_RefreshesCachedEntry() {
+        activityService.getActivityById(1L);
+
+        ActivityRequest request = new ActivityRequest();
+        request.setName("Renamed");
+        request.setDescription("Live music");
+        request.setDateTime(activity.getDateTime());
+        request.setLatitude(-3.73);
+        request.setLongitude(-38.52);
+        request.setCategory("Music");
+        activityService.updateActivity(1L, request, adminPrincipal());
+
+        assertEquals("Renamed", activityService.getActivityById(1L).getName());
+        // One lookup for the first read, one inside the update; the read after it is a hit
+        verify(activityRepository, times(1)).findResponseById(1L);
+        verify(activityRepository, times(1)).findWithProducerById(1L);
+    }
+
+    @Test
+    void testDeleteActivity_EvictsCachedEntry() {
+        activityService.getActivityById(1L);
+
+        activityService.deleteActivity(1L, adminPrincipal());
+        when(activityRepository.findResponseById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> activityService.getActivityById(1L));
+    }
+}
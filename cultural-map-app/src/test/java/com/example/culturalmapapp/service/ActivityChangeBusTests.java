@@ -0,0 +1,178 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.event.ActivityChangeNotification;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityChangeBusTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CulturalActivityRepository activityRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CacheConfig cacheConfig = new CacheConfig();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ActivityChangeBus bus;
+
+    private static CulturalActivity activity(double latitude, String category) {
+        return new CulturalActivity(7L, "Concert", "Live music", LocalDateTime.now(), latitude, -38.52, category, null);
+    }
+
+    private String published(ActivityChangedEvent event) {
+        bus.publish(event);
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(eq("SELECT pg_notify(?, ?)"), eq("activity_changes"), payload.capture());
+        return payload.getValue();
+    }
+
+    @Test
+    void testPublish_CarriesOldAndNewLocationAndSkipsOwnNotification() throws Exception {
+        String payload = published(ActivityChangedEvent.updated(activity(-3.73, "Theatre"), -3.70, -38.50, "Music"));
+
+        ActivityChangeNotification notification = objectMapper.readValue(payload, ActivityChangeNotification.class);
+        assertEquals(ActivityChangedEvent.Type.UPDATED, notification.getType());
+        assertEquals(7L, notification.getId());
+        assertEquals(-3.73, notification.getLatitude());
+        assertEquals("Theatre", notification.getCategory());
+        assertEquals(-3.70, notification.getPreviousLatitude());
+        assertEquals("Music", notification.getPreviousCategory());
+
+        bus.onNotification(payload); // Echo of this node's own write
+        verifyNoInteractions(eventPublisher, activityRepository);
+    }
+
+    @Test
+    void testPublish_RemoteEventsAreNotForwardedAgain() {
+        bus.publish(ActivityChangedEvent.remote(ActivityChangedEvent.Type.CREATED, activity(-3.73, "Music"), null, null, null));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testOnNotification_OtherNodeUpdate_RepublishedAsRemoteEventWithReloadedActivity() throws Exception {
+        CulturalActivity reloaded = activity(-3.73, "Theatre");
+        when(activityRepository.findById(7L)).thenReturn(Optional.of(reloaded));
+
+        bus.onNotification(objectMapper.writeValueAsString(new ActivityChangeNotification("other-node",
+                ActivityChangedEvent.Type.UPDATED, 7L, -3.73, -38.52, "Theatre", -3.70, -38.50, "Music", false)));
+
+        ArgumentCaptor<ActivityChangedEvent> event = ArgumentCaptor.forClass(ActivityChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().isRemote());
+        assertEquals(ActivityChangedEvent.Type.UPDATED, event.getValue().getType());
+        assertSame(reloaded, event.getValue().getActivity());
+        assertEquals(-3.70, event.getValue().getPreviousLatitude());
+        assertEquals("Music", event.getValue().getPreviousCategory());
+    }
+
+    @Test
+    void testOnNotification_UpdatedActivityGoneSince_RemovedAtOldAndNewLocation() throws Exception {
+        when(activityRepository.findById(7L)).thenReturn(Optional.empty());
+
+        bus.onNotification(objectMapper.writeValueAsString(new ActivityChangeNotification("other-node",
+                ActivityChangedEvent.Type.UPDATED, 7L, -3.73, -38.52, "Theatre", -3.70, -38.50, "Music", false)));
+
+        ArgumentCaptor<ActivityChangedEvent> events = ArgumentCaptor.forClass(ActivityChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        List<ActivityChangedEvent> published = events.getAllValues();
+        assertTrue(published.stream().allMatch(e -> e.isRemote() && e.getType() == ActivityChangedEvent.Type.DELETED));
+        assertEquals(List.of(-3.70, -3.73), published.stream().map(ActivityChangedEvent::getPreviousLatitude).toList());
+    }
+
+    @Test
+    void testAnnounceResync_OtherNodesResyncButNotThisOne() throws Exception {
+        bus.announceResync(new ActivityResyncEvent()); // A reconnect resync stays local
+        verifyNoInteractions(jdbcTemplate);
+
+        bus.announceResync(new ActivityResyncEvent(true));
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(eq("SELECT pg_notify(?, ?)"), eq("activity_changes"), payload.capture());
+
+        bus.onNotification(payload.getValue()); // Own echo
+        verifyNoInteractions(eventPublisher);
+
+        ActivityChangeNotification fromOtherNode = objectMapper.readValue(payload.getValue(), ActivityChangeNotification.class);
+        fromOtherNode.setNode("other-node");
+        bus.onNotification(objectMapper.writeValueAsString(fromOtherNode));
+        ArgumentCaptor<ActivityResyncEvent> event = ArgumentCaptor.forClass(ActivityResyncEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertFalse(event.getValue().isAnnounce()); // Not passed on again
+        verifyNoInteractions(activityRepository);
+    }
+
+    @Test
+    void testOnNotification_MalformedPayloadIgnored() {
+        bus.onNotification("not json");
+
+        verifyNoInteractions(eventPublisher, activityRepository, jdbcTemplate);
+    }
+
+    @Test
+    void testListen_ResyncsOnFirstListenAndAgainAfterReconnect() throws Exception {
+        cacheConfig.setBusReconnectDelay(Duration.ofMillis(10));
+        cacheConfig.setBusPollTimeout(Duration.ofMillis(10));
+        Connection dropped = listeningConnection();
+        when(dropped.unwrap(PGConnection.class).getNotifications(anyInt())).thenThrow(new SQLException("Connection reset"));
+        Connection healthy = listeningConnection();
+        when(healthy.unwrap(PGConnection.class).getNotifications(anyInt())).thenReturn(new PGNotification[0]);
+        when(healthy.isValid(anyInt())).thenReturn(true);
+        ActivityChangeBus listeningBus = spy(bus);
+        doReturn(dropped, healthy).when(listeningBus).openConnection();
+
+        listeningBus.start();
+        try {
+            // Once when the first LISTEN succeeds, once more after the dropped connection is replaced
+            verify(eventPublisher, timeout(5000).times(2)).publishEvent(any(ActivityResyncEvent.class));
+            verify(listeningBus, times(2)).openConnection();
+        } finally {
+            listeningBus.stop();
+        }
+    }
+
+    private static Connection listeningConnection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        return connection;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityChangeTrackerTests {
+
+    private final ActivityChangeTracker tracker = new ActivityChangeTracker();
+
+    private static CulturalActivity activity(String category) {
+        return new CulturalActivity(1L, "Concert", "Live music", LocalDateTime.now(), -3.73, -38.52, category, null);
+    }
+
+    @Test
+    void testWrite_ChangesGlobalAndOwnCategoryTagsOnly() {
+        String all = tracker.eTag("all", tracker.all());
+        String music = tracker.eTag("category", tracker.category("Music"));
+        String theatre = tracker.eTag("category", tracker.category("Theatre"));
+
+        tracker.onActivityChanged(ActivityChangedEvent.created(activity("Music")));
+
+        assertNotEquals(all, tracker.eTag("all", tracker.all()));
+        assertNotEquals(music, tracker.eTag("category", tracker.category("Music")));
+        assertEquals(theatre, tracker.eTag("category", tracker.category("Theatre")));
+    }
+
+    @Test
+    void testCategoryChange_BumpsPreviousAndNewCategory() {
+        long music = tracker.category("Music").getVersion();
+        long theatre = tracker.category("Theatre").getVersion();
+
+        tracker.onActivityChanged(ActivityChangedEvent.updated(activity("Theatre"), -3.73, -38.52, "Music"));
+
+        assertEquals(music + 1, tracker.category("Music").getVersion());
+        assertEquals(theatre + 1, tracker.category("Theatre").getVersion());
+    }
+
+    @Test
+    void testResync_ChangesEveryTagAndKeepsCountersIncreasing() {
+        tracker.onActivityChanged(ActivityChangedEvent.created(activity("Music")));
+        String all = tracker.eTag("all", tracker.all());
+        long music = tracker.category("Music").getVersion();
+        long theatre = tracker.category("Theatre").getVersion();
+
+        tracker.onResync(new ActivityResyncEvent());
+
+        assertNotEquals(all, tracker.eTag("all", tracker.all()));
+        assertTrue(tracker.category("Music").getVersion() > music);
+        assertTrue(tracker.category("Theatre").getVersion() > theatre);
+        long afterResync = tracker.category("Music").getVersion();
+        tracker.onActivityChanged(ActivityChangedEvent.created(activity("Music")));
+        assertTrue(tracker.category("Music").getVersion() > afterResync);
+    }
+
+    @Test
+    void testETags_DifferBetweenInstances() {
+        // A restart must not revalidate tags handed out by the previous process
+        assertNotEquals(tracker.eTag("all", tracker.all()), new ActivityChangeTracker().eTag("all", tracker.all()));
+    }
+}
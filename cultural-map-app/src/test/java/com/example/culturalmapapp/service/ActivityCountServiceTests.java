@@ -0,0 +1,93 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.repository.CategoryCountView;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityCountServiceTests {
+
+    @Mock
+    private CulturalActivityRepository activityRepository;
+
+    @InjectMocks
+    private ActivityCountService countService;
+
+    private static CategoryCountView row(String category, long count) {
+        return new CategoryCountView() {
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static CulturalActivity activity(String category) {
+        return new CulturalActivity(1L, "Concert", "Live music", LocalDateTime.now(), -3.73, -38.52, category, null);
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(activityRepository.countByCategory()).thenReturn(List.of(row("Music", 10), row("Theatre", 4), row(null, 1)));
+        countService.load();
+    }
+
+    @Test
+    void testLoad_SeedsTotalAndCategories() {
+        assertEquals(15, countService.approximateTotal());
+        assertEquals(10, countService.approximateTotal("Music"));
+        assertEquals(0, countService.approximateTotal("Dance"));
+    }
+
+    @Test
+    void testWrites_MoveTotalAndCategories() {
+        countService.onActivityChanged(ActivityChangedEvent.created(activity("Dance")));
+        countService.onActivityChanged(ActivityChangedEvent.updated(activity("Theatre"), -3.73, -38.52, "Music"));
+        countService.onActivityChanged(ActivityChangedEvent.deleted(activity("Theatre")));
+
+        assertEquals(15, countService.approximateTotal());
+        assertEquals(1, countService.approximateTotal("Dance"));
+        assertEquals(9, countService.approximateTotal("Music"));
+        assertEquals(4, countService.approximateTotal("Theatre"));
+    }
+
+    @Test
+    void testVanishedRemoteActivity_IsNotCountedAsDeleted() {
+        // A remote create whose row is already gone: never counted, so its made-up delete must not be either
+        countService.onActivityChanged(ActivityChangedEvent.vanished(activity("Music"), -3.73, -38.52, "Music"));
+
+        assertEquals(15, countService.approximateTotal());
+        assertEquals(10, countService.approximateTotal("Music"));
+    }
+
+    @Test
+    void testResync_ReloadsFromTheTable() {
+        countService.onActivityChanged(ActivityChangedEvent.created(activity("Music")));
+        when(activityRepository.countByCategory()).thenReturn(List.of(row("Music", 3)));
+
+        countService.onResync(new ActivityResyncEvent());
+
+        assertEquals(3, countService.approximateTotal());
+        assertEquals(0, countService.approximateTotal("Theatre"));
+        verify(activityRepository, times(2)).countByCategory();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.ExportConfig;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.util.CsvReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Exports from an in-memory database through the same cursor query production uses
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Import({ActivityExportService.class, ExportConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class ActivityExportServiceTests {
+
+    @Autowired
+    private ActivityExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User producer = new User(null, "producer", "hashed", "producer@example.com", "ROLE_PRODUCER");
+        entityManager.persist(producer);
+        for (int i = 0; i < 25; i++) {
+            CulturalActivity activity = new CulturalActivity(null, i == 3 ? "Forró \"pé de serra\", ao vivo" : "Activity " + i,
+                    "Line one\nline two", LocalDateTime.of(2024, 7, 20, 18, 0).plusDays(i), -3.73, -38.52, "Music", producer);
+            entityManager.persist(activity);
+            ids.add(activity.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testExportCsv_HeaderAndEveryRowInIdOrder_ReadableBack() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        assertEquals(25, exportService.export(ActivityExportService.Format.CSV, output));
+
+        CsvReader reader = new CsvReader(new StringReader(output.toString(StandardCharsets.UTF_8)));
+        assertEquals(List.of("id", "name", "description", "dateTime", "latitude", "longitude", "category",
+                "neighbourhoodId", "producerUsername", "version", "updatedAt"), reader.readRecord());
+        List<Long> exported = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            exported.add(Long.valueOf(record.get(0)));
+            if (exported.size() == 4) {
+                assertEquals("Forró \"pé de serra\", ao vivo", record.get(1));
+                assertEquals("Line one\nline two", record.get(2));
+                assertEquals("2024-07-23T18:00", record.get(3));
+                assertEquals("producer", record.get(8));
+            }
+        }
+        assertEquals(ids, exported);
+        // One query for everything; no entities, so nothing piles up in the persistence context
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testExportNdjson_OneObjectPerLine() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.export(ActivityExportService.Format.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(25, lines.length);
+        JsonNode fourth = objectMapper.readTree(lines[3]);
+        assertEquals(ids.get(3), fourth.get("id").asLong());
+        assertEquals("Forró \"pé de serra\", ao vivo", fourth.get("name").asText());
+        assertEquals("2024-07-23T18:00:00", fourth.get("dateTime").asText());
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+}
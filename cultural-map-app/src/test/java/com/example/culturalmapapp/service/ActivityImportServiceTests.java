@@ -0,0 +1,182 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.ImportConfig;
+import com.example.culturalmapapp.dto.ActivityImportReport;
+import com.example.culturalmapapp.event.ActivityResyncEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Imports into an in-memory database; every batch commits on its own, as in production
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.import.batch-size=50",
+        "app.import.max-reported-rejections=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ActivityImportService.class, ImportConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@RecordApplicationEvents
+public class ActivityImportServiceTests {
+
+    private static final String HEADER = "externalId,name,description,dateTime,latitude,longitude,category\n";
+
+    @Autowired
+    private ActivityImportService importService;
+
+    @Autowired
+    private CulturalActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private NeighbourhoodService neighbourhoodService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(new User(null, "admin", "hashed", "admin@example.com", "ROLE_ADMIN"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        activityRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private static String csv(int rows, String nameSuffix) {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            csv.append("ev-").append(i).append(",\"Show ").append(i).append(nameSuffix).append("\",\"Desc, with comma\",")
+                    .append("2024-07-20T18:00:00,-3.73,-38.52,").append(i % 2 == 0 ? "Music" : "Theatre").append('\n');
+        }
+        return csv.toString();
+    }
+
+    private ActivityImportReport importCsv(String csv) throws IOException {
+        InputStream input = new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+        return importService.importActivities(input, ActivityImportService.Format.CSV, "admin");
+    }
+
+    @Test
+    void testImport_InsertsInBatchesWithFewStatements() throws IOException {
+        ActivityImportReport report = importCsv(csv(120, ""));
+
+        assertEquals(120, report.getRowsRead());
+        assertEquals(120, report.getInserted());
+        assertEquals(0, report.getRejected());
+        assertEquals(120, activityRepository.count());
+        CulturalActivity activity = activityRepository.findAll().get(0);
+        assertNotNull(activity.getGeohash());
+        assertEquals(64, activity.getContentHash().length());
+        // Per 50-row batch: one state lookup, one id block and one batched insert, instead of a round trip per row
+        assertTrue(statistics.getPrepareStatementCount() < 20, "Statements: " + statistics.getPrepareStatementCount());
+        assertEquals(1, events.stream(ActivityResyncEvent.class).filter(ActivityResyncEvent::isAnnounce).count());
+    }
+
+    @Test
+    void testImport_Again_SkipsUnchangedAndUpdatesChangedRows() throws IOException {
+        importCsv(csv(60, ""));
+        events.clear();
+        String changed = csv(60, "").replace("\"Show 7\"", "\"Show 7 (new date)\"");
+
+        ActivityImportReport report = importCsv(changed);
+
+        assertEquals(0, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(59, report.getUnchanged());
+        assertEquals("Show 7 (new date)", activityRepository.findAll().stream()
+                .filter(a -> "ev-7".equals(a.getExternalId())).findFirst().orElseThrow().getName());
+
+        events.clear();
+        ActivityImportReport nothingNew = importCsv(changed);
+        assertEquals(60, nothingNew.getUnchanged());
+        assertEquals(0, events.stream(ActivityResyncEvent.class).count()); // Nothing to reload
+    }
+
+    @Test
+    void testImport_BadRowsRejectedWithLineNumbers_RestImported() throws IOException {
+        String csv = HEADER
+                + "ok-1,Show,Desc,2024-07-20T18:00:00,-3.73,-38.52,Music\n"
+                + "bad-lat,Show,Desc,2024-07-20T18:00:00,-91,-38.52,Music\n"
+                + "bad-date,Show,Desc,20/07/2024,-3.73,-38.52,Music\n"
+                + "ok-1,Duplicate,Desc,2024-07-20T18:00:00,-3.73,-38.52,Music\n"
+                + "short,row\n"
+                + "ok-2,\"Multi\nline\",Desc,2024-07-20T18:00:00,-3.73,-38.52,Music\n";
+
+        ActivityImportReport report = importCsv(csv);
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getInserted());
+        assertEquals(4, report.getRejected());
+        assertEquals(2, report.getRejections().size());
+        assertTrue(report.isRejectionsTruncated());
+        assertEquals(3L, report.getRejections().get(0).getLine());
+        assertEquals("Latitude must be between -90 and 90", report.getRejections().get(0).getMessage());
+        assertEquals(4L, report.getRejections().get(1).getLine());
+    }
+
+    @Test
+    void testImport_JsonArrayAndNdjson() throws IOException {
+        String array = "[{\"externalId\":\"j-1\",\"name\":\"Show\",\"description\":\"Desc\",\"dateTime\":\"2024-07-20T18:00:00\","
+                + "\"latitude\":-3.73,\"longitude\":-38.52,\"category\":\"Music\",\"extra\":true},\n"
+                + "{\"externalId\":\"j-2\",\"name\":{\"nested\":1},\"description\":\"Desc\"}]";
+        String ndjson = "{\"externalId\":\"j-1\",\"name\":\"Show\",\"description\":\"Desc\",\"dateTime\":\"2024-07-20T18:00:00\","
+                + "\"latitude\":\"-3.73\",\"longitude\":\"-38.52\",\"category\":\"Music\"}\n"
+                + "{\"externalId\":\"j-3\",\"name\":\"Other\",\"description\":\"Desc\",\"dateTime\":\"2024-07-21T18:00:00\","
+                + "\"latitude\":-3.74,\"longitude\":-38.53,\"category\":\"Theatre\"}\n";
+
+        ActivityImportReport first = importService.importActivities(
+                new ByteArrayInputStream(array.getBytes(StandardCharsets.UTF_8)), ActivityImportService.Format.JSON, "admin");
+        ActivityImportReport second = importService.importActivities(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ActivityImportService.Format.JSON, "admin");
+
+        assertEquals(1, first.getInserted());
+        assertEquals(1, first.getRejected());
+        assertEquals(2L, first.getRejections().get(0).getLine());
+        // Numbers and numeric strings hash the same, so j-1 is unchanged
+        assertEquals(1, second.getUnchanged());
+        assertEquals(1, second.getInserted());
+    }
+
+    @Test
+    void testImport_MissingColumn_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("externalId,name\nx,y\n"));
+    }
+}
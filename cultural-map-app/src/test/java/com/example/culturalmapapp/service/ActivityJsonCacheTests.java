@@ -0,0 +1,105 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.exception.ResourceNotFoundException;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActivityJsonCacheTests {
+
+    @Mock
+    private ActivityService activityService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private CacheConfig cacheConfig = new CacheConfig();
+
+    @Spy
+    private CacheManager cacheManager = new CacheConfig().cacheManager();
+
+    @InjectMocks
+    private ActivityJsonCache activityJsonCache;
+
+    @BeforeEach
+    void setUp() {
+        activityJsonCache.init();
+    }
+
+    private static ActivityResponse response(String description) {
+        ActivityResponse response = new ActivityResponse();
+        response.setId(1L);
+        response.setName("Festival");
+        response.setDescription(description);
+        response.setVersion(3L);
+        response.setUpdatedAt(Instant.parse("2024-05-01T10:00:00Z"));
+        return response;
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testGet_SerializesOnceWithGzipVariantOfTheSameBytes() throws Exception {
+        ActivityResponse response = response("Annual music festival with local bands. ".repeat(20));
+        when(activityService.getActivityById(1L)).thenReturn(response);
+
+        ActivityJsonCache.Entry entry = activityJsonCache.get(1L);
+        assertSame(entry, activityJsonCache.get(1L));
+
+        verify(activityService, times(1)).getActivityById(1L);
+        assertArrayEquals(objectMapper.writeValueAsBytes(response), entry.getJson());
+        assertArrayEquals(entry.getJson(), gunzip(entry.getGzip()));
+        assertTrue(entry.getGzip().length < entry.getJson().length);
+        assertEquals(3L, entry.getVersion());
+        assertTrue(activityJsonCache.cachedBytes() >= entry.getJson().length + entry.getGzip().length);
+    }
+
+    @Test
+    void testGet_SmallResponse_HasNoGzipVariant_AndMissesAreNotCached() {
+        when(activityService.getActivityById(1L)).thenReturn(response("Short"));
+        when(activityService.getActivityById(2L)).thenThrow(new ResourceNotFoundException("Activity not found with id: 2"));
+
+        assertNull(activityJsonCache.get(1L).getGzip());
+        assertThrows(ResourceNotFoundException.class, () -> activityJsonCache.get(2L));
+        assertThrows(ResourceNotFoundException.class, () -> activityJsonCache.get(2L));
+        verify(activityService, times(2)).getActivityById(2L);
+    }
+
+    @Test
+    void testActivityChanged_EvictsJsonAndTheActivityEntryBelowIt() {
+        when(activityService.getActivityById(1L)).thenReturn(response("Before"), response("After"));
+        activityJsonCache.get(1L);
+        cacheManager.getCache(CacheConfig.ACTIVITIES).put(1L, response("Before"));
+        CulturalActivity activity = new CulturalActivity(1L, "Festival", "After", LocalDateTime.now(), -3.73, -38.52, "Music", null);
+
+        activityJsonCache.onActivityChanged(ActivityChangedEvent.updated(activity, -3.73, -38.52, "Music"));
+
+        assertNull(cacheManager.getCache(CacheConfig.ACTIVITIES).get(1L));
+        assertTrue(new String(activityJsonCache.get(1L).getJson()).contains("After"));
+    }
+}
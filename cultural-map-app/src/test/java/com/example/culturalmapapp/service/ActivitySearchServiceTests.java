@@ -0,0 +1,112 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.SearchConfig;
+import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// H2 has no full-text search, so this covers the LIKE fallback and the filters it shares with the PostgreSQL query
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "app.search.max-query-length=20"
+})
+@Import({ActivitySearchService.class, TextIndexService.class, SearchConfig.class})
+public class ActivitySearchServiceTests {
+
+    private static final LocalDateTime SATURDAY = LocalDateTime.of(2024, 7, 20, 18, 0);
+
+    @Autowired
+    private ActivitySearchService searchService;
+
+    @Autowired
+    private TextIndexService textIndexService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        User producer = new User(null, "producer", "hashed", "producer@example.com", "ROLE_PRODUCER");
+        entityManager.persist(producer);
+        // Fortaleza centre, Iracema (about 2 km away) and Messejana (about 12 km away)
+        entityManager.persist(new CulturalActivity(null, "Forró pé de serra", "Trio ao vivo", SATURDAY, -3.7275, -38.5275, "Music", producer));
+        entityManager.persist(new CulturalActivity(null, "Teatro infantil", "Peça para crianças", SATURDAY.plusDays(1), -3.7225, -38.5120, "Theatre", producer));
+        entityManager.persist(new CulturalActivity(null, "Noite de forró", "Baile 100% forró", SATURDAY.plusDays(7), -3.8300, -38.4900, "Music", producer));
+        entityManager.persist(new CulturalActivity(null, "Exposição", "Fotografia", SATURDAY, -3.7275, -38.5275, "Art", producer));
+        entityManager.flush();
+        entityManager.clear();
+        textIndexService.load(); // Rows persisted here publish no change events
+    }
+
+    private static List<String> names(Page<ActivityResponse> page) {
+        return page.getContent().stream().map(ActivityResponse::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSearch_EveryWordMustMatch_OrderedByDate() {
+        Page<ActivityResponse> forro = searchService.search("FORRÓ", null, null, null, null, null, PageRequest.of(0, 10));
+        assertEquals(List.of("Forró pé de serra", "Noite de forró"), names(forro));
+        assertEquals(2, forro.getTotalElements());
+        assertNull(forro.getContent().get(0).getDistanceKm());
+
+        assertEquals(List.of("Teatro infantil"),
+                names(searchService.search("teatro crianças", null, null, null, null, null, PageRequest.of(0, 10))));
+        // Category matches too; LIKE wildcards in the text are literal
+        assertEquals(List.of("Exposição"), names(searchService.search("art", null, null, null, null, null, PageRequest.of(0, 10))));
+        assertEquals(List.of("Noite de forró"), names(searchService.search("100%", null, null, null, null, null, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void testSearch_RadiusAndDateFiltersInTheSameQuery() {
+        Page<ActivityResponse> nearby = searchService.search("forró", -3.7275, -38.5275, 5.0, null, null, PageRequest.of(0, 10));
+        assertEquals(List.of("Forró pé de serra"), names(nearby));
+        assertEquals(0.0, nearby.getContent().get(0).getDistanceKm(), 1e-6);
+
+        Page<ActivityResponse> nextWeek = searchService.search("forró", null, null, null,
+                SATURDAY.plusDays(1), SATURDAY.plusDays(10), PageRequest.of(0, 10));
+        assertEquals(List.of("Noite de forró"), names(nextWeek));
+    }
+
+    @Test
+    void testSearch_PagesInTheDatabase() {
+        Page<ActivityResponse> second = searchService.search("o", null, null, null, null, null, PageRequest.of(1, 2));
+        assertEquals(2, second.getContent().size());
+        assertEquals(4, second.getTotalElements());
+    }
+
+    @Test
+    void testQuickSearch_RankedFromTheIndexWithScores() {
+        List<ActivityResponse> results = searchService.quickSearch("forro ao vivo", 10);
+
+        assertEquals(List.of("Forró pé de serra", "Noite de forró"), results.stream().map(ActivityResponse::getName).collect(Collectors.toList()));
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals("Peça para crianças", searchService.quickSearch("crianca", 1).get(0).getDescription());
+        assertThrows(IllegalArgumentException.class, () -> searchService.quickSearch("forró", 0));
+    }
+
+    @Test
+    void testSearch_InvalidInput_Throws() {
+        PageRequest page = PageRequest.of(0, 10);
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(" ", null, null, null, null, null, page));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("a".repeat(21), null, null, null, null, null, page));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("forró", -3.7, null, 5.0, null, null, page));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("forró", -3.7, -38.5, 0.0, null, null, page));
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("forró", null, null, null,
+                SATURDAY.plusDays(1), SATURDAY, page));
+    }
+}
@@ -1,23 +1,36 @@
 package com.example.culturalmapapp.service;
 
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityCursorPage;
+import com.example.culturalmapapp.dto.ActivityLocation;
 import com.example.culturalmapapp.dto.ActivityRequest;
 import com.example.culturalmapapp.dto.ActivityResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
 import com.example.culturalmapapp.exception.ResourceNotFoundException;
 import com.example.culturalmapapp.model.CulturalActivity;
 import com.example.culturalmapapp.model.User;
 import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.repository.NearbyActivityView;
 import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import com.example.culturalmapapp.util.ActivityCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -26,8 +39,12 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +56,33 @@ public class ActivityServiceTests {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SpatialIndexService spatialIndexService;
+
+    @Mock
+    private NeighbourhoodService neighbourhoodService;
+
+    @Mock
+    private UserLookupService userLookupService;
+
+    @Mock
+    private NearQueryCache nearQueryCache; // accepts() is false, so the GEOHASH test takes the uncached path
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ActivityCountService activityCountService;
+
+    @Spy
+    private GeoConfig geoConfig = new GeoConfig();
+
+    @Spy
+    private CacheConfig cacheConfig = new CacheConfig();
+
+    @Spy
+    private ActivityChangeTracker changeTracker = new ActivityChangeTracker();
+
     @InjectMocks
     private ActivityService activityService;
 
@@ -63,24 +107,53 @@ public class ActivityServiceTests {
         activityRequest.setLatitude(40.7500);
         activityRequest.setLongitude(-73.9800);
         activityRequest.setCategory("Art");
+
+        activityService.initPageCache(); // @PostConstruct is not run by @InjectMocks
+    }
+
+    // Row as the repository's constructor expression returns it
+    private static ActivityResponse response(CulturalActivity activity) {
+        return new ActivityResponse(activity.getId(), activity.getName(), activity.getDescription(), activity.getDateTime(),
+                activity.getLatitude(), activity.getLongitude(), activity.getCategory(), activity.getNeighbourhoodId(),
+                activity.getProducer().getUsername(), activity.getVersion(), activity.getUpdatedAt());
+    }
+
+    // Principal as JwtAuthenticationFilter builds it from a token carrying the user id
+    private static AuthenticatedUser principal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), "", List.of(new SimpleGrantedAuthority(user.getRole())));
     }
 
     @Test
     void testCreateActivity_Success() {
-        when(userRepository.findByUsername("producer")).thenReturn(Optional.of(producerUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(producerUser);
         when(activityRepository.save(any(CulturalActivity.class))).thenReturn(activity);
+        when(neighbourhoodService.locate(40.7500, -73.9800)).thenReturn("midtown");
 
-        ActivityResponse response = activityService.createActivity(activityRequest, "producer");
+        ActivityResponse response = activityService.createActivity(activityRequest, principal(producerUser));
 
         assertNotNull(response);
         assertEquals(activity.getName(), response.getName()); // Name should be from the 'activity' object that 'save' returns
         assertEquals("producer", response.getProducerUsername());
-        verify(activityRepository, times(1)).save(any(CulturalActivity.class));
+        verify(activityRepository, times(1)).save(argThat(saved -> saved.getGeohash() != null && saved.getGeohash().length() == 12
+                && "midtown".equals(saved.getNeighbourhoodId())));
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void testCreateActivity_TokenWithoutUserId_FallsBackToCachedLookup() {
+        when(userLookupService.findByUsername("producer")).thenReturn(Optional.of(producerUser));
+        when(userRepository.getReferenceById(1L)).thenReturn(producerUser);
+        when(activityRepository.save(any(CulturalActivity.class))).thenReturn(activity);
+
+        AuthenticatedUser legacy = new AuthenticatedUser(null, "producer", "", List.of(new SimpleGrantedAuthority("ROLE_PRODUCER")));
+        activityService.createActivity(activityRequest, legacy);
+
+        verify(userRepository, times(1)).getReferenceById(1L);
     }
 
     @Test
     void testGetActivityById_Found() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
+        when(activityRepository.findResponseById(1L)).thenReturn(Optional.of(response(activity)));
         ActivityResponse response = activityService.getActivityById(1L);
         assertNotNull(response);
         assertEquals("Test Activity", response.getName());
@@ -88,33 +161,93 @@ public class ActivityServiceTests {
 
     @Test
     void testGetActivityById_NotFound_ThrowsResourceNotFoundException() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.empty());
+        when(activityRepository.findResponseById(1L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> activityService.getActivityById(1L));
     }
     
     @Test
     void testGetAllActivities_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        List<CulturalActivity> activities = Collections.singletonList(activity);
-        Page<CulturalActivity> activityPage = new PageImpl<>(activities, pageable, activities.size());
+        List<ActivityResponse> activities = Collections.singletonList(response(activity));
+        Page<ActivityResponse> activityPage = new PageImpl<>(activities, pageable, activities.size());
 
-        when(activityRepository.findAll(pageable)).thenReturn(activityPage);
+        when(activityRepository.findAllResponses(pageable)).thenReturn(activityPage);
 
         Page<ActivityResponse> responsePage = activityService.getAllActivities(pageable);
 
         assertEquals(1, responsePage.getTotalElements());
         assertEquals("Test Activity", responsePage.getContent().get(0).getName());
-        verify(activityRepository, times(1)).findAll(pageable);
+        verify(activityRepository, times(1)).findAllResponses(pageable);
     }
 
 
+    @Test
+    void testGetAllActivities_RepeatedPage_QueriesOnce() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(activityRepository.findAllResponses(pageable)).thenReturn(new PageImpl<>(List.of(response(activity)), pageable, 1));
+
+        activityService.getAllActivities(pageable);
+        Page<ActivityResponse> second = activityService.getAllActivities(PageRequest.of(0, 10));
+
+        assertEquals(1, second.getTotalElements());
+        verify(activityRepository, times(1)).findAllResponses(pageable);
+    }
+
+    @Test
+    void testGetAllActivities_NoTotal_ReturnsSliceWithoutCount() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(activityRepository.findAllResponseSlice(pageable)).thenReturn(new SliceImpl<>(List.of(response(activity)), pageable, true));
+
+        Slice<ActivityResponse> slice = activityService.getAllActivities(pageable, ActivityService.Total.NONE);
+
+        assertFalse(slice instanceof Page);
+        assertTrue(slice.hasNext());
+        verify(activityRepository, never()).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    void testGetActivitiesByCategory_ApproximateTotal_ComesFromCounterAndAgreesWithSlice() {
+        Pageable pageable = PageRequest.of(2, 10);
+        when(activityRepository.findResponseSliceByCategory("Music", pageable))
+                .thenReturn(new SliceImpl<>(List.of(response(activity)), pageable, true));
+        when(activityRepository.findResponseSliceByCategory("Music", pageable.next()))
+                .thenReturn(new SliceImpl<>(List.of(response(activity)), pageable.next(), false));
+        when(activityCountService.approximateTotal("Music")).thenReturn(5000L, 5L);
+
+        Page<ActivityResponse> page = (Page<ActivityResponse>) activityService.getActivitiesByCategory("Music", pageable, ActivityService.Total.APPROXIMATE);
+        // A stale counter below what the slices have seen is overruled by them
+        Page<ActivityResponse> last = (Page<ActivityResponse>) activityService.getActivitiesByCategory("Music", pageable.next(), ActivityService.Total.APPROXIMATE);
+
+        assertEquals(5000, page.getTotalElements());
+        assertEquals(31, last.getTotalElements());
+        verify(activityRepository, never()).findResponsesByCategory(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testActivityChanged_InvalidatesOnlyAffectedCategoryPages() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(activityRepository.findResponsesByCategory("Music", pageable)).thenReturn(new PageImpl<>(List.of(response(activity)), pageable, 1));
+        when(activityRepository.findResponsesByCategory("Theatre", pageable)).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+        activityService.getActivitiesByCategory("Music", pageable);
+        activityService.getActivitiesByCategory("Theatre", pageable);
+
+        // What the application event would deliver to both listeners after a write to a Music activity
+        ActivityChangedEvent event = ActivityChangedEvent.updated(activity, activity.getLatitude(), activity.getLongitude(), "Music");
+        changeTracker.onActivityChanged(event);
+        activityService.onActivityChanged(event);
+
+        activityService.getActivitiesByCategory("Music", pageable);
+        activityService.getActivitiesByCategory("Theatre", pageable);
+        verify(activityRepository, times(2)).findResponsesByCategory("Music", pageable);
+        verify(activityRepository, times(1)).findResponsesByCategory("Theatre", pageable);
+    }
+
     @Test
     void testUpdateActivity_ByOwner_Success() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
-        when(userRepository.findByUsername("producer")).thenReturn(Optional.of(producerUser));
+        when(activityRepository.findWithProducerById(1L)).thenReturn(Optional.of(activity));
         when(activityRepository.save(any(CulturalActivity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ActivityResponse response = activityService.updateActivity(1L, activityRequest, "producer");
+        ActivityResponse response = activityService.updateActivity(1L, activityRequest, principal(producerUser));
 
         assertNotNull(response);
         assertEquals("Updated Activity", response.getName());
@@ -124,11 +257,10 @@ public class ActivityServiceTests {
 
     @Test
     void testUpdateActivity_ByAdmin_Success() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.of(activity)); // activity owned by producerUser
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
+        when(activityRepository.findWithProducerById(1L)).thenReturn(Optional.of(activity)); // activity owned by producerUser
         when(activityRepository.save(any(CulturalActivity.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ActivityResponse response = activityService.updateActivity(1L, activityRequest, "admin");
+        ActivityResponse response = activityService.updateActivity(1L, activityRequest, principal(adminUser));
 
         assertNotNull(response);
         assertEquals("Updated Activity", response.getName());
@@ -139,21 +271,16 @@ public class ActivityServiceTests {
 
     @Test
     void testUpdateActivity_ByNonOwner_ThrowsAccessDeniedException() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
-        when(userRepository.findByUsername("another")).thenReturn(Optional.of(anotherUser));
+        when(activityRepository.findWithProducerById(1L)).thenReturn(Optional.of(activity));
 
-        assertThrows(AccessDeniedException.class, () -> activityService.updateActivity(1L, activityRequest, "another"));
+        assertThrows(AccessDeniedException.class, () -> activityService.updateActivity(1L, activityRequest, principal(anotherUser)));
         verify(activityRepository, never()).save(any(CulturalActivity.class));
     }
 
     @Test
     void testUpdateActivity_NotFound_ThrowsResourceNotFoundException() {
-        when(activityRepository.findById(1L)).thenReturn(Optional.empty());
-        // Need to mock userRepository as well, as it's called before the save
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(producerUser));
-
-
-        assertThrows(ResourceNotFoundException.class, () -> activityService.updateActivity(1L, activityRequest, "producer"));
+        when(activityRepository.findWithProducerById(1L)).thenReturn(Optional.empty());
+        assertThrows(ResourceNotFoundException.class, () -> activityService.updateActivity(1L, activityRequest, principal(producerUser)));
         verify(activityRepository, never()).save(any(CulturalActivity.class));
     }
     
@@ -161,84 +288,202 @@ public class ActivityServiceTests {
     @Test
     void testDeleteActivity_ByOwner_Success() {
         when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
-        when(userRepository.findByUsername("producer")).thenReturn(Optional.of(producerUser));
         doNothing().when(activityRepository).delete(activity);
 
-        activityService.deleteActivity(1L, "producer");
+        activityService.deleteActivity(1L, principal(producerUser));
         verify(activityRepository, times(1)).delete(activity);
     }
 
     @Test
     void testDeleteActivity_ByAdmin_Success() {
         when(activityRepository.findById(1L)).thenReturn(Optional.of(activity)); // activity owned by producerUser
-        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
         doNothing().when(activityRepository).delete(activity);
 
-        activityService.deleteActivity(1L, "admin");
+        activityService.deleteActivity(1L, principal(adminUser));
         verify(activityRepository, times(1)).delete(activity);
     }
     
     @Test
     void testDeleteActivity_ByNonOwner_ThrowsAccessDeniedException() {
         when(activityRepository.findById(1L)).thenReturn(Optional.of(activity));
-        when(userRepository.findByUsername("another")).thenReturn(Optional.of(anotherUser));
 
-        assertThrows(AccessDeniedException.class, () -> activityService.deleteActivity(1L, "another"));
+        assertThrows(AccessDeniedException.class, () -> activityService.deleteActivity(1L, principal(anotherUser)));
         verify(activityRepository, never()).delete(any(CulturalActivity.class));
     }
     
     @Test
     void testDeleteActivity_NotFound_ThrowsResourceNotFoundException() {
         when(activityRepository.findById(1L)).thenReturn(Optional.empty());
-        // Need to mock userRepository as well, as it's called before the delete
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.of(producerUser));
-
-        assertThrows(ResourceNotFoundException.class, () -> activityService.deleteActivity(1L, "producer"));
+        assertThrows(ResourceNotFoundException.class, () -> activityService.deleteActivity(1L, principal(producerUser)));
         verify(activityRepository, never()).delete(any(CulturalActivity.class));
     }
 
     @Test
-    void testGetActivitiesNear_HaversineFilteringAndPagination() {
-        Pageable pageable = PageRequest.of(0, 10);
+    void testGetActivitiesNear_LoadsOnlyRequestedPageInDistanceOrder() {
+        Pageable pageable = PageRequest.of(0, 2);
         double userLat = 40.7000;
         double userLon = -74.0000;
-        double radiusKm = 10.0; // 10km
-
-        // Activity1: within radius
-        CulturalActivity activity1 = new CulturalActivity(1L, "Activity 1", "Desc1", LocalDateTime.now(), 40.7050, -74.0050, "Music", producerUser); // Approx 0.6km
-        // Activity2: outside radius
-        CulturalActivity activity2 = new CulturalActivity(2L, "Activity 2", "Desc2", LocalDateTime.now(), 40.8000, -74.1000, "Art", producerUser); // Approx >10km
-        // Activity3: within radius
-        CulturalActivity activity3 = new CulturalActivity(3L, "Activity 3", "Desc3", LocalDateTime.now(), 40.7010, -74.0010, "Theatre", producerUser); // Approx 0.1km
-        
-        // Mock repository to return these activities for the bounding box query
-        // The bounding box would be wider, so all these might be returned by it
-        List<CulturalActivity> activitiesInBoundingBox = List.of(activity1, activity2, activity3);
-        when(activityRepository.findByLocationBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                .thenReturn(activitiesInBoundingBox);
+        double radiusKm = 10.0;
+
+        CulturalActivity activity1 = new CulturalActivity(1L, "Activity 1", "Desc1", LocalDateTime.now(), 40.7050, -74.0050, "Music", producerUser);
+        CulturalActivity activity3 = new CulturalActivity(3L, "Activity 3", "Desc3", LocalDateTime.now(), 40.7010, -74.0010, "Theatre", producerUser);
+
+        // Index returns matches closest first; activity 4 is on the next page
+        when(spatialIndexService.findWithinRadius(userLat, userLon, radiusKm)).thenReturn(List.of(
+                new SpatialIndexService.Match(3L, 0.1),
+                new SpatialIndexService.Match(1L, 0.6),
+                new SpatialIndexService.Match(4L, 5.0)));
+        when(activityRepository.findResponsesByIdIn(List.of(3L, 1L))).thenReturn(List.of(response(activity1), response(activity3)));
 
         Page<ActivityResponse> resultPage = activityService.getActivitiesNear(userLat, userLon, radiusKm, pageable);
 
-        assertEquals(2, resultPage.getTotalElements()); // activity2 should be filtered out by Haversine
+        assertEquals(3, resultPage.getTotalElements());
         assertEquals(2, resultPage.getContent().size());
-        assertTrue(resultPage.getContent().stream().anyMatch(ar -> ar.getName().equals("Activity 1")));
-        assertTrue(resultPage.getContent().stream().anyMatch(ar -> ar.getName().equals("Activity 3")));
-        assertFalse(resultPage.getContent().stream().anyMatch(ar -> ar.getName().equals("Activity 2")));
+        assertEquals("Activity 3", resultPage.getContent().get(0).getName());
+        assertEquals("Activity 1", resultPage.getContent().get(1).getName());
+        assertEquals(0.1, resultPage.getContent().get(0).getDistanceKm());
     }
-    
+
     @Test
-    void testGetActivitiesNear_HaversineFiltering_NullCoordinates() {
+    void testGetActivitiesNear_PageBeyondResults_ReturnsEmptyWithoutLoading() {
+        Pageable pageable = PageRequest.of(5, 10);
+        when(spatialIndexService.findWithinRadius(anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of(new SpatialIndexService.Match(1L, 0.5)));
+
+        Page<ActivityResponse> resultPage = activityService.getActivitiesNear(40.7, -74.0, 10.0, pageable);
+
+        assertTrue(resultPage.getContent().isEmpty());
+        assertEquals(1, resultPage.getTotalElements());
+        verify(activityRepository, never()).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void testGetActivitiesNear_DatabaseStrategy_PagesInSqlWithoutSort() {
+        geoConfig.setNearStrategy(GeoConfig.NearStrategy.DATABASE);
+        Pageable pageable = PageRequest.of(1, 5, org.springframework.data.domain.Sort.by("name"));
+
+        NearbyActivityView row = mock(NearbyActivityView.class);
+        when(row.getId()).thenReturn(9L);
+        when(row.getName()).thenReturn("Maracatu");
+        when(row.getProducerUsername()).thenReturn("producer");
+        when(row.getDistanceKm()).thenReturn(2.5);
+        when(activityRepository.findNearby(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(1, 5), 6));
+
+        Page<ActivityResponse> resultPage = activityService.getActivitiesNear(-3.73, -38.52, 3.0, pageable);
+
+        assertEquals(6, resultPage.getTotalElements());
+        assertEquals("Maracatu", resultPage.getContent().get(0).getName());
+        assertEquals(2.5, resultPage.getContent().get(0).getDistanceKm());
+        verify(activityRepository).findNearby(eq(-3.73), eq(-38.52), eq(3.0), anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+                eq(PageRequest.of(1, 5)));
+        verify(spatialIndexService, never()).findWithinRadius(anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void testGetActivitiesNear_GeohashStrategy_FiltersCandidatesByExactDistance() {
+        geoConfig.setNearStrategy(GeoConfig.NearStrategy.GEOHASH);
         Pageable pageable = PageRequest.of(0, 10);
-        double userLat = 40.7000;
-        double userLon = -74.0000;
-        double radiusKm = 10.0;
 
-        CulturalActivity activityWithNullCoords = new CulturalActivity(1L, "Null Coords", "Desc", LocalDateTime.now(), null, null, "Test", producerUser);
-        List<CulturalActivity> activitiesInBoundingBox = List.of(activityWithNullCoords);
-        when(activityRepository.findByLocationBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
-                .thenReturn(activitiesInBoundingBox);
+        // Candidates come back from the first range scan; the service must keep only those within the radius
+        when(activityRepository.findLocationsByGeohashRange(anyString(), anyString())).thenReturn(List.of(
+                new ActivityLocation(1L, -3.7250, -38.5250),
+                new ActivityLocation(2L, -3.9000, -38.7000))).thenReturn(List.of());
+        when(activityRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(
+                response(new CulturalActivity(1L, "Activity 1", "Desc1", LocalDateTime.now(), -3.7250, -38.5250, "Music", producerUser))));
 
-        Page<ActivityResponse> resultPage = activityService.getActivitiesNear(userLat, userLon, radiusKm, pageable);
-        assertTrue(resultPage.getContent().isEmpty()); // Activity with null coords should be filtered out
+        Page<ActivityResponse> resultPage = activityService.getActivitiesNear(-3.7220, -38.5280, 1.0, pageable);
+
+        assertEquals(1, resultPage.getTotalElements());
+        assertEquals(1L, resultPage.getContent().get(0).getId());
+        verify(spatialIndexService, never()).findWithinRadius(anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void testGetNearestActivities_HydratesInDistanceOrder() {
+        when(spatialIndexService.findNearest(-3.7220, -38.5280, 2, "Music", null, null)).thenReturn(List.of(
+                new SpatialIndexService.Match(2L, 0.3), new SpatialIndexService.Match(1L, 0.9)));
+        when(activityRepository.findResponsesByIdIn(List.of(2L, 1L))).thenReturn(List.of(
+                response(new CulturalActivity(1L, "Activity 1", "Desc1", LocalDateTime.now(), -3.7250, -38.5250, "Music", producerUser)),
+                response(new CulturalActivity(2L, "Activity 2", "Desc2", LocalDateTime.now(), -3.7230, -38.5260, "Music", producerUser))));
+
+        List<ActivityResponse> nearest = activityService.getNearestActivities(-3.7220, -38.5280, 2, "Music", null, null);
+
+        assertEquals(2, nearest.size());
+        assertEquals(2L, nearest.get(0).getId());
+        assertEquals(0.3, nearest.get(0).getDistanceKm());
+        assertEquals(1L, nearest.get(1).getId());
+    }
+
+    @Test
+    void testGetNearestActivities_InvalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> activityService.getNearestActivities(-3.72, -38.52, 0, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> activityService.getNearestActivities(-3.72, -38.52, geoConfig.getNearestMaxK() + 1, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> activityService.getNearestActivities(-3.72, -38.52, 5, null,
+                        LocalDateTime.of(2025, 7, 1, 0, 0), LocalDateTime.of(2025, 6, 1, 0, 0)));
+        verify(spatialIndexService, never()).findNearest(anyDouble(), anyDouble(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void testGetActivitiesByNeighbourhood_UsesStoredTag() {
+        Pageable pageable = PageRequest.of(0, 10);
+        activity.setNeighbourhoodId("benfica");
+        when(neighbourhoodService.exists("benfica")).thenReturn(true);
+        when(activityRepository.findResponsesByNeighbourhoodId("benfica", pageable)).thenReturn(new PageImpl<>(List.of(response(activity)), pageable, 1));
+
+        Page<ActivityResponse> resultPage = activityService.getActivitiesByNeighbourhood("benfica", pageable);
+
+        assertEquals(1, resultPage.getTotalElements());
+        assertEquals("benfica", resultPage.getContent().get(0).getNeighbourhoodId());
+        verify(neighbourhoodService, never()).locate(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void testGetActivitiesByNeighbourhood_Unknown_ThrowsResourceNotFoundException() {
+        when(neighbourhoodService.exists("atlantis")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> activityService.getActivitiesByNeighbourhood("atlantis", PageRequest.of(0, 10)));
+        verify(activityRepository, never()).findResponsesByNeighbourhoodId(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetActivitiesAfter_FullPage_ReturnsCursorOfLastRow() {
+        ActivityCursor start = ActivityCursor.start(ActivityCursor.SortKey.DATE_TIME, false);
+        CulturalActivity second = new CulturalActivity(2L, "Activity 2", "Desc2", activity.getDateTime().plusDays(1), -3.72, -38.52, "Music", producerUser);
+        CulturalActivity third = new CulturalActivity(3L, "Activity 3", "Desc3", activity.getDateTime().plusDays(2), -3.72, -38.52, "Music", producerUser);
+        when(activityRepository.findResponsesAfter(null, start, 3))
+                .thenReturn(List.of(response(activity), response(second), response(third)));
+
+        ActivityCursorPage page = activityService.getActivitiesAfter(null, start, 2);
+
+        assertEquals(2, page.getContent().size());
+        ActivityCursor next = ActivityCursor.decode(page.getNextCursor());
+        assertEquals(2L, next.getId());
+        assertEquals(second.getDateTime(), next.getDateTime());
+        assertFalse(next.isDescending());
+    }
+
+    @Test
+    void testGetActivitiesAfter_LastPage_HasNoCursor() {
+        ActivityCursor start = ActivityCursor.start(ActivityCursor.SortKey.ID, true);
+        when(activityRepository.findResponsesAfter("Music", start, 11)).thenReturn(List.of(response(activity)));
+
+        ActivityCursorPage page = activityService.getActivitiesAfter("Music", start, 10);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetActivitiesAfter_InvalidSize_ThrowsIllegalArgumentException() {
+        ActivityCursor start = ActivityCursor.start(ActivityCursor.SortKey.ID, false);
+
+        assertThrows(IllegalArgumentException.class, () -> activityService.getActivitiesAfter(null, start, 0));
+        assertThrows(IllegalArgumentException.class, () -> activityService.getActivitiesAfter(null, start, 2001));
+        verify(activityRepository, never()).findResponsesAfter(any(), any(), anyInt());
     }
 }
@@ -0,0 +1,143 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.SecurityConfig;
+import com.example.culturalmapapp.exception.PasswordHashingBusyException;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BoundedPasswordEncoderTests {
+
+    @Mock
+    private UserLookupService userLookupService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    // Blocks on the latch so the pool can be filled up deterministically
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Thread.currentThread().getName();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    private DaoAuthenticationProvider provider(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(customUserDetailsService);
+        provider.setUserDetailsPasswordService(customUserDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    @Test
+    void testEncodeAndMatches_RunOnTheHashingPool() {
+        CountDownLatch released = new CountDownLatch(0);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(new CountDownLatch(1), released), 1, 1);
+
+        assertTrue(encoder.encode("secret").startsWith("password-hashing-"));
+        assertTrue(encoder.matches("secret", "hash"));
+    }
+
+    @Test
+    void testPoolAndQueueFull_RejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.getQueuedTasks() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("third"));
+
+        release.countDown();
+        assertNotNull(running.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testUpgradeEncoding_LegacyAndCheaperHashesOnly() {
+        PasswordEncoder current = SecurityConfig.delegatingPasswordEncoder(5);
+
+        assertTrue(current.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))); // No {bcrypt} prefix
+        assertTrue(current.upgradeEncoding(SecurityConfig.delegatingPasswordEncoder(4).encode("secret")));
+        assertFalse(current.upgradeEncoding(current.encode("secret")));
+    }
+
+    @Test
+    void testLogin_WithLegacyHash_StoresUpgradedHash() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        when(userLookupService.findByUsername("alice"))
+                .thenReturn(Optional.of(new User(1L, "alice", legacy, "alice@example.com", "ROLE_CONSUMER")));
+        encoder = new BoundedPasswordEncoder(SecurityConfig.delegatingPasswordEncoder(5), 1, 1);
+
+        provider(encoder).authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("alice"), stored.capture());
+        assertTrue(stored.getValue().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", stored.getValue()));
+    }
+
+    @Test
+    void testLogin_WithCurrentHash_LeavesItAlone() {
+        PasswordEncoder current = SecurityConfig.delegatingPasswordEncoder(4);
+        when(userLookupService.findByUsername("alice"))
+                .thenReturn(Optional.of(new User(1L, "alice", current.encode("secret"), "alice@example.com", "ROLE_CONSUMER")));
+
+        provider(current).authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.dto.ClusterResponse;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.ClusterHierarchy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterServiceTests {
+
+    @Mock
+    private CulturalActivityRepository activityRepository;
+
+    @Spy
+    private GeoConfig geoConfig = new GeoConfig();
+
+    @InjectMocks
+    private ClusterService clusterService;
+
+    private User producer;
+
+    @BeforeEach
+    void setUp() {
+        producer = new User(1L, "producer", "password", "producer@example.com", "ROLE_PRODUCER");
+        clusterService.load(); // Empty repository
+    }
+
+    private void create(long id, double lat, double lon) {
+        clusterService.onActivityChanged(ActivityChangedEvent.created(
+                new CulturalActivity(id, "Activity " + id, "Desc", LocalDateTime.now(), lat, lon, "Music", producer)));
+    }
+
+    @Test
+    void testGetClusters_LowZoomGroupsNearbyActivities() {
+        create(1L, -3.7319, -38.5267); // Centro
+        create(2L, -3.7330, -38.5250);
+        create(3L, -3.7400, -38.4900); // Aldeota-ish
+
+        List<ClusterResponse> clusters = clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 5);
+
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.get(0).getCount());
+        assertNull(clusters.get(0).getActivityId());
+    }
+
+    @Test
+    void testGetClusters_HighZoomReturnsSingleActivities() {
+        create(1L, -3.7319, -38.5267);
+        create(2L, -3.7400, -38.4900);
+
+        List<ClusterResponse> clusters = clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 20);
+
+        assertEquals(2, clusters.size());
+        assertTrue(clusters.stream().allMatch(c -> c.getCount() == 1 && c.getActivityId() != null));
+    }
+
+    @Test
+    void testGetClusters_SingleActivityClusterCarriesIdAndExactPosition() {
+        create(5L, -3.7319, -38.5267);
+
+        List<ClusterResponse> clusters = clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 3);
+
+        assertEquals(1, clusters.size());
+        assertEquals(5L, clusters.get(0).getActivityId());
+        assertEquals(-3.7319, clusters.get(0).getLatitude(), 1e-9);
+    }
+
+    @Test
+    void testOnActivityChanged_UpdateAndDeleteAdjustCountsIncrementally() {
+        create(1L, -3.7319, -38.5267);
+        create(2L, -3.7330, -38.5250);
+
+        CulturalActivity moved = new CulturalActivity(2L, "Activity 2", "Desc", LocalDateTime.now(), 40.7128, -74.0060, "Music", producer);
+        clusterService.onActivityChanged(ActivityChangedEvent.updated(moved, -3.7330, -38.5250, "Music"));
+        assertEquals(1, clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 5).get(0).getCount());
+
+        clusterService.onActivityChanged(ActivityChangedEvent.deleted(moved));
+        clusterService.onActivityChanged(ActivityChangedEvent.deleted(
+                new CulturalActivity(1L, "Activity 1", "Desc", LocalDateTime.now(), -3.7319, -38.5267, "Music", producer)));
+        assertTrue(clusterService.getClusters(-90, 90, -180, 180, 0).isEmpty());
+    }
+
+    @Test
+    void testLoad_DeepestAllowedClusterZoomStillSeparatesNearbyActivities() {
+        geoConfig.setClusterMaxZoom(ClusterHierarchy.MAX_ZOOM);
+        clusterService.load();
+        create(1L, -3.7319, -38.5267);
+        create(2L, -3.7319, -38.5266); // ~11 m east
+
+        assertEquals(2, clusterService.getClusters(-3.8, -3.7, -38.6, -38.5, ClusterHierarchy.MAX_ZOOM).size());
+        assertEquals(1, clusterService.getClusters(-3.8, -3.7, -38.6, -38.5, 10).size());
+    }
+
+    @Test
+    void testLoad_WritesDuringTheScanAreKeptInTheNewHierarchy() {
+        create(1L, -3.7319, -38.5267);
+        doAnswer(invocation -> {
+            Consumer<ActivityLocation> consumer = invocation.getArgument(1);
+            consumer.accept(new ActivityLocation(1L, -3.7319, -38.5267));
+            // Queries and writes are not blocked while the table is read
+            assertEquals(1, clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 5).get(0).getCount());
+            clusterService.onActivityChanged(ActivityChangedEvent.deleted(
+                    new CulturalActivity(1L, "Activity 1", "Desc", LocalDateTime.now(), -3.7319, -38.5267, "Music", producer)));
+            create(2L, -3.7330, -38.5250);
+            consumer.accept(new ActivityLocation(3L, -3.7400, -38.4900));
+            return null;
+        }).when(activityRepository).forEachLocation(anyInt(), any());
+
+        clusterService.load();
+
+        List<ClusterResponse> clusters = clusterService.getClusters(-3.9, -3.6, -38.7, -38.4, 20);
+        assertEquals(List.of(2L, 3L), clusters.stream().map(ClusterResponse::getActivityId).sorted().toList());
+    }
+
+    @Test
+    void testLoad_ClusterMaxZoomThatWouldOverflow_Throws() {
+        geoConfig.setClusterMaxZoom(ClusterHierarchy.MAX_ZOOM + 1);
+
+        assertThrows(IllegalStateException.class, () -> clusterService.load());
+    }
+
+    @Test
+    void testGetClusters_InvalidBoundingBox_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> clusterService.getClusters(-3.6, -3.9, -38.7, -38.4, 10));
+    }
+}
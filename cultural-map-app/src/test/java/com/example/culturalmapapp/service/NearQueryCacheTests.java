@@ -0,0 +1,80 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NearQueryCacheTests {
+
+    @Spy
+    private GeoConfig geoConfig = new GeoConfig();
+
+    @InjectMocks
+    private NearQueryCache nearQueryCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private List<ActivityLocation> table;
+
+    // Stands in for the geohash range scans: every activity of the table, counted per call
+    private final NearQueryCache.CandidateLoader loader = (latitude, longitude, radiusKm) -> {
+        loads.incrementAndGet();
+        return table;
+    };
+
+    @BeforeEach
+    void setUp() {
+        nearQueryCache.init();
+        table = List.of(
+                new ActivityLocation(1L, -3.7250, -38.5250),  // ~0.3 km from both query points
+                new ActivityLocation(2L, -3.7310, -38.5270),  // ~1 km
+                new ActivityLocation(3L, -3.9000, -38.7000)); // ~27 km, outside every cached area
+    }
+
+    @Test
+    void testFindWithinRadius_NearbyFixesShareCandidatesAndStayExact() {
+        List<SpatialIndexService.Match> first = nearQueryCache.findWithinRadius(-3.7221, -38.5281, 0.8, loader);
+        List<SpatialIndexService.Match> second = nearQueryCache.findWithinRadius(-3.7224, -38.5279, 0.9, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of(1L), first.stream().map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+        assertEquals(List.of(1L), second.stream().map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+        assertEquals(2, nearQueryCache.findWithinRadius(-3.7221, -38.5281, 1.0, loader).size());
+    }
+
+    @Test
+    void testActivityChanged_EvictsOnlyCellsCoveringThePoint() {
+        nearQueryCache.findWithinRadius(-3.7221, -38.5281, 1.0, loader);  // Fortaleza centre
+        nearQueryCache.findWithinRadius(-3.1000, -38.0000, 1.0, loader);  // ~90 km away
+        assertEquals(2, loads.get());
+
+        CulturalActivity moved = new CulturalActivity(2L, "Activity 2", "Desc", LocalDateTime.now(), -3.7230, -38.5270, "Music", null);
+        nearQueryCache.onActivityChanged(ActivityChangedEvent.updated(moved, -3.7310, -38.5270, "Music"));
+
+        nearQueryCache.findWithinRadius(-3.7221, -38.5281, 1.0, loader);
+        nearQueryCache.findWithinRadius(-3.1000, -38.0000, 1.0, loader);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testAccepts_RejectsRadiiAboveLimitOrWhenDisabled() {
+        assertTrue(nearQueryCache.accepts(5.0));
+        assertFalse(nearQueryCache.accepts(geoConfig.getNearCacheMaxRadiusKm() + 1));
+        geoConfig.setNearCacheEnabled(false);
+        assertFalse(nearQueryCache.accepts(5.0));
+    }
+}
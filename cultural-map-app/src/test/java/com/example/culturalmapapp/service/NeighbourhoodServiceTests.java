@@ -0,0 +1,60 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.NeighbourhoodConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NeighbourhoodServiceTests {
+
+    // Two synthetic areas: a square polygon and a two-part multipolygon
+    private static final String GEOJSON = "{\"type\":\"FeatureCollection\",\"features\":["
+            + "{\"type\":\"Feature\",\"properties\":{\"code\":\"north\",\"label\":\"North\"},"
+            + "\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[-38.6,-3.7],[-38.5,-3.7],[-38.5,-3.6],[-38.6,-3.6],[-38.6,-3.7]]]}},"
+            + "{\"type\":\"Feature\",\"properties\":{\"code\":\"south\",\"label\":\"South\"},"
+            + "\"geometry\":{\"type\":\"MultiPolygon\",\"coordinates\":["
+            + "[[[-38.6,-3.9],[-38.5,-3.9],[-38.5,-3.8],[-38.6,-3.8],[-38.6,-3.9]]],"
+            + "[[[-38.4,-3.9],[-38.3,-3.9],[-38.3,-3.8],[-38.4,-3.8],[-38.4,-3.9]]]]}}"
+            + "]}";
+
+    @Spy
+    private NeighbourhoodConfig neighbourhoodConfig = new NeighbourhoodConfig();
+
+    @InjectMocks
+    private NeighbourhoodService neighbourhoodService;
+
+    @Test
+    void testLoad_ReadsPolygonsAndMultiPolygonsWithConfiguredProperties() throws Exception {
+        neighbourhoodConfig.setIdProperty("code");
+        neighbourhoodConfig.setNameProperty("label");
+
+        neighbourhoodService.load(new ByteArrayInputStream(GEOJSON.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(neighbourhoodService.isEnabled());
+        assertEquals("north", neighbourhoodService.locate(-3.65, -38.55));
+        assertEquals("south", neighbourhoodService.locate(-3.85, -38.55));
+        assertEquals("south", neighbourhoodService.locate(-3.85, -38.35));
+        assertNull(neighbourhoodService.locate(-3.75, -38.55));
+        assertNull(neighbourhoodService.locate(null, -38.55));
+        assertTrue(neighbourhoodService.exists("south"));
+        assertFalse(neighbourhoodService.exists("east"));
+    }
+
+    @Test
+    void testLoad_MissingFileLeavesTaggingDisabled() {
+        neighbourhoodConfig.setGeojsonPath("/nonexistent/bairros.geojson");
+
+        neighbourhoodService.load();
+
+        assertFalse(neighbourhoodService.isEnabled());
+        assertNull(neighbourhoodService.locate(-3.65, -38.55));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.dto.LoginResponse;
+import com.example.culturalmapapp.exception.InvalidRefreshTokenException;
+import com.example.culturalmapapp.model.RefreshToken;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.RefreshTokenRepository;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTests {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Spy
+    private JwtConfig jwtConfig = new JwtConfig();
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig.setExpirationMs(900_000);
+        jwtConfig.setRefreshExpirationMs(1_209_600_000L);
+        user = new User(1L, "alice", "hashed", "alice@example.com", "ROLE_CONSUMER");
+    }
+
+    private void issuesAccessToken(String tokenId) {
+        when(jwtTokenProvider.issueToken("alice", 1L, "ROLE_CONSUMER"))
+                .thenReturn(new JwtTokenProvider.IssuedToken("access." + tokenId, tokenId, Instant.now().plusSeconds(900)));
+    }
+
+    private RefreshToken stored(String familyId, Instant usedAt, String accessTokenId) {
+        return new RefreshToken(null, "hash-" + accessTokenId, familyId, user, Instant.now().plusSeconds(3600), usedAt, false,
+                accessTokenId, Instant.now().plusSeconds(600));
+    }
+
+    @Test
+    void testIssueTokens_StoresOnlyTheHashOfTheRefreshToken() {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "alice", "", List.of(new SimpleGrantedAuthority("ROLE_CONSUMER")));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        issuesAccessToken("jti-1");
+
+        LoginResponse response = refreshTokenService.issueTokens(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("access.jti-1", response.getAccessToken());
+        assertEquals(900, response.getExpiresIn());
+        assertEquals(JwtTokenProvider.digest(response.getRefreshToken()), saved.getValue().getTokenHash());
+        assertNotEquals(response.getRefreshToken(), saved.getValue().getTokenHash());
+        assertEquals("jti-1", saved.getValue().getAccessTokenId());
+        assertNotNull(saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void testRefresh_ReplacesTokenWithinItsFamily() {
+        RefreshToken current = stored("family-1", null, "jti-1");
+        when(refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest("raw"))).thenReturn(Optional.of(current));
+        issuesAccessToken("jti-2");
+
+        LoginResponse response = refreshTokenService.refresh("raw");
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotNull(current.getUsedAt());
+        assertEquals("access.jti-2", response.getAccessToken());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void testRefresh_ReusedToken_RevokesFamilyAndItsAccessTokens() {
+        RefreshToken reused = stored("family-1", Instant.now().minusSeconds(60), "jti-1");
+        RefreshToken latest = stored("family-1", null, "jti-2");
+        when(refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest("raw"))).thenReturn(Optional.of(reused));
+        when(refreshTokenRepository.findByFamilyId("family-1")).thenReturn(List.of(reused, latest));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("raw"));
+
+        assertTrue(reused.isRevoked());
+        assertTrue(latest.isRevoked());
+        verify(tokenRevocationService).revoke("jti-1", reused.getAccessTokenExpiresAt());
+        verify(tokenRevocationService).revoke("jti-2", latest.getAccessTokenExpiresAt());
+        verify(jwtTokenProvider, never()).issueToken(any(), any(), any());
+    }
+
+    @Test
+    void testRefresh_ExpiredOrUnknownToken_Rejected() {
+        RefreshToken expired = stored("family-1", null, "jti-1");
+        expired.setExpiresAt(Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest("expired"))).thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.findByTokenHashForUpdate(JwtTokenProvider.digest("unknown"))).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("expired"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("unknown"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.dto.ActivityLocation;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class SpatialIndexServiceTests {
+
+    private SpatialIndexService spatialIndexService;
+
+    @BeforeEach
+    void setUp() {
+        spatialIndexService = new SpatialIndexService();
+    }
+
+    @Test
+    void testFindWithinRadius_FiltersByDistanceAndOrdersClosestFirst() {
+        spatialIndexService.put(1L, -3.7250, -38.5250); // ~0.4 km from the query point
+        spatialIndexService.put(2L, -3.7300, -38.5200); // ~1 km
+        spatialIndexService.put(3L, -3.8500, -38.6500); // ~20 km, outside
+        spatialIndexService.put(4L, -3.7220, -38.5270); // ~0.1 km
+
+        List<SpatialIndexService.Match> matches = spatialIndexService.findWithinRadius(-3.7220, -38.5280, 5.0);
+
+        assertEquals(List.of(4L, 1L, 2L), matches.stream().map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+        assertTrue(matches.get(0).getDistanceKm() < matches.get(1).getDistanceKm());
+    }
+
+    @Test
+    void testPut_MovesExistingActivity() {
+        spatialIndexService.put(1L, -3.7250, -38.5250);
+        spatialIndexService.put(1L, 40.7128, -74.0060);
+
+        assertTrue(spatialIndexService.findWithinRadius(-3.7250, -38.5250, 5.0).isEmpty());
+        assertEquals(1, spatialIndexService.findWithinRadius(40.7128, -74.0060, 1.0).size());
+        assertEquals(1, spatialIndexService.size());
+    }
+
+    @Test
+    void testPut_NullCoordinates_RemovesFromIndex() {
+        spatialIndexService.put(1L, -3.7250, -38.5250);
+        spatialIndexService.put(1L, null, null);
+
+        assertEquals(0, spatialIndexService.size());
+    }
+
+    @Test
+    void testManyPointsAtSameLocation_SplitsAndStillFindsAll() {
+        for (long id = 1; id <= 500; id++) {
+            spatialIndexService.put(id, -3.7319, -38.5267);
+        }
+        for (long id = 501; id <= 1000; id++) {
+            spatialIndexService.put(id, -3.7319 + id * 0.0001, -38.5267 - id * 0.0001);
+        }
+
+        assertEquals(1000, spatialIndexService.size());
+        assertEquals(500, spatialIndexService.findWithinRadius(-3.7319, -38.5267, 0.01).size());
+    }
+
+    @Test
+    void testOnActivityChanged_DeletedEventRemovesActivity() {
+        User producer = new User(1L, "producer", "password", "producer@example.com", "ROLE_PRODUCER");
+        CulturalActivity activity = new CulturalActivity(7L, "Forró no Dragão", "Desc", LocalDateTime.now(), -3.7220, -38.5200, "Music", producer);
+
+        spatialIndexService.onActivityChanged(ActivityChangedEvent.created(activity));
+        assertEquals(1, spatialIndexService.size());
+
+        spatialIndexService.onActivityChanged(ActivityChangedEvent.deleted(activity));
+        assertEquals(0, spatialIndexService.size());
+    }
+
+    @Test
+    void testFindNearest_MatchesBruteForceOrder() {
+        Random random = new Random(42);
+        double[][] points = new double[2000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {-4.0 + random.nextDouble() * 0.5, -38.8 + random.nextDouble() * 0.5};
+            spatialIndexService.put((long) i, points[i][0], points[i][1]);
+        }
+
+        List<Long> nearest = spatialIndexService.findNearest(-3.7319, -38.5267, 15, null, null, null).stream()
+                .map(SpatialIndexService.Match::getId).collect(Collectors.toList());
+
+        List<Long> expected = IntStream.range(0, points.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> GeoUtils.haversineKm(-3.7319, -38.5267, points[i][0], points[i][1])))
+                .limit(15).map(Integer::longValue).collect(Collectors.toList());
+        assertEquals(expected, nearest);
+    }
+
+    @Test
+    void testFindNearest_SparseAreaStillReturnsKResults() {
+        spatialIndexService.put(1L, -3.7319, -38.5267); // Fortaleza
+        spatialIndexService.put(2L, -5.7945, -35.2110); // Natal, ~420 km
+        spatialIndexService.put(3L, -23.5505, -46.6333); // São Paulo
+
+        List<SpatialIndexService.Match> matches = spatialIndexService.findNearest(-3.7319, -38.5267, 2, null, null, null);
+
+        assertEquals(List.of(1L, 2L), matches.stream().map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+        assertEquals(0.0, matches.get(0).getDistanceKm(), 1e-9);
+    }
+
+    @Test
+    void testFindNearest_FiltersDuringSearch() {
+        LocalDateTime june = LocalDateTime.of(2025, 6, 15, 20, 0);
+        spatialIndexService.put(1L, -3.7220, -38.5270, "Theatre", june); // Closest, wrong category
+        spatialIndexService.put(2L, -3.7250, -38.5250, "Music", june.minusMonths(2)); // Outside the window
+        spatialIndexService.put(3L, -3.7300, -38.5200, "Music", june);
+        spatialIndexService.put(4L, -3.8500, -38.6500, "Music", june.plusDays(1));
+        spatialIndexService.put(5L, -3.7230, -38.5260, "Music", null); // Undated
+
+        List<SpatialIndexService.Match> matches = spatialIndexService.findNearest(-3.7220, -38.5280, 2, "Music",
+                june.withDayOfMonth(1), june.withDayOfMonth(30));
+
+        // Filtered-out activities do not take slots: both results are matching ones
+        assertEquals(List.of(3L, 4L), matches.stream().map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFindWithinRadius_LargeCandidateSetSplitAcrossCoresMatchesBruteForce() {
+        Random random = new Random(3);
+        int count = 80_000; // Above the parallel threshold, all inside the search box
+        long expected = 0;
+        for (int i = 0; i < count; i++) {
+            double lat = -3.80 + random.nextDouble() * 0.15;
+            double lon = -38.60 + random.nextDouble() * 0.15;
+            spatialIndexService.put((long) i, lat, lon);
+            if (GeoUtils.haversineKm(-3.7319, -38.5267, lat, lon) <= 6.0) {
+                expected++;
+            }
+        }
+
+        List<SpatialIndexService.Match> matches = spatialIndexService.findWithinRadius(-3.7319, -38.5267, 6.0);
+
+        assertEquals(expected, matches.size());
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).getDistanceKm() <= matches.get(i).getDistanceKm());
+        }
+    }
+
+    @Test
+    void testLoad_WritesDuringTheScanAreKeptInTheNewIndex() {
+        CulturalActivityRepository activityRepository = mock(CulturalActivityRepository.class);
+        ReflectionTestUtils.setField(spatialIndexService, "activityRepository", activityRepository);
+        spatialIndexService.put(1L, -3.7250, -38.5250);
+        doAnswer(invocation -> {
+            Consumer<ActivityLocation> consumer = invocation.getArgument(1);
+            consumer.accept(new ActivityLocation(1L, -3.7250, -38.5250));
+            // Searches and writes are not blocked while the table is read
+            assertEquals(1, spatialIndexService.findWithinRadius(-3.7250, -38.5250, 1.0).size());
+            spatialIndexService.remove(1L);
+            spatialIndexService.put(2L, -3.7300, -38.5200);
+            consumer.accept(new ActivityLocation(3L, -3.8500, -38.6500));
+            return null;
+        }).when(activityRepository).forEachLocation(anyInt(), any());
+
+        spatialIndexService.load();
+
+        assertEquals(List.of(2L, 3L), spatialIndexService.findWithinRadius(-3.7300, -38.5200, 50.0).stream()
+                .map(SpatialIndexService.Match::getId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.GeoConfig;
+import com.example.culturalmapapp.dto.TileFeature;
+import com.example.culturalmapapp.event.ActivityChangedEvent;
+import com.example.culturalmapapp.model.CulturalActivity;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.CulturalActivityRepository;
+import com.example.culturalmapapp.util.MvtEncoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TileServiceTests {
+
+    private static final double LAT = -3.7319;
+    private static final double LON = -38.5267;
+    private static final int ZOOM = 12;
+
+    @Mock
+    private CulturalActivityRepository activityRepository;
+
+    @Spy
+    private GeoConfig geoConfig = new GeoConfig();
+
+    @InjectMocks
+    private TileService tileService;
+
+    private User producer;
+    private int tileX;
+    private int tileY;
+
+    @BeforeEach
+    void setUp() {
+        producer = new User(1L, "producer", "password", "producer@example.com", "ROLE_PRODUCER");
+        tileService.init();
+        tileX = MvtEncoder.tileX(LON, ZOOM);
+        tileY = MvtEncoder.tileY(LAT, ZOOM);
+    }
+
+    @Test
+    void testGetTile_EncodesFeaturesInsideTheTile() {
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(new TileFeature(1L, "Festival", "Music", LAT, LON)));
+
+        byte[] tile = tileService.getTile(ZOOM, tileX, tileY);
+
+        assertEquals(0x1a, tile[0]); // Field 3 (layers), length-delimited
+        String raw = new String(tile, StandardCharsets.ISO_8859_1);
+        assertTrue(raw.contains(TileService.LAYER_NAME));
+        assertTrue(raw.contains("Festival"));
+        assertTrue(raw.contains("Music"));
+    }
+
+    @Test
+    void testGetTile_SkipsPointsOwnedByANeighbourTile() {
+        double[] bounds = MvtEncoder.tileBounds(ZOOM, tileX, tileY);
+        // Exactly on the eastern edge: belongs to the tile on the right
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(List.of(new TileFeature(1L, "Edge", "Music", LAT, bounds[3])));
+
+        assertEquals(0, tileService.getTile(ZOOM, tileX, tileY).length);
+    }
+
+    @Test
+    void testGetTile_ReadsAtMostTileMaxFeatures() {
+        geoConfig.setTileMaxFeatures(2);
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(Collections.emptyList());
+
+        tileService.getTile(0, 0, 0); // The whole world
+
+        verify(activityRepository).findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void testGetTile_QueriesOnlyTheTilesOwnPoints() {
+        double[] bounds = MvtEncoder.tileBounds(ZOOM, tileX, tileY);
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(Collections.emptyList());
+
+        tileService.getTile(ZOOM, tileX, tileY);
+        tileService.getTile(1, 1, 1); // South-east corner of the map, which also owns everything beyond it
+
+        verify(activityRepository).findTileFeatures(eq(bounds[0]), eq(bounds[1]), eq(bounds[2]), eq(bounds[3]), any());
+        verify(activityRepository).findTileFeatures(eq(-Double.MAX_VALUE), eq(0.0), eq(0.0), eq(Double.MAX_VALUE), any());
+    }
+
+    @Test
+    void testGetTile_ServesRepeatedRequestsFromCache() {
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(Collections.emptyList());
+
+        tileService.getTile(ZOOM, tileX, tileY);
+        tileService.getTile(ZOOM, tileX, tileY);
+
+        verify(activityRepository, times(1)).findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+        assertTrue(tileService.cachedBytes() > 0);
+    }
+
+    @Test
+    void testOnActivityChanged_EvictsOnlyTilesContainingTheCoordinate() {
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(Collections.emptyList());
+        tileService.getTile(ZOOM, tileX, tileY);
+        tileService.getTile(0, 0, 0);
+        tileService.getTile(ZOOM, tileX + 1, tileY);
+
+        tileService.onActivityChanged(ActivityChangedEvent.created(
+                new CulturalActivity(1L, "Festival", "Desc", LocalDateTime.now(), LAT, LON, "Music", producer)));
+        tileService.getTile(ZOOM, tileX, tileY);
+        tileService.getTile(0, 0, 0);
+        tileService.getTile(ZOOM, tileX + 1, tileY);
+
+        // The two tiles containing the point were rendered again, the neighbour came from the cache
+        verify(activityRepository, times(5)).findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    void testOnActivityChanged_UpdateEvictsPreviousLocation() {
+        when(activityRepository.findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any()))
+                .thenReturn(Collections.emptyList());
+        tileService.getTile(ZOOM, tileX, tileY);
+
+        CulturalActivity moved = new CulturalActivity(1L, "Festival", "Desc", LocalDateTime.now(), 40.7128, -74.0060, "Music", producer);
+        tileService.onActivityChanged(ActivityChangedEvent.updated(moved, LAT, LON, "Music"));
+        tileService.getTile(ZOOM, tileX, tileY);
+
+        verify(activityRepository, times(2)).findTileFeatures(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    void testGetTile_InvalidCoordinates_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(2, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(-1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> tileService.getTile(geoConfig.getTileMaxZoom() + 1, 0, 0));
+    }
+}
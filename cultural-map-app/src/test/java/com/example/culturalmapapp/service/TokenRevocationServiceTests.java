@@ -0,0 +1,98 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.JwtConfig;
+import com.example.culturalmapapp.model.RevokedToken;
+import com.example.culturalmapapp.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTests {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Spy
+    private JwtConfig jwtConfig = new JwtConfig();
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig.setExpirationMs(900_000);
+    }
+
+    @Test
+    void testIsRevoked_UnknownToken_NeverReachesTheDatabase() {
+        tokenRevocationService.init();
+
+        assertFalse(tokenRevocationService.isRevoked("not-revoked"));
+        assertFalse(tokenRevocationService.isRevoked(null)); // Token issued before ids existed
+        verify(revokedTokenRepository, never()).existsByTokenIdAndExpiresAtAfter(anyString(), any());
+    }
+
+    @Test
+    void testRevoke_StoredAndConfirmedByTheDatabase() {
+        tokenRevocationService.init();
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        when(revokedTokenRepository.existsByTokenIdAndExpiresAtAfter(eq("jti-1"), any())).thenReturn(true);
+
+        tokenRevocationService.revoke("jti-1", expiresAt);
+
+        verify(revokedTokenRepository).save(argThat((RevokedToken token) ->
+                token.getTokenId().equals("jti-1") && token.getExpiresAt().equals(expiresAt)));
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    @Test
+    void testRevoke_AlreadyExpiredToken_NotStored() {
+        tokenRevocationService.init();
+
+        tokenRevocationService.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void testInitAndSync_PickUpRevocationsFromTheDatabase() {
+        when(revokedTokenRepository.findTokenIdsExpiringAfter(any())).thenReturn(List.of("before-restart"));
+        when(revokedTokenRepository.findTokenIdsRevokedSince(any(), any())).thenReturn(List.of("other-node"));
+        when(revokedTokenRepository.existsByTokenIdAndExpiresAtAfter(anyString(), any())).thenReturn(true);
+
+        tokenRevocationService.init();
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked("before-restart"));
+        assertTrue(tokenRevocationService.isRevoked("other-node"));
+    }
+
+    @Test
+    void testSync_EntriesAgeOutAfterTwoGenerations() {
+        jwtConfig.setExpirationMs(0); // Every sync starts a new generation
+        tokenRevocationService.init();
+        tokenRevocationService.revoke("jti-1", Instant.now().plusSeconds(600));
+
+        tokenRevocationService.sync();
+        tokenRevocationService.isRevoked("jti-1"); // Still in the previous generation
+        tokenRevocationService.sync();
+        tokenRevocationService.isRevoked("jti-1");
+
+        verify(revokedTokenRepository, times(1)).existsByTokenIdAndExpiresAtAfter(eq("jti-1"), any());
+        verify(revokedTokenRepository, times(2)).deleteExpired(any());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.culturalmapapp.service;
+
+import com.example.culturalmapapp.config.CacheConfig;
+import com.example.culturalmapapp.dto.ChangePasswordRequest;
+import com.example.culturalmapapp.dto.UpdateUserProfileRequest;
+import com.example.culturalmapapp.model.User;
+import com.example.culturalmapapp.repository.UserRepository;
+import com.example.culturalmapapp.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Lookups through the real cache proxy; UserService must evict what it changes
+@SpringJUnitConfig({CacheConfig.class, UserLookupService.class, UserService.class, CustomUserDetailsService.class})
+public class UserCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        user = new User(1L, "testuser", "hashed", "test@example.com", "ROLE_CONSUMER");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testLoadUserByUsername_RepeatedLogins_QueryOnceAndKeepId() {
+        customUserDetailsService.loadUserByUsername("testuser");
+        UserDetails details = customUserDetailsService.loadUserByUsername("testuser");
+
+        assertEquals(1L, ((AuthenticatedUser) details).getId());
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    void testUpdateUserProfile_EvictsCachedUser() {
+        userService.getCurrentUserByUsername("testuser");
+        UpdateUserProfileRequest request = new UpdateUserProfileRequest();
+        request.setEmail("new@example.com");
+        userService.updateUserProfile("testuser", request);
+
+        userService.getCurrentUserByUsername("testuser");
+        // Cached read, the update's own lookup, then a reload after the eviction
+        verify(userRepository, times(3)).findByUsername("testuser");
+    }
+
+    @Test
+    void testChangePassword_EvictsCachedUser() {
+        when(passwordEncoder.matches("old", "hashed")).thenReturn(true);
+        when(passwordEncoder.encode("newPassword1")).thenReturn("rehashed");
+        customUserDetailsService.loadUserByUsername("testuser");
+
+        ChangePasswordRequest request = new ChangePasswordRequest();
+        request.setCurrentPassword("old");
+        request.setNewPassword("newPassword1");
+        userService.changePassword("testuser", request);
+
+        customUserDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(3)).findByUsername("testuser");
+    }
+
+    @Test
+    void testHashUpgradeOnLogin_EvictsCachedUserAndKeepsId() {
+        UserDetails details = customUserDetailsService.loadUserByUsername("testuser");
+
+        UserDetails upgraded = customUserDetailsService.updatePassword(details, "{bcrypt}upgraded");
+
+        assertEquals(1L, ((AuthenticatedUser) upgraded).getId());
+        assertEquals("{bcrypt}upgraded", upgraded.getPassword());
+        verify(userRepository).updatePassword("testuser", "{bcrypt}upgraded");
+        customUserDetailsService.loadUserByUsername("testuser");
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActivityCursorTests {
+
+    @Test
+    void testEncodeDecode_RoundTripKeepsOrderAndPosition() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 7, 20, 18, 0);
+        ActivityCursor cursor = ActivityCursor.start(ActivityCursor.SortKey.DATE_TIME, true).after(dateTime, 42L);
+
+        String encoded = cursor.encode();
+        ActivityCursor decoded = ActivityCursor.decode(encoded);
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+")); // Safe in a query string as it is
+        assertEquals(ActivityCursor.SortKey.DATE_TIME, decoded.getSortKey());
+        assertTrue(decoded.isDescending());
+        assertEquals(dateTime, decoded.getDateTime());
+        assertEquals(42L, decoded.getId());
+        assertFalse(decoded.isStart());
+    }
+
+    @Test
+    void testAfter_ByIdIgnoresDateTime() {
+        ActivityCursor cursor = ActivityCursor.decode(ActivityCursor.start(ActivityCursor.SortKey.ID, false)
+                .after(LocalDateTime.now(), 7L).encode());
+
+        assertEquals(ActivityCursor.SortKey.ID, cursor.getSortKey());
+        assertNull(cursor.getDateTime());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void testDecode_MalformedOrUnknownSort_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.decode(ActivityCursor.start(ActivityCursor.SortKey.ID, false).encode() + "AA"));
+        assertThrows(IllegalArgumentException.class, () -> ActivityCursor.SortKey.fromProperty("name"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTests {
+
+    @Test
+    void testReadRecord_QuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "id,name\r\n1,\"Forró, ao vivo\"\r\n2,\"Says \"\"hi\"\"\nover two lines\"\n3,\n"));
+
+        assertEquals(List.of("id", "name"), reader.readRecord());
+        assertEquals(List.of("1", "Forró, ao vivo"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("2", "Says \"hi\"\nover two lines"), reader.readRecord());
+        assertEquals(List.of("3", ""), reader.readRecord());
+        assertEquals(5, reader.getRecordLine()); // The quoted line break counts
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testReadRecord_BlankLinesSkippedAndLastLineWithoutBreak() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\n\n\nc,d"));
+
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertEquals(List.of("c", "d"), reader.readRecord());
+        assertEquals(4, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void testReadRecord_UnterminatedQuote_Throws() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("1,ok\n2,\"never closed\n3,x\n"));
+
+        assertEquals(List.of("1", "ok"), reader.readRecord());
+        assertThrows(IllegalArgumentException.class, reader::readRecord);
+    }
+
+    @Test
+    void testCsvWriter_RoundTripsThroughReader() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        writer.writeRecord(1, "Forró, \"pé de serra\"", "two\nlines", null);
+        writer.writeRecord(2, "plain", "", 3.5);
+
+        assertEquals("1,\"Forró, \"\"pé de serra\"\"\",\"two\nlines\",\r\n2,plain,,3.5\r\n", out.toString());
+        CsvReader reader = new CsvReader(new StringReader(out.toString()));
+        assertEquals(List.of("1", "Forró, \"pé de serra\"", "two\nlines", ""), reader.readRecord());
+        assertEquals(List.of("2", "plain", "", "3.5"), reader.readRecord());
+    }
+}
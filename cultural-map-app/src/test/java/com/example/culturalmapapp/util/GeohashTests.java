@@ -0,0 +1,42 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeohashTests {
+
+    @Test
+    void testEncode_KnownValue() {
+        // Reference value from the original geohash.org implementation
+        assertEquals("ezs42", Geohash.encode(42.6, -5.6, 5));
+        assertEquals(12, Geohash.encode(-3.7319, -38.5267).length());
+        assertNull(Geohash.encode(null, -38.5267));
+    }
+
+    @Test
+    void testIncrement_CarriesPastLastCharacter() {
+        assertEquals("7zd", Geohash.increment("7zc"));
+        assertEquals("bb", Geohash.increment("b9z"));
+        assertNull(Geohash.increment("zz"));
+    }
+
+    @Test
+    void testCoveringRanges_ContainEveryPointInTheBox() {
+        double minLat = -3.78, maxLat = -3.69, minLon = -38.58, maxLon = -38.47;
+        List<Geohash.Range> ranges = Geohash.coveringRanges(minLat, maxLat, minLon, maxLon);
+        assertTrue(ranges.size() <= 16);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double lat = minLat + random.nextDouble() * (maxLat - minLat);
+            double lon = minLon + random.nextDouble() * (maxLon - minLon);
+            String hash = Geohash.encode(lat, lon, Geohash.MAX_PRECISION);
+            assertTrue(ranges.stream().anyMatch(r -> hash.compareTo(r.getFrom()) >= 0 && (r.getTo() == null || hash.compareTo(r.getTo()) < 0)),
+                    "No range covers " + hash);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class HaversineKernelTests {
+
+    private static final int COUNT = 1003; // Not a multiple of any vector length, so the tail loop runs too
+
+    private final double[] lats = new double[COUNT];
+    private final double[] lons = new double[COUNT];
+    private final double[] latRad = new double[COUNT];
+    private final double[] lonRad = new double[COUNT];
+    private final double[] cosLat = new double[COUNT];
+
+    HaversineKernelTests() {
+        Random random = new Random(11);
+        for (int i = 0; i < COUNT; i++) {
+            lats[i] = random.nextDouble() * 180 - 90;
+            lons[i] = random.nextDouble() * 360 - 180;
+            latRad[i] = Math.toRadians(lats[i]);
+            lonRad[i] = Math.toRadians(lons[i]);
+            cosLat[i] = Math.cos(latRad[i]);
+        }
+    }
+
+    private void assertMatchesReference(HaversineKernel kernel) {
+        double queryLat = -3.7319, queryLon = -38.5267;
+        double queryLatRad = Math.toRadians(queryLat);
+        double[] distances = new double[COUNT];
+
+        kernel.distances(queryLatRad, Math.toRadians(queryLon), Math.cos(queryLatRad), latRad, lonRad, cosLat, COUNT, distances);
+
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(GeoUtils.haversineKm(queryLat, queryLon, lats[i], lons[i]), distances[i], 1e-6, "point " + i);
+        }
+    }
+
+    @Test
+    void testScalarKernel_MatchesGeoUtils() {
+        assertMatchesReference(new ScalarHaversineKernel());
+    }
+
+    @Test
+    void testVectorKernel_MatchesGeoUtils() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), "Vector API module not resolved");
+        assertMatchesReference(new VectorHaversineKernel());
+    }
+
+    @Test
+    void testBest_ReturnsAWorkingKernel() {
+        assertMatchesReference(HaversineKernel.best());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTests {
+
+    private static final String[] WORDS = {"show", "musica", "teatro", "infantil", "danca", "cinema", "sarau", "poesia",
+            "feira", "forro", "circo", "oficina", "praca", "festival", "coral", "maracatu"};
+
+    private static InvertedIndex.Document document(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : PortugueseAnalyzer.terms(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return new InvertedIndex.Document(frequencies);
+    }
+
+    private static List<Long> ids(InvertedIndex index, String query, int k) {
+        List<Long> ids = new ArrayList<>();
+        index.search(PortugueseAnalyzer.terms(query), k, (id, score) -> ids.add(id));
+        return ids;
+    }
+
+    private static List<double[]> hits(InvertedIndex index, List<String> terms, int k) {
+        List<double[]> hits = new ArrayList<>();
+        index.search(terms, k, (id, score) -> hits.add(new double[] {id, score}));
+        return hits;
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(30);
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Textbook BM25 over the whole collection, to check the compressed index against
+    private static List<double[]> bruteForce(Map<Long, InvertedIndex.Document> documents, List<String> terms, int k) {
+        double averageLength = documents.values().stream().mapToInt(InvertedIndex.Document::getLength).average().orElse(0);
+        List<double[]> scored = new ArrayList<>();
+        for (Map.Entry<Long, InvertedIndex.Document> entry : documents.entrySet()) {
+            double score = 0;
+            for (String term : terms) {
+                long documentFrequency = documents.values().stream().filter(d -> d.frequency(term) > 0).count();
+                int frequency = entry.getValue().frequency(term);
+                if (frequency > 0) {
+                    double idf = Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                    score += idf * frequency * 2.2 / (frequency + 1.2 * (0.25 + 0.75 * entry.getValue().getLength() / averageLength));
+                }
+            }
+            if (score > 0) {
+                scored.add(new double[] {entry.getKey(), score});
+            }
+        }
+        scored.sort(Comparator.<double[]>comparingDouble(hit -> -hit[1]).thenComparingDouble(hit -> hit[0]));
+        return scored.subList(0, Math.min(k, scored.size()));
+    }
+
+    private static void assertSameHits(List<double[]> expected, List<double[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i)[0], actual.get(i)[0], "Hit " + i);
+            assertEquals(expected.get(i)[1], actual.get(i)[1], 1e-9, "Score of hit " + i);
+        }
+    }
+
+    @Test
+    void testSearch_RanksRareAndRepeatedTermsHigher() {
+        InvertedIndex index = new InvertedIndex.Builder(16)
+                .add(1, document("Forró pé de serra no Dragão"))
+                .add(2, document("Teatro infantil"))
+                .add(3, document("Forró forró forró, noite de forró"))
+                .add(4, document("Teatros infantis e oficina de circo"))
+                .add(5, document("Cinema na praça"))
+                .build();
+
+        assertEquals(List.of(3L, 1L), ids(index, "FORRO", 10));
+        // Plurals and accents fold to the same terms; both words beat one
+        assertEquals(List.of(2L, 4L), ids(index, "teatro infantil", 10));
+        assertEquals(List.of(4L, 1L, 2L), ids(index, "circo teatro serra", 3));
+        assertEquals(List.of(5L), ids(index, "praça", 10));
+        assertTrue(ids(index, "maracatu", 10).isEmpty());
+        assertEquals(1, ids(index, "forró", 1).size());
+    }
+
+    @Test
+    void testSearch_MatchesBruteForceBm25() {
+        Random random = new Random(42);
+        Map<Long, InvertedIndex.Document> documents = new TreeMap<>();
+        InvertedIndex.Builder builder = new InvertedIndex.Builder(64);
+        for (long id = 1; id <= 2000; id++) {
+            InvertedIndex.Document document = document(randomText(random));
+            documents.put(id * 3, document);
+            builder.add(id * 3, document);
+        }
+        InvertedIndex index = builder.build();
+
+        for (List<String> terms : List.of(List.of("forro"), List.of("teatro", "infantil"), List.of("coral", "sarau", "circo"))) {
+            assertSameHits(bruteForce(documents, terms, 25), hits(index, terms, 25));
+        }
+        // Gap and frequency bytes for ~2000 documents x 16 terms stay small
+        assertTrue(index.postingBytes() < 2000 * WORDS.length * 2, "Posting bytes: " + index.postingBytes());
+    }
+
+    @Test
+    void testWithAndWithout_ReturnNewVersionsAndMergeExactly() {
+        Random random = new Random(7);
+        Map<Long, InvertedIndex.Document> documents = new TreeMap<>();
+        InvertedIndex.Builder builder = new InvertedIndex.Builder(50);
+        for (long id = 1; id <= 300; id++) {
+            InvertedIndex.Document document = document(randomText(random));
+            documents.put(id, document);
+            builder.add(id, document);
+        }
+        InvertedIndex original = builder.build();
+        InvertedIndex index = original;
+        for (int write = 0; write < 500; write++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                documents.remove(id);
+                index = index.without(id);
+            } else {
+                InvertedIndex.Document document = document(randomText(random));
+                documents.put(id, document);
+                index = index.with(id, document);
+            }
+        }
+
+        assertEquals(300, original.size()); // Untouched by the writes
+        assertEquals(documents.size(), index.size());
+        // Every document with the term is found, whether it sits in the merged base or the overlay
+        List<Long> withForro = documents.entrySet().stream().filter(e -> e.getValue().frequency("forro") > 0).map(Map.Entry::getKey).sorted().toList();
+        List<Long> found = new ArrayList<>(ids(index, "forro", 1000));
+        found.sort(null);
+        assertEquals(withForro, found);
+
+        // Without an overlay (every write merged) scores are exact
+        InvertedIndex merged = InvertedIndex.empty(0);
+        for (Map.Entry<Long, InvertedIndex.Document> entry : documents.entrySet()) {
+            merged = merged.with(entry.getKey(), entry.getValue());
+        }
+        merged = merged.without(documents.keySet().iterator().next());
+        documents.remove(documents.keySet().iterator().next());
+        assertSameHits(bruteForce(documents, List.of("forro", "danca"), 20), hits(merged, List.of("forro", "danca"), 20));
+    }
+
+    @Test
+    void testBuilder_RejectsIdsOutOfOrder() {
+        InvertedIndex.Builder builder = new InvertedIndex.Builder(16).add(5, document("show"));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5, document("show")));
+    }
+
+    @Test
+    void testAnalyzer_FoldsAccentsDropsStopWordsAndReducesPlurals() {
+        assertEquals(List.of("forro", "pe", "serra"), PortugueseAnalyzer.terms("Forró pé-de-serra"));
+        assertEquals(List.of("cancao", "espetaculo", "festival", "infantil", "papel", "ator", "bom"),
+                PortugueseAnalyzer.terms("Canções, ESPETÁCULOS; festivais infantis papéis atores bons"));
+        assertEquals(List.of("lapis", "onibus", "2024"), PortugueseAnalyzer.terms("lápis e ônibus em 2024"));
+    }
+}
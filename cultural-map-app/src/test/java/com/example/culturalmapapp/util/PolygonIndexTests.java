@@ -0,0 +1,68 @@
+package com.example.culturalmapapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolygonIndexTests {
+
+    // Axis-aligned square ring as {lon, lat} vertices
+    private static double[][] square(double minLon, double minLat, double size) {
+        return new double[][] {
+                {minLon, minLat}, {minLon + size, minLat}, {minLon + size, minLat + size}, {minLon, minLat + size}, {minLon, minLat}
+        };
+    }
+
+    @Test
+    void testLocate_PicksTheContainingRegion() {
+        PolygonIndex index = new PolygonIndex(List.of(
+                new PolygonIndex.Region("a", "A", List.<double[][]>of(square(-38.60, -3.80, 0.05))),
+                new PolygonIndex.Region("b", "B", List.<double[][]>of(square(-38.55, -3.80, 0.05)))));
+
+        assertEquals("a", index.locate(-3.77, -38.58));
+        assertEquals("b", index.locate(-3.77, -38.52));
+        assertNull(index.locate(-3.70, -38.52)); // North of both
+        assertNull(index.locate(-3.77, -38.40)); // East of both
+    }
+
+    @Test
+    void testLocate_HolesAndMultiplePartsUseEvenOddRule() {
+        // Outer square with a hole, plus a separate island inside the hole
+        PolygonIndex index = new PolygonIndex(List.of(
+                new PolygonIndex.Region("ring", "Ring", List.of(square(0, 0, 10), square(3, 3, 4), square(4.5, 4.5, 1)))));
+
+        assertEquals("ring", index.locate(1, 1));
+        assertNull(index.locate(3.5, 3.5)); // In the hole
+        assertEquals("ring", index.locate(5, 5)); // On the island
+    }
+
+    @Test
+    void testLocate_ManyVertexPolygonMatchesCircleTest() {
+        int vertices = 720;
+        double[][] circle = new double[vertices][];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            circle[i] = new double[] {Math.cos(angle), Math.sin(angle)};
+        }
+        PolygonIndex index = new PolygonIndex(List.of(new PolygonIndex.Region("c", "Circle", List.<double[][]>of(circle))));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            double lon = random.nextDouble() * 2.4 - 1.2;
+            double lat = random.nextDouble() * 2.4 - 1.2;
+            double r = Math.hypot(lon, lat);
+            if (Math.abs(r - 1) < 1e-3) {
+                continue; // Too close to the boundary for the polygonal approximation
+            }
+            assertEquals(r < 1, index.locate(lat, lon) != null, "at " + lat + "," + lon);
+        }
+    }
+
+    @Test
+    void testLocate_EmptyIndex() {
+        assertNull(new PolygonIndex(List.of()).locate(-3.7, -38.5));
+    }
+}